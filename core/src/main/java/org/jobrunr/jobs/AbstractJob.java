@@ -10,6 +10,7 @@ public abstract class AbstractJob implements Lockable {
 
     private volatile int version;
     private String jobSignature;
+    private transient Long jobSignatureHash;
     private String jobName;
     private JobDetails jobDetails;
 
@@ -52,6 +53,13 @@ public abstract class AbstractJob implements Lockable {
         return jobSignature;
     }
 
+    public long getJobSignatureHash() {
+        if (jobSignatureHash == null) {
+            jobSignatureHash = JobUtils.getJobSignatureHash(jobSignature);
+        }
+        return jobSignatureHash;
+    }
+
     public String getJobName() {
         return jobName;
     }
@@ -26,10 +26,12 @@ public class Job extends AbstractJob {
     private ArrayList<JobState> jobHistory;
     private final ConcurrentMap<String, Object> metadata;
     private String recurringJobId;
+    private transient volatile int lastSavedStateIndex;
 
     private Job() {
         // used for deserialization
         this.metadata = new ConcurrentHashMap<>();
+        this.lastSavedStateIndex = -1;
     }
 
     public Job(JobDetails jobDetails) {
@@ -74,6 +76,7 @@ public class Job extends AbstractJob {
         this.id = id != null ? id : UUID.randomUUID();
         this.jobHistory = new ArrayList<>(jobHistory);
         this.metadata = metadata;
+        this.lastSavedStateIndex = -1;
     }
 
     public void setId(UUID id) {
@@ -114,13 +117,53 @@ public class Job extends AbstractJob {
         return getJobState().getName();
     }
 
+    /**
+     * Returns the state of this job as it is known by the {@link org.jobrunr.storage.StorageProvider}, being the state it
+     * had when it was last loaded from or saved to the StorageProvider. For a job that was never saved, this is the state it was created with.
+     *
+     * @return the state of the job when it was last loaded or saved
+     */
+    public StateName getLastSavedState() {
+        final int stateIndex = lastSavedStateIndex;
+        if (stateIndex < 0) return getState();
+        return jobHistory.get(stateIndex).getName();
+    }
+
+    /**
+     * Returns the amount of states in the history of this job that are known by the {@link org.jobrunr.storage.StorageProvider} (see
+     * {@link #getLastSavedState()}). The states after them were added since this job was last loaded or saved.
+     *
+     * @return the amount of states of this job when it was last loaded or saved
+     */
+    public int getAmountOfSavedStates() {
+        final int stateIndex = lastSavedStateIndex;
+        if (stateIndex < 0) return jobHistory.size();
+        return stateIndex + 1;
+    }
+
     public void addJobState(JobState jobState) {
         if (isIllegalStateChange(getState(), jobState.getName())) {
             throw new IllegalJobStateChangeException(getState(), jobState.getName());
         }
+        if (lastSavedStateIndex < 0) {
+            // the current state is the one known by the StorageProvider until this job is saved again
+            this.lastSavedStateIndex = jobHistory.size() - 1;
+        }
         this.jobHistory.add(jobState);
     }
 
+    void stateSaved() {
+        this.lastSavedStateIndex = jobHistory.size() - 1;
+    }
+
+    int getLastSavedStateIndex() {
+        return lastSavedStateIndex;
+    }
+
+    void setLastSavedStateIndex(int lastSavedStateIndex) {
+        this.lastSavedStateIndex = lastSavedStateIndex;
+    }
+
     public boolean hasState(StateName state) {
         return getState().equals(state);
     }
@@ -0,0 +1,55 @@
+package org.jobrunr.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers the versions of jobs before they are saved. The {@link JobVersioner} commits the new version of a job as soon as it is written,
+ * so if the transaction that wrote it is rolled back afterwards, the versions must be restored for the jobs to be saved again.
+ */
+public class JobVersionsSnapshot {
+
+    private final List<JobVersion> jobVersions;
+
+    public JobVersionsSnapshot() {
+        this.jobVersions = new ArrayList<>();
+    }
+
+    public JobVersionsSnapshot(List<Job> jobs) {
+        this();
+        add(jobs);
+    }
+
+    public void add(List<Job> jobs) {
+        jobs.forEach(job -> jobVersions.add(new JobVersion(job)));
+    }
+
+    public void add(JobVersionsSnapshot jobVersionsSnapshot) {
+        jobVersions.addAll(jobVersionsSnapshot.jobVersions);
+    }
+
+    public void restore() {
+        // in reverse order so that a job saved more than once gets the version it had before it was saved the first time
+        for (int i = jobVersions.size() - 1; i >= 0; i--) {
+            jobVersions.get(i).restore();
+        }
+    }
+
+    private static class JobVersion {
+
+        private final Job job;
+        private final int version;
+        private final int lastSavedStateIndex;
+
+        private JobVersion(Job job) {
+            this.job = job;
+            this.version = job.getVersion();
+            this.lastSavedStateIndex = job.getLastSavedStateIndex();
+        }
+
+        private void restore() {
+            job.setVersion(version);
+            job.setLastSavedStateIndex(lastSavedStateIndex);
+        }
+    }
+}
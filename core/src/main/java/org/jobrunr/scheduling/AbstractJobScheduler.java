@@ -14,9 +14,11 @@ import org.jobrunr.scheduling.cron.CronExpression;
 import org.jobrunr.storage.ConcurrentJobModificationException;
 import org.jobrunr.storage.JobNotFoundException;
 import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.sql.SqlStorageProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
@@ -177,6 +179,14 @@ public class AbstractJobScheduler {
         return saveJob(new Job(id, jobDetails, metadata));
     }
 
+    JobId enqueueInTransaction(Connection connection, JobDetails jobDetails) {
+        return saveJob(connection, new Job(jobDetails));
+    }
+
+    JobId scheduleInTransaction(Connection connection, Instant scheduleAt, JobDetails jobDetails) {
+        return saveJob(connection, new Job(jobDetails, new ScheduledState(scheduleAt)));
+    }
+
     JobId schedule(UUID id, Instant scheduleAt, JobDetails jobDetails) {
         return saveJob(new Job(id, jobDetails, new ScheduledState(scheduleAt)));
     }
@@ -206,9 +216,19 @@ public class AbstractJobScheduler {
     }
 
     JobId saveJob(Job job) {
+        return saveJob(this.storageProvider, job);
+    }
+
+    JobId saveJob(Connection connection, Job job) {
+        if (!(storageProvider instanceof SqlStorageProvider))
+            throw new IllegalStateException("Saving jobs using a java.sql.Connection is only supported by the SqlStorageProviders.");
+        return ((SqlStorageProvider) storageProvider).inTransaction(connection, storageProviderInTransaction -> saveJob(storageProviderInTransaction, job));
+    }
+
+    private JobId saveJob(StorageProvider storageProvider, Job job) {
         try {
             jobFilterUtils.runOnCreatingFilter(job);
-            Job savedJob = this.storageProvider.save(job);
+            Job savedJob = storageProvider.save(job);
             jobFilterUtils.runOnCreatedFilter(savedJob);
             LOGGER.debug("Created Job with id {}", job.getId());
         } catch (ConcurrentJobModificationException e) {
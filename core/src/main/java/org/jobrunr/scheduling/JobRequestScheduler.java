@@ -7,6 +7,7 @@ import org.jobrunr.jobs.lambdas.JobRequest;
 import org.jobrunr.scheduling.cron.CronExpression;
 import org.jobrunr.storage.StorageProvider;
 
+import java.sql.Connection;
 import java.time.*;
 import java.util.List;
 import java.util.UUID;
@@ -77,6 +78,24 @@ public class JobRequestScheduler extends AbstractJobScheduler {
         return enqueue(id, jobDetails);
     }
 
+    /**
+     * Creates a new fire-and-forget job based on a given jobRequest and saves it using the given connection. The job is only visible to the
+     * BackgroundJobServers once the caller commits the transaction of that connection. This is only supported by the SqlStorageProviders.
+     * <h5>An example:</h5>
+     * <pre>{@code
+     *            jobScheduler.enqueueInTransaction(connection, new MyJobRequest());
+     *            connection.commit();
+     *       }</pre>
+     *
+     * @param connection the connection of the caller on which to save the job, it is not committed nor closed by JobRunr
+     * @param jobRequest the jobRequest which defines the fire-and-forget job.
+     * @return the id of the job
+     */
+    public JobId enqueueInTransaction(Connection connection, JobRequest jobRequest) {
+        JobDetails jobDetails = new JobDetails(jobRequest);
+        return enqueueInTransaction(connection, jobDetails);
+    }
+
     /**
      * Creates new fire-and-forget jobs for each item in the input stream. JobRunr will try to find the JobRequestHandler in
      * the IoC container or else it will try to create the handler by calling the default no-arg constructor.
@@ -232,6 +251,25 @@ public class JobRequestScheduler extends AbstractJobScheduler {
         return schedule(id, instant, jobDetails);
     }
 
+    /**
+     * Creates a new fire-and-forget job based on the given jobRequest, schedules it to be enqueued at the given moment of time and saves it using the given connection.
+     * The job is only visible to the BackgroundJobServers once the caller commits the transaction of that connection. This is only supported by the SqlStorageProviders.
+     * <h5>An example:</h5>
+     * <pre>{@code
+     *      jobScheduler.scheduleInTransaction(connection, Instant.now().plusHours(5), new MyJobRequest());
+     *      connection.commit();
+     * }</pre>
+     *
+     * @param connection the connection of the caller on which to save the job, it is not committed nor closed by JobRunr
+     * @param instant    the moment in time at which the job will be enqueued.
+     * @param jobRequest the jobRequest which defines the fire-and-forget job
+     * @return the id of the Job
+     */
+    public JobId scheduleInTransaction(Connection connection, Instant instant, JobRequest jobRequest) {
+        JobDetails jobDetails = new JobDetails(jobRequest);
+        return scheduleInTransaction(connection, instant, jobDetails);
+    }
+
     /**
      * Creates a new recurring job based on the given cron expression and the given jobRequest. JobRunr will try to find the JobRequestHandler in
      * the IoC container or else it will try to create the handler by calling the default no-arg constructor. The jobs will be scheduled using the systemDefault timezone.
@@ -12,6 +12,7 @@ import org.jobrunr.jobs.lambdas.JobLambdaFromStream;
 import org.jobrunr.scheduling.cron.CronExpression;
 import org.jobrunr.storage.StorageProvider;
 
+import java.sql.Connection;
 import java.time.*;
 import java.util.List;
 import java.util.UUID;
@@ -114,6 +115,25 @@ public class JobScheduler extends AbstractJobScheduler {
         return enqueue(id, jobDetails, metadata);
     }
 
+    /**
+     * Creates a new fire-and-forget job based on a given lambda and saves it using the given connection. The job is only visible to the
+     * BackgroundJobServers once the caller commits the transaction of that connection. This is only supported by the SqlStorageProviders.
+     * <h5>An example:</h5>
+     * <pre>{@code
+     *            MyService service = new MyService();
+     *            jobScheduler.enqueueInTransaction(connection, () -> service.doWork());
+     *            connection.commit();
+     *       }</pre>
+     *
+     * @param connection the connection of the caller on which to save the job, it is not committed nor closed by JobRunr
+     * @param job        the lambda which defines the fire-and-forget job
+     * @return the id of the job
+     */
+    public JobId enqueueInTransaction(Connection connection, JobLambda job) {
+        JobDetails jobDetails = jobDetailsGenerator.toJobDetails(job);
+        return enqueueInTransaction(connection, jobDetails);
+    }
+
     /**
      * Creates new fire-and-forget jobs for each item in the input stream using the lambda passed as {@code jobFromStream}.
      * <h5>An example:</h5>
@@ -184,6 +204,24 @@ public class JobScheduler extends AbstractJobScheduler {
         return enqueue(id, jobDetails, metadata);
     }
 
+    /**
+     * Creates a new fire-and-forget job based on a given lambda and saves it using the given connection. The IoC container will be used to resolve {@code MyService}.
+     * The job is only visible to the BackgroundJobServers once the caller commits the transaction of that connection. This is only supported by the SqlStorageProviders.
+     * <h5>An example:</h5>
+     * <pre>{@code
+     *            jobScheduler.<MyService>enqueueInTransaction(connection, x -> x.doWork());
+     *            connection.commit();
+     *       }</pre>
+     *
+     * @param connection the connection of the caller on which to save the job, it is not committed nor closed by JobRunr
+     * @param iocJob     the lambda which defines the fire-and-forget job
+     * @return the id of the job
+     */
+    public <S> JobId enqueueInTransaction(Connection connection, IocJobLambda<S> iocJob) {
+        JobDetails jobDetails = jobDetailsGenerator.toJobDetails(iocJob);
+        return enqueueInTransaction(connection, jobDetails);
+    }
+
     /**
      * Creates new fire-and-forget jobs for each item in the input stream using the lambda passed as {@code jobFromStream}. The IoC container will be used to resolve {@code MyService}.
      * <h5>An example:</h5>
@@ -573,6 +611,26 @@ public class JobScheduler extends AbstractJobScheduler {
         return schedule(id, instant, jobDetails, metadata);
     }
 
+    /**
+     * Creates a new fire-and-forget job based on the given lambda, schedules it to be enqueued at the given moment of time and saves it using the given connection.
+     * The job is only visible to the BackgroundJobServers once the caller commits the transaction of that connection. This is only supported by the SqlStorageProviders.
+     * <h5>An example:</h5>
+     * <pre>{@code
+     *      MyService service = new MyService();
+     *      jobScheduler.scheduleInTransaction(connection, Instant.now().plusHours(5), () -> service.doWork());
+     *      connection.commit();
+     * }</pre>
+     *
+     * @param connection the connection of the caller on which to save the job, it is not committed nor closed by JobRunr
+     * @param instant    the moment in time at which the job will be enqueued.
+     * @param job        the lambda which defines the fire-and-forget job
+     * @return the id of the Job
+     */
+    public JobId scheduleInTransaction(Connection connection, Instant instant, JobLambda job) {
+        JobDetails jobDetails = jobDetailsGenerator.toJobDetails(job);
+        return scheduleInTransaction(connection, instant, jobDetails);
+    }
+
     /**
      * Creates a new fire-and-forget job based on the given lambda and schedules it to be enqueued at the given moment of time. The IoC container will be used to resolve {@code MyService}.
      * <h5>An example:</h5>
@@ -626,6 +684,26 @@ public class JobScheduler extends AbstractJobScheduler {
         return schedule(id, instant, jobDetails, metadata);
     }
 
+    /**
+     * Creates a new fire-and-forget job based on the given lambda, schedules it to be enqueued at the given moment of time and saves it using the given connection.
+     * The IoC container will be used to resolve {@code MyService}. The job is only visible to the BackgroundJobServers once the caller commits the transaction of
+     * that connection. This is only supported by the SqlStorageProviders.
+     * <h5>An example:</h5>
+     * <pre>{@code
+     *      jobScheduler.<MyService>scheduleInTransaction(connection, Instant.now().plusHours(5), x -> x.doWork());
+     *      connection.commit();
+     * }</pre>
+     *
+     * @param connection the connection of the caller on which to save the job, it is not committed nor closed by JobRunr
+     * @param instant    the moment in time at which the job will be enqueued.
+     * @param iocJob     the lambda which defines the fire-and-forget job
+     * @return the id of the Job
+     */
+    public <S> JobId scheduleInTransaction(Connection connection, Instant instant, IocJobLambda<S> iocJob) {
+        JobDetails jobDetails = jobDetailsGenerator.toJobDetails(iocJob);
+        return scheduleInTransaction(connection, instant, jobDetails);
+    }
+
     /**
      * Creates a new recurring job based on the given lambda and the given cron expression. The jobs will be scheduled using the systemDefault timezone.
      * <h5>An example:</h5>
@@ -256,9 +256,11 @@ public class BackgroundJobServer implements BackgroundJobServerMBean {
         // and all will be launched one after another
         zookeeperThreadPool.scheduleWithFixedDelay(serverZooKeeper, 0, configuration.pollIntervalInSeconds, TimeUnit.SECONDS);
         zookeeperThreadPool.scheduleWithFixedDelay(jobZooKeeper, 1, configuration.pollIntervalInSeconds, TimeUnit.SECONDS);
+        storageProvider.addJobStorageOnChangeListener(jobZooKeeper);
     }
 
     private void stopZooKeepers() {
+        storageProvider.removeJobStorageOnChangeListener(jobZooKeeper);
         serverZooKeeper.stop();
         stop(zookeeperThreadPool);
         this.zookeeperThreadPool = null;
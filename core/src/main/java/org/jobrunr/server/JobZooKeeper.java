@@ -14,6 +14,7 @@ import org.jobrunr.storage.BackgroundJobServerStatus;
 import org.jobrunr.storage.ConcurrentJobModificationException;
 import org.jobrunr.storage.PageRequest;
 import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.listeners.EnqueuedJobsChangeListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,21 +26,22 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 import static java.time.Duration.ofSeconds;
 import static java.time.Instant.now;
-import static java.util.Collections.emptyList;
 import static org.jobrunr.JobRunrException.shouldNotHappenException;
 import static org.jobrunr.jobs.states.StateName.PROCESSING;
 import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
 import static org.jobrunr.jobs.states.StateName.FAILED;
 import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAtAfter;
 
-public class JobZooKeeper implements Runnable {
+public class JobZooKeeper implements Runnable, EnqueuedJobsChangeListener {
 
     static final Logger LOGGER = LoggerFactory.getLogger(JobZooKeeper.class);
+    private static final Duration JOB_STATS_RECONCILIATION_INTERVAL = Duration.ofHours(1);
 
     private final BackgroundJobServer backgroundJobServer;
     private final StorageProvider storageProvider;
@@ -53,6 +55,7 @@ public class JobZooKeeper implements Runnable {
     private final AtomicInteger occupiedWorkers;
     private final Duration durationPollIntervalTimeBox;
     private Instant runStartTime;
+    private Instant nextJobStatsReconciliation;
 
     public JobZooKeeper(BackgroundJobServer backgroundJobServer) {
         this.backgroundJobServer = backgroundJobServer;
@@ -101,6 +104,8 @@ public class JobZooKeeper implements Runnable {
             checkForSucceededJobsThanCanGoToDeletedState();
             checkForFailedJobsThanCanGoToDeletedState();
             checkForJobsThatCanBeDeleted();
+            checkForJobsToArchive();
+            checkForJobStatsToReconcile();
         }
     }
 
@@ -116,14 +121,14 @@ public class JobZooKeeper implements Runnable {
 
     void checkForScheduledJobs() {
         LOGGER.debug("Looking for scheduled jobs... ");
-        Supplier<List<Job>> scheduledJobsSupplier = () -> storageProvider.getScheduledJobs(now().plusSeconds(backgroundJobServerStatus().getPollIntervalInSeconds()), ascOnUpdatedAt(1000));
+        BiFunction<StorageProvider, PageRequest, List<Job>> scheduledJobsSupplier = (unitOfWork, pageRequest) -> unitOfWork.getScheduledJobs(now().plusSeconds(backgroundJobServerStatus().getPollIntervalInSeconds()), pageRequest);
         processJobList(scheduledJobsSupplier, Job::enqueue);
     }
 
     void checkForOrphanedJobs() {
         LOGGER.debug("Looking for orphan jobs... ");
         final Instant updatedBefore = runStartTime.minus(ofSeconds(backgroundJobServer.getServerStatus().getPollIntervalInSeconds()).multipliedBy(4));
-        Supplier<List<Job>> orphanedJobsSupplier = () -> storageProvider.getJobs(PROCESSING, updatedBefore, ascOnUpdatedAt(1000));
+        BiFunction<StorageProvider, PageRequest, List<Job>> orphanedJobsSupplier = (unitOfWork, pageRequest) -> unitOfWork.getJobs(PROCESSING, updatedBefore, pageRequest);
         processJobList(orphanedJobsSupplier, job -> job.failed("Orphaned job", new IllegalThreadStateException("Job was too long in PROCESSING state without being updated.")));
     }
 
@@ -134,7 +139,7 @@ public class JobZooKeeper implements Runnable {
         AtomicInteger succeededJobsCounter = new AtomicInteger();
 
         final Instant updatedBefore = now().minus(backgroundJobServer.getServerStatus().getDeleteSucceededJobsAfter());
-        Supplier<List<Job>> succeededJobsSupplier = () -> storageProvider.getJobs(SUCCEEDED, updatedBefore, ascOnUpdatedAt(1000));
+        BiFunction<StorageProvider, PageRequest, List<Job>> succeededJobsSupplier = (unitOfWork, pageRequest) -> unitOfWork.getJobs(SUCCEEDED, updatedBefore, pageRequest);
         processJobList(succeededJobsSupplier, job -> {
             succeededJobsCounter.incrementAndGet();
             job.delete("JobRunr maintenance - deleting succeeded job");
@@ -151,7 +156,7 @@ public class JobZooKeeper implements Runnable {
         LOGGER.debug("Looking for failed jobs that can go to the deleted state... ");
 
         final Instant updatedBefore = now().minus(backgroundJobServer.getServerStatus().getDeleteFailedJobsAfter());
-        Supplier<List<Job>> failedJobsSupplier = () -> storageProvider.getJobs(FAILED, updatedBefore, ascOnUpdatedAt(1000));
+        BiFunction<StorageProvider, PageRequest, List<Job>> failedJobsSupplier = (unitOfWork, pageRequest) -> unitOfWork.getJobs(FAILED, updatedBefore, pageRequest);
         processJobList(failedJobsSupplier, job -> {
             job.delete("JobRunr maintenance - deleting failed job");
         });
@@ -165,6 +170,20 @@ public class JobZooKeeper implements Runnable {
         storageProvider.deleteJobsPermanently(StateName.DELETED, now().minus(backgroundJobServer.getServerStatus().getPermanentlyDeleteDeletedJobsAfter()));
     }
 
+    void checkForJobsToArchive() {
+        LOGGER.debug("Looking for succeeded and deleted jobs that can be archived... ");
+        storageProvider.archiveJobs();
+    }
+
+    void checkForJobStatsToReconcile() {
+        if (nextJobStatsReconciliation != null && now().isBefore(nextJobStatsReconciliation))
+            return;
+
+        LOGGER.debug("Reconciling job stats... ");
+        storageProvider.reconcileJobStats();
+        nextJobStatsReconciliation = now().plus(JOB_STATS_RECONCILIATION_INTERVAL);
+    }
+
     void onboardNewWorkIfPossible() {
         if (pollIntervalInSecondsTimeBoxIsAboutToPass()) return;
         if (canOnboardNewWork()) {
@@ -204,11 +223,18 @@ public class JobZooKeeper implements Runnable {
 
     }
 
-    void processJobList(Supplier<List<Job>> jobListSupplier, Consumer<Job> jobConsumer) {
-        List<Job> jobs = getJobsToProcess(jobListSupplier);
-        while (!jobs.isEmpty()) {
-            processJobList(jobs, jobConsumer);
-            jobs = getJobsToProcess(jobListSupplier);
+    void processJobList(BiFunction<StorageProvider, PageRequest, List<Job>> jobListSupplier, Consumer<Job> jobConsumer) {
+        PageRequest pageRequest = ascOnUpdatedAt(1000);
+        while (pageRequest != null && !pollIntervalInSecondsTimeBoxIsAboutToPass()) {
+            final PageRequest currentPageRequest = pageRequest;
+            // each page is read and saved using one unit of work, the concurrent modifications are only resolved once it is committed
+            final ProcessedJobPage processedJobPage = storageProvider.inTransaction(unitOfWork -> processJobPage(unitOfWork, jobListSupplier.apply(unitOfWork, currentPageRequest), jobConsumer));
+            if (processedJobPage.concurrentJobModificationException != null) {
+                resolveConcurrentJobModificationException(processedJobPage.concurrentJobModificationException);
+            } else {
+                jobFilterUtils.runOnStateAppliedFilters(processedJobPage.jobs);
+            }
+            pageRequest = processedJobPage.nextPageRequest;
         }
     }
 
@@ -220,15 +246,34 @@ public class JobZooKeeper implements Runnable {
                 storageProvider.save(jobs);
                 jobFilterUtils.runOnStateAppliedFilters(jobs);
             } catch (ConcurrentJobModificationException concurrentJobModificationException) {
-                try {
-                    concurrentJobModificationResolver.resolve(concurrentJobModificationException);
-                } catch (UnresolvableConcurrentJobModificationException unresolvableConcurrentJobModificationException) {
-                    throw new SevereJobRunrException("Could not resolve ConcurrentJobModificationException", unresolvableConcurrentJobModificationException);
-                }
+                resolveConcurrentJobModificationException(concurrentJobModificationException);
             }
         }
     }
 
+    private ProcessedJobPage processJobPage(StorageProvider unitOfWork, List<Job> jobs, Consumer<Job> jobConsumer) {
+        if (jobs.isEmpty()) return new ProcessedJobPage(jobs, null, null);
+
+        // the cursor must be taken before processing as processing changes the updatedAt of the job
+        final PageRequest nextPageRequest = ascOnUpdatedAtAfter(jobs.get(jobs.size() - 1), 1000);
+        try {
+            jobs.forEach(jobConsumer);
+            jobFilterUtils.runOnStateElectionFilter(jobs);
+            unitOfWork.save(jobs);
+            return new ProcessedJobPage(jobs, nextPageRequest, null);
+        } catch (ConcurrentJobModificationException concurrentJobModificationException) {
+            return new ProcessedJobPage(jobs, nextPageRequest, concurrentJobModificationException);
+        }
+    }
+
+    private void resolveConcurrentJobModificationException(ConcurrentJobModificationException concurrentJobModificationException) {
+        try {
+            concurrentJobModificationResolver.resolve(concurrentJobModificationException);
+        } catch (UnresolvableConcurrentJobModificationException unresolvableConcurrentJobModificationException) {
+            throw new SevereJobRunrException("Could not resolve ConcurrentJobModificationException", unresolvableConcurrentJobModificationException);
+        }
+    }
+
     BackgroundJobServerStatus backgroundJobServerStatus() {
         return backgroundJobServer.getServerStatus();
     }
@@ -260,9 +305,13 @@ public class JobZooKeeper implements Runnable {
         }
     }
 
-    private List<Job> getJobsToProcess(Supplier<List<Job>> jobListSupplier) {
-        if (pollIntervalInSecondsTimeBoxIsAboutToPass()) return emptyList();
-        return jobListSupplier.get();
+    @Override
+    public void onNewEnqueuedJobs() {
+        // why: a StorageProvider that is notified of new enqueued jobs wakes us up so that they do not wait for the next poll
+        if (backgroundJobServer.isUnAnnounced() || !backgroundJobServer.isRunning()) return;
+        if (workDistributionStrategy.canOnboardNewWork()) {
+            checkForEnqueuedJobs();
+        }
     }
 
     private void updateCurrentlyProcessingJob(Job job) {
@@ -286,4 +335,16 @@ public class JobZooKeeper implements Runnable {
         return backgroundJobServer.getConfiguration()
                 .concurrentJobModificationPolicy.toConcurrentJobModificationResolver(storageProvider, this);
     }
+
+    private static class ProcessedJobPage {
+        private final List<Job> jobs;
+        private final PageRequest nextPageRequest;
+        private final ConcurrentJobModificationException concurrentJobModificationException;
+
+        private ProcessedJobPage(List<Job> jobs, PageRequest nextPageRequest, ConcurrentJobModificationException concurrentJobModificationException) {
+            this.jobs = jobs;
+            this.nextPageRequest = nextPageRequest;
+            this.concurrentJobModificationException = concurrentJobModificationException;
+        }
+    }
 }
@@ -43,13 +43,15 @@ public abstract class AbstractStorageProvider implements StorageProvider, AutoCl
     @Override
     public void addJobStorageOnChangeListener(StorageProviderChangeListener listener) {
         onChangeListeners.add(listener);
-        startTimerToSendUpdates();
+        if (isNotifiedByTimer(listener)) {
+            startTimerToSendUpdates();
+        }
     }
 
     @Override
     public void removeJobStorageOnChangeListener(StorageProviderChangeListener listener) {
         onChangeListeners.remove(listener);
-        if (onChangeListeners.isEmpty()) {
+        if (onChangeListeners.stream().noneMatch(AbstractStorageProvider::isNotifiedByTimer)) {
             stopTimerToSendUpdates();
         }
     }
@@ -104,6 +106,16 @@ public abstract class AbstractStorageProvider implements StorageProvider, AutoCl
         }
     }
 
+    protected void notifyEnqueuedJobsChangeListeners() {
+        try {
+            StreamUtils
+                    .ofType(onChangeListeners, EnqueuedJobsChangeListener.class)
+                    .forEach(EnqueuedJobsChangeListener::onNewEnqueuedJobs);
+        } catch (Exception e) {
+            logError(e);
+        }
+    }
+
     private void notifyJobChangeListeners() {
         try {
             final Map<JobId, List<JobChangeListener>> listenerByJob = StreamUtils
@@ -169,6 +181,14 @@ public abstract class AbstractStorageProvider implements StorageProvider, AutoCl
         }
     }
 
+    private static boolean isNotifiedByTimer(StorageProviderChangeListener listener) {
+        // EnqueuedJobsChangeListeners are only notified by StorageProviders that push new enqueued jobs and don't need the timer
+        return listener instanceof JobStatsChangeListener
+                || listener instanceof JobChangeListener
+                || listener instanceof BackgroundJobServerStatusChangeListener
+                || listener instanceof MetadataChangeListener;
+    }
+
     private void logError(Exception e) {
         if (reentrantLock.isLocked() || timer == null) return; // timer is being stopped so not interested in it
         LOGGER.warn("Error notifying JobStorageChangeListeners", e);
@@ -11,6 +11,7 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -244,7 +245,7 @@ public class InMemoryStorageProvider extends AbstractStorageProvider {
         return jobQueue.values().stream()
                 .anyMatch(job ->
                         asList(states).contains(job.getState())
-                                && actualJobSignature.equals(getJobSignature(job.getJobDetails())));
+                                && actualJobSignature.equals(job.getJobSignature()));
     }
 
     @Override
@@ -297,6 +298,11 @@ public class InMemoryStorageProvider extends AbstractStorageProvider {
     }
 
     private Stream<Job> getJobsStream(StateName state, PageRequest pageRequest) {
+        if (pageRequest.hasCursor()) {
+            return getJobsStream(state)
+                    .filter(isAfterCursor(pageRequest))
+                    .sorted(getKeysetComparator(pageRequest));
+        }
         return getJobsStream(state)
                 .sorted(getJobComparator(pageRequest));
     }
@@ -325,6 +331,21 @@ public class InMemoryStorageProvider extends AbstractStorageProvider {
         }
     }
 
+    private Predicate<Job> isAfterCursor(PageRequest pageRequest) {
+        final Instant cursorUpdatedAt = pageRequest.getCursorUpdatedAt();
+        final UUID cursorId = pageRequest.getCursorId();
+        final int direction = pageRequest.getCursorOrder() == PageRequest.Order.DESC ? -1 : 1;
+        return job -> {
+            final int comparedToCursor = job.getUpdatedAt().equals(cursorUpdatedAt) ? job.getId().compareTo(cursorId) : job.getUpdatedAt().compareTo(cursorUpdatedAt);
+            return direction * comparedToCursor > 0;
+        };
+    }
+
+    private Comparator<Job> getKeysetComparator(PageRequest pageRequest) {
+        Comparator<Job> comparator = Comparator.comparing(Job::getUpdatedAt).thenComparing(Job::getId);
+        return pageRequest.getCursorOrder() == PageRequest.Order.DESC ? comparator.reversed() : comparator;
+    }
+
     private Comparator<Job> getJobComparator(PageRequest pageRequest) {
         List<Comparator<Job>> result = new ArrayList<>();
         final String[] sortOns = pageRequest.getOrder().split(",");
@@ -1,5 +1,7 @@
 package org.jobrunr.storage;
 
+import org.jobrunr.jobs.Job;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,20 +15,27 @@ public class Page<T> {
     private final int totalPages;
     private final boolean hasPrevious;
     private final boolean hasNext;
+    private final String nextCursor;
 
     public Page(long total, List<T> items, PageRequest pageRequest) {
-        this(total, items, pageRequest.getOffset(), pageRequest.getLimit());
+        this(total, items, pageRequest.getOffset(), pageRequest.getLimit(), pageRequest.hasCursor());
     }
 
     public Page(long total, List<T> items, long offset, int limit) {
+        this(total, items, offset, limit, false);
+    }
+
+    private Page(long total, List<T> items, long offset, int limit, boolean hasCursor) {
         this.total = total;
         this.items = new ArrayList<>(items);
         this.offset = offset;
         this.limit = limit;
         this.currentPage = calculateCurrentPage();
         this.totalPages = calculateTotalPages();
-        this.hasPrevious = offset > 0;
-        this.hasNext = offset + limit < total;
+        // a page requested with a cursor always follows a previous page, a first page has neither a cursor nor an offset
+        this.hasPrevious = hasCursor || offset > 0;
+        this.hasNext = hasCursor ? items.size() == limit : offset + limit < total;
+        this.nextCursor = calculateNextCursor();
     }
 
     public long getTotal() {
@@ -61,6 +70,16 @@ public class Page<T> {
         return hasNext;
     }
 
+    /**
+     * Returns the cursor to request the next page of jobs via {@link PageRequest#ascOnUpdatedAtAfter(String, int)} or
+     * {@link PageRequest#descOnUpdatedAtAfter(String, int)}.
+     *
+     * @return the cursor to the next page or null if there is no next page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     private int calculateCurrentPage() {
         int result = (int) Math.floor((double) offset / limit);
         if(result < 1 && offset > 0) {
@@ -69,6 +88,11 @@ public class Page<T> {
         return result;
     }
 
+    private String calculateNextCursor() {
+        if (!hasNext || items.isEmpty() || !(items.get(items.size() - 1) instanceof Job)) return null;
+        return PageRequest.cursorOf((Job) items.get(items.size() - 1));
+    }
+
     private int calculateTotalPages() {
         int result = (int) Math.ceil((double) total / limit);
         if (result * limit < total) result++;
@@ -1,5 +1,14 @@
 package org.jobrunr.storage;
 
+import org.jobrunr.jobs.Job;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Requests a page of jobs either by offset or, if a cursor is given, by keyset. A cursor points to the last job of the previous
+ * page (its updatedAt and id) so that the next page can be found using the index instead of skipping all jobs before it.
+ */
 public class PageRequest {
     private static final String DEFAULT_ORDER_FIELD = "updatedAt";
 
@@ -11,6 +20,7 @@ public class PageRequest {
     private long offset = 0;
     private int limit = 20;
     private String order = DEFAULT_ORDER_FIELD + ":" + Order.ASC.name();
+    private String cursor;
 
     public static PageRequest ascOnUpdatedAt(int amount) {
         return ascOnUpdatedAt(0, amount);
@@ -28,6 +38,23 @@ public class PageRequest {
         return new PageRequest(DEFAULT_ORDER_FIELD + ":" + Order.DESC, offset, limit);
     }
 
+    public static PageRequest ascOnUpdatedAtAfter(Job lastJobOfPreviousPage, int limit) {
+        return ascOnUpdatedAtAfter(cursorOf(lastJobOfPreviousPage), limit);
+    }
+
+    public static PageRequest ascOnUpdatedAtAfter(String cursor, int limit) {
+        return new PageRequest(DEFAULT_ORDER_FIELD + ":" + Order.ASC, cursor, limit);
+    }
+
+    public static PageRequest descOnUpdatedAtAfter(String cursor, int limit) {
+        return new PageRequest(DEFAULT_ORDER_FIELD + ":" + Order.DESC, cursor, limit);
+    }
+
+    public static String cursorOf(Job job) {
+        final Instant updatedAt = job.getUpdatedAt();
+        return updatedAt.getEpochSecond() + "." + updatedAt.getNano() + "_" + job.getId();
+    }
+
     private PageRequest() {
     }
 
@@ -37,6 +64,12 @@ public class PageRequest {
         this.limit = limit;
     }
 
+    public PageRequest(String order, String cursor, int limit) {
+        this.order = order;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
     public String getOrder() {
         return order;
     }
@@ -49,12 +82,49 @@ public class PageRequest {
         return limit;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isEmpty();
+    }
+
+    public Instant getCursorUpdatedAt() {
+        final String[] epochSecondAndNano = cursorPart(0).split("\\.");
+        return Instant.ofEpochSecond(Long.parseLong(epochSecondAndNano[0]), Long.parseLong(epochSecondAndNano[1]));
+    }
+
+    public UUID getCursorId() {
+        return UUID.fromString(cursorPart(1));
+    }
+
+    /**
+     * Returns the order of a keyset page request, which must order on updatedAt only.
+     *
+     * @return the order on updatedAt
+     */
+    public Order getCursorOrder() {
+        final String[] sortAndOrder = order.split(":");
+        if (!DEFAULT_ORDER_FIELD.equals(sortAndOrder[0]) || order.contains(",")) {
+            throw new IllegalArgumentException("A cursor can only be used when ordering on " + DEFAULT_ORDER_FIELD + " and not on " + order);
+        }
+        return sortAndOrder.length > 1 ? Order.valueOf(sortAndOrder[1].toUpperCase()) : Order.ASC;
+    }
+
+    private String cursorPart(int index) {
+        final String[] parts = cursor.split("_");
+        if (parts.length != 2) throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        return parts[index];
+    }
+
     @Override
     public String toString() {
         return "PageRequest{" +
                 "order=" + order +
                 ", offset=" + offset +
                 ", limit=" + limit +
+                ", cursor=" + cursor +
                 '}';
     }
 }
@@ -12,6 +12,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * The StorageProvider allows to store, retrieve and delete background jobs.
@@ -82,8 +83,39 @@ public interface StorageProvider extends AutoCloseable {
 
     JobStats getJobStats();
 
+    /**
+     * Corrects the {@link JobStats} if the StorageProvider does not count the jobs each time {@link #getJobStats()} is called
+     * but keeps track of them as jobs change state.
+     */
+    default void reconcileJobStats() {
+        // nothing to reconcile, most StorageProviders count the jobs on each call to getJobStats
+    }
+
+    /**
+     * Moves the SUCCEEDED and DELETED jobs out of the storage of the active jobs if the StorageProvider keeps them separately, so that
+     * the queries of the BackgroundJobServers only need to go over the active jobs.
+     *
+     * @return the amount of jobs that were archived
+     */
+    default int archiveJobs() {
+        return 0;
+    }
+
     void publishTotalAmountOfSucceededJobs(int amount);
 
+    /**
+     * Runs the given unit of work against a StorageProvider of which all calls share the same connection and are committed at once when the
+     * unit of work returns. If the unit of work throws an exception, nothing is committed.
+     * StorageProviders that do not support transactions spanning multiple calls just run the unit of work against themselves.
+     *
+     * @param unitOfWork the reads and writes to run together
+     * @param <T>        the type of the result of the unit of work
+     * @return the result of the unit of work
+     */
+    default <T> T inTransaction(Function<StorageProvider, T> unitOfWork) {
+        return unitOfWork.apply(this);
+    }
+
     default Job getJobById(JobId jobId) {
         return getJobById(jobId.asUUID());
     }
@@ -45,11 +45,16 @@ public class StorageProviderUtils {
         public static final String FIELD_VERSION = "version";
         public static final String FIELD_STATE = "state";
         public static final String FIELD_JOB_AS_JSON = "jobAsJson";
+        public static final String FIELD_JOB_AS_DOCUMENT = "jobAsDocument";
         public static final String FIELD_JOB_SIGNATURE = "jobSignature";
+        public static final String FIELD_JOB_SIGNATURE_HASH = "jobSignatureHash";
         public static final String FIELD_CREATED_AT = "createdAt";
         public static final String FIELD_UPDATED_AT = "updatedAt";
         public static final String FIELD_SCHEDULED_AT = "scheduledAt";
         public static final String FIELD_RECURRING_JOB_ID = "recurringJobId";
+        public static final String FIELD_CLAIMED_BY = "claimedBy";
+        public static final String FIELD_CLAIMED_AT = "claimedAt";
+        public static final String FIELD_EXPIRE_AT = "expireAt";
     }
 
     public static class RecurringJobs {
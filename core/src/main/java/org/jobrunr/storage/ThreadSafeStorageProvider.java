@@ -14,6 +14,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 public class ThreadSafeStorageProvider implements StorageProvider {
 
@@ -187,6 +188,21 @@ public class ThreadSafeStorageProvider implements StorageProvider {
         return storageProvider.getJobStats();
     }
 
+    @Override
+    public void reconcileJobStats() {
+        storageProvider.reconcileJobStats();
+    }
+
+    @Override
+    public int archiveJobs() {
+        return storageProvider.archiveJobs();
+    }
+
+    @Override
+    public <T> T inTransaction(Function<StorageProvider, T> unitOfWork) {
+        return storageProvider.inTransaction(storageProviderInTransaction -> unitOfWork.apply(new ThreadSafeStorageProvider(storageProviderInTransaction)));
+    }
+
     @Override
     public void publishTotalAmountOfSucceededJobs(int amount) {
         storageProvider.publishTotalAmountOfSucceededJobs(amount);
@@ -0,0 +1,7 @@
+package org.jobrunr.storage.listeners;
+
+public interface EnqueuedJobsChangeListener extends StorageProviderChangeListener {
+
+    void onNewEnqueuedJobs();
+
+}
@@ -4,6 +4,7 @@ import org.apache.http.HttpHost;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
@@ -13,6 +14,7 @@ import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.RequestOptions;
@@ -20,6 +22,7 @@ import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.core.CountResponse;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -46,6 +49,7 @@ import org.jobrunr.utils.JobUtils;
 import org.jobrunr.utils.resilience.RateLimiter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -86,6 +90,7 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
     private final String metadataIndexName;
 
     private ElasticSearchDocumentMapper elasticSearchDocumentMapper;
+    private RefreshPolicy jobRefreshPolicy = IMMEDIATE;
 
 
     public ElasticSearchStorageProvider(String hostName, int port) {
@@ -142,6 +147,27 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
         this.elasticSearchDocumentMapper = new ElasticSearchDocumentMapper(jobMapper);
     }
 
+    /**
+     * Stops forcing a refresh of the job index on every write: the jobs are written using the given {@link RefreshPolicy} ({@code NONE} or
+     * {@code WAIT_UNTIL}) and Elasticsearch makes them visible to searches at the given refresh interval, which is set on the job index.
+     * Reading a job by its id stays real-time, so a job can always be read back after it was saved. Searches (e.g. the enqueued jobs a
+     * BackgroundJobServer asks for, the dashboard and the job statistics) may lag behind by the refresh interval; a job that is returned
+     * while it was already modified is rejected by its version when it is saved, as with any concurrent modification.
+     *
+     * @param refreshPolicy   the refresh policy to use when saving or deleting jobs
+     * @param refreshInterval the refresh interval of the job index
+     */
+    public void useNearRealTimeRefresh(RefreshPolicy refreshPolicy, Duration refreshInterval) {
+        try {
+            UpdateSettingsRequest request = new UpdateSettingsRequest(jobIndexName)
+                    .settings(Settings.builder().put("index.refresh_interval", refreshInterval.toMillis() + "ms"));
+            client.indices().putSettings(request, RequestOptions.DEFAULT);
+            this.jobRefreshPolicy = refreshPolicy;
+        } catch (IOException e) {
+            throw new StorageException(e);
+        }
+    }
+
     @Override
     public void announceBackgroundJobServer(BackgroundJobServerStatus serverStatus) {
         try {
@@ -303,7 +329,7 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
                     .id(job.getId().toString())
                     .versionType(VersionType.EXTERNAL)
                     .version(job.getVersion())
-                    .setRefreshPolicy(IMMEDIATE)
+                    .setRefreshPolicy(jobRefreshPolicy)
                     .source(elasticSearchDocumentMapper.toXContentBuilder(job));
             client.index(request, RequestOptions.DEFAULT);
             jobVersioner.commitVersion();
@@ -323,7 +349,7 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
     public int deletePermanently(UUID id) {
         try {
             Job job = getJobById(id);
-            DeleteResponse delete = client.delete(new DeleteRequest(jobIndexName, id.toString()).setRefreshPolicy(IMMEDIATE), RequestOptions.DEFAULT);
+            DeleteResponse delete = client.delete(new DeleteRequest(jobIndexName, id.toString()).setRefreshPolicy(jobRefreshPolicy), RequestOptions.DEFAULT);
             disposeJobResources(job.getMetadata());
             int amountDeleted = delete.getShardInfo().getSuccessful();
             notifyJobStatsOnChangeListenersIf(amountDeleted > 0);
@@ -354,7 +380,7 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
         try(JobListVersioner jobListVersioner = new JobListVersioner(jobs)) {
             jobListVersioner.validateJobs();
 
-            BulkRequest bulkRequest = new BulkRequest(jobIndexName).setRefreshPolicy(IMMEDIATE);
+            BulkRequest bulkRequest = new BulkRequest(jobIndexName).setRefreshPolicy(jobRefreshPolicy);
             jobs.stream()
                     .map(job -> new IndexRequest().id(job.getId().toString())
                             .versionType(VersionType.EXTERNAL)
@@ -453,7 +479,7 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
             BulkByScrollResponse bulkByScrollResponse = client.deleteByQuery(deleteByQueryRequest, RequestOptions.DEFAULT);
             jobsToDelete.forEach(j ->disposeJobResources(j.getMetadata()));
             int amountDeleted = (int) bulkByScrollResponse.getDeleted();
-            if (amountDeleted > 0) {
+            if (amountDeleted > 0 && jobRefreshPolicy == IMMEDIATE) {
                 RefreshRequest request = new RefreshRequest(jobIndexName);
                 client.indices().refresh(request, RequestOptions.DEFAULT);
             }
@@ -622,12 +648,19 @@ public class ElasticSearchStorageProvider extends AbstractStorageProvider implem
         SearchRequest searchRequest = new SearchRequest(jobIndexName);
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         searchSourceBuilder.query(queryBuilder);
-        searchSourceBuilder.from((int) pageRequest.getOffset());
         searchSourceBuilder.size(pageRequest.getLimit());
         searchSourceBuilder.storedField(Jobs.FIELD_JOB_AS_JSON);
-        if (pageRequest.getOrder().equals("updatedAt:ASC")) {
+        if (pageRequest.hasCursor()) {
+            final SortOrder sortOrder = pageRequest.getCursorOrder() == PageRequest.Order.DESC ? SortOrder.DESC : SortOrder.ASC;
+            final Instant cursorUpdatedAt = pageRequest.getCursorUpdatedAt();
+            searchSourceBuilder.sort(Jobs.FIELD_UPDATED_AT, sortOrder);
+            searchSourceBuilder.sort("_id", sortOrder);
+            searchSourceBuilder.searchAfter(new Object[]{cursorUpdatedAt.getEpochSecond() * 1_000_000_000L + cursorUpdatedAt.getNano(), pageRequest.getCursorId().toString()});
+        } else if (pageRequest.getOrder().equals("updatedAt:ASC")) {
+            searchSourceBuilder.from((int) pageRequest.getOffset());
             searchSourceBuilder.sort(Jobs.FIELD_UPDATED_AT, SortOrder.ASC);
         } else if (pageRequest.getOrder().equals("updatedAt:DESC")) {
+            searchSourceBuilder.from((int) pageRequest.getOffset());
             searchSourceBuilder.sort(Jobs.FIELD_UPDATED_AT, SortOrder.DESC);
         } else {
             throw new IllegalArgumentException("Unknown sort: " + pageRequest.getOrder());
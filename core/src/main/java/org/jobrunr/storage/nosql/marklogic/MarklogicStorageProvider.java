@@ -528,10 +528,62 @@ public class MarklogicStorageProvider extends AbstractStorageProvider implements
     }
 
     private List<Job> findJobs(StructuredQueryDefinition query, PageRequest pageRequest) {
+        if (pageRequest.hasCursor()) {
+            return findJobsAfterCursor(query, pageRequest);
+        }
         List<MarklogicJob> jobs = marklogicWrapper.queryDocuments(query, pageRequest, MarklogicJob.class);
         return jobs.stream().map(j -> j.toJob(jobMapper)).collect(Collectors.toList());
     }
 
+    /**
+     * There is no range index on the id, so Marklogic only sorts on updatedAt and returns the jobs updated within the same millisecond in any
+     * order. To page on (updatedAt, id) like the other StorageProviders, a millisecond of which the jobs may be returned only partly is always
+     * read completely and sorted on the id.
+     */
+    private List<Job> findJobsAfterCursor(StructuredQueryDefinition query, PageRequest pageRequest) {
+        final boolean descending = pageRequest.getCursorOrder() == PageRequest.Order.DESC;
+        final long cursorUpdatedAt = pageRequest.getCursorUpdatedAt().toEpochMilli();
+        final String cursorId = pageRequest.getCursorId().toString();
+        final int limit = pageRequest.getLimit();
+        final Comparator<MarklogicJob> keysetOrder = descending
+                ? Comparator.comparingLong(MarklogicJob::getUpdatedAt).thenComparing(MarklogicJob::getId).reversed()
+                : Comparator.comparingLong(MarklogicJob::getUpdatedAt).thenComparing(MarklogicJob::getId);
+
+        final List<MarklogicJob> result = findAllJobsUpdatedAt(query, pageRequest, cursorUpdatedAt).stream()
+                .filter(job -> descending ? job.getId().compareTo(cursorId) < 0 : job.getId().compareTo(cursorId) > 0)
+                .sorted(keysetOrder)
+                .collect(toList());
+        if (result.size() < limit) {
+            final StructuredQueryDefinition afterCursorQuery = queryBuilder.and(query, updatedAtQuery(descending ? StructuredQueryBuilder.Operator.LT : StructuredQueryBuilder.Operator.GT, cursorUpdatedAt));
+            final List<MarklogicJob> jobsAfterCursor = marklogicWrapper.queryDocuments(afterCursorQuery, new PageRequest(pageRequest.getOrder(), 0, limit), MarklogicJob.class);
+            if (jobsAfterCursor.size() < limit) {
+                jobsAfterCursor.stream().sorted(keysetOrder).forEach(result::add);
+            } else {
+                final long lastUpdatedAt = jobsAfterCursor.get(jobsAfterCursor.size() - 1).getUpdatedAt();
+                jobsAfterCursor.stream().filter(job -> job.getUpdatedAt() != lastUpdatedAt).sorted(keysetOrder).forEach(result::add);
+                if (result.size() < limit) {
+                    findAllJobsUpdatedAt(query, pageRequest, lastUpdatedAt).stream().sorted(keysetOrder).forEach(result::add);
+                }
+            }
+        }
+        return result.stream().limit(limit).map(j -> j.toJob(jobMapper)).collect(toList());
+    }
+
+    private List<MarklogicJob> findAllJobsUpdatedAt(StructuredQueryDefinition query, PageRequest pageRequest, long updatedAt) {
+        final StructuredQueryDefinition updatedAtQuery = queryBuilder.and(query, updatedAtQuery(StructuredQueryBuilder.Operator.EQ, updatedAt));
+        final List<MarklogicJob> result = new ArrayList<>();
+        List<MarklogicJob> jobs;
+        do {
+            jobs = marklogicWrapper.queryDocuments(updatedAtQuery, new PageRequest(pageRequest.getOrder(), result.size(), pageRequest.getLimit()), MarklogicJob.class);
+            result.addAll(jobs);
+        } while (jobs.size() == pageRequest.getLimit());
+        return result;
+    }
+
+    private StructuredQueryDefinition updatedAtQuery(StructuredQueryBuilder.Operator operator, long updatedAt) {
+        return queryBuilder.range(queryBuilder.jsonProperty(StorageProviderUtils.Jobs.FIELD_UPDATED_AT), "long", operator, "" + updatedAt);
+    }
+
     private void runMigrations() {
         new MarklogicDBCreator(this, marklogicWrapper).runMigrations();
     }
@@ -48,6 +48,14 @@ public class MarklogicJob extends HashMap<String, Object> {
     return dpb.build();
   }
 
+  public String getId() {
+    return get(StorageProviderUtils.Jobs.FIELD_ID).toString();
+  }
+
+  public long getUpdatedAt() {
+    return ((Number) get(StorageProviderUtils.Jobs.FIELD_UPDATED_AT)).longValue();
+  }
+
   public Job toJob(JobMapper jobMapper) {
     return jobMapper.deserializeJob(get(StorageProviderUtils.Jobs.FIELD_JOB_AS_JSON).toString());
   }
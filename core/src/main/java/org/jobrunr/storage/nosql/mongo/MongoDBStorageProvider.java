@@ -1,19 +1,25 @@
 package org.jobrunr.storage.nosql.mongo;
 
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCommandException;
 import com.mongodb.MongoException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.ReadPreference;
 import com.mongodb.ServerAddress;
 import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.ChangeStreamIterable;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.*;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.InsertOneResult;
 import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.UuidRepresentation;
 import org.bson.codecs.UuidCodec;
@@ -30,25 +36,34 @@ import org.jobrunr.storage.nosql.mongo.mapper.JobDocumentMapper;
 import org.jobrunr.storage.nosql.mongo.mapper.MetadataDocumentMapper;
 import org.jobrunr.storage.nosql.mongo.mapper.MongoDBPageRequestMapper;
 import org.jobrunr.utils.resilience.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import static com.mongodb.client.model.Aggregates.group;
 import static com.mongodb.client.model.Aggregates.limit;
 import static com.mongodb.client.model.Aggregates.match;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lt;
 import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Sorts.ascending;
+import static java.time.Instant.now;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
 import static java.util.Collections.singletonList;
@@ -77,15 +92,29 @@ import static org.jobrunr.utils.resilience.RateLimiter.SECOND;
 
 public class MongoDBStorageProvider extends AbstractStorageProvider implements NoSqlStorageProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoDBStorageProvider.class);
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int INDEX_NOT_FOUND = 27;
+    private static final long CHANGE_STREAM_INITIAL_RETRY_MILLIS = 1000;
+    private static final long CHANGE_STREAM_MAX_RETRY_MILLIS = 60000;
+
     public static final String DEFAULT_DB_NAME = "jobrunr";
 
+    private static final int SUCCEEDED_JOBS_COUNTER_STRIPES = 8;
     private static final MongoDBPageRequestMapper pageRequestMapper = new MongoDBPageRequestMapper();
+    private static final Bson jobProjection = include(Jobs.FIELD_JOB_AS_JSON, Jobs.FIELD_JOB_AS_DOCUMENT);
 
     private final MongoDatabase jobrunrDatabase;
     private final MongoCollection<Document> jobCollection;
     private final MongoCollection<Document> recurringJobCollection;
     private final MongoCollection<Document> backgroundJobServerCollection;
     private final MongoCollection<Document> metadataCollection;
+    private ReadPreference readOnlyReadPreference = ReadPreference.primary();
+    private boolean useNativeJobDocuments;
+    private final Map<StateName, Duration> expireJobsAfter = new EnumMap<>(StateName.class);
+    private Duration claimOfEnqueuedJobsExpiresAfter;
+    private volatile Thread enqueuedJobsChangeStreamThread;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> enqueuedJobsChangeStreamCursor;
 
     private JobDocumentMapper jobDocumentMapper;
     private BackgroundJobServerStatusDocumentMapper backgroundJobServerStatusDocumentMapper;
@@ -149,6 +178,105 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
         metadataCollection = jobrunrDatabase.getCollection(elementPrefixer(collectionPrefix, Metadata.NAME), Document.class);
     }
 
+    /**
+     * Uses the given {@link ReadPreference} (e.g. {@link ReadPreference#secondaryPreferred()}) for the queries of the dashboard and the job
+     * statistics, so that they do not compete with the BackgroundJobServers on the primary. The results of these queries may lag behind by
+     * the replication delay.
+     *
+     * @param readOnlyReadPreference the ReadPreference to use for the dashboard and statistics queries
+     */
+    public void setReadOnlyReadPreference(ReadPreference readOnlyReadPreference) {
+        this.readOnlyReadPreference = readOnlyReadPreference;
+    }
+
+    /**
+     * Stores the jobs as BSON documents instead of as a JSON string: the job history is stored as an array and the metadata and the job
+     * details (including the job parameters) as subdocuments, so that they can be queried, projected and indexed. Saving an existing job
+     * then only writes the fields that can change and the states that were added, instead of rewriting the whole job. Jobs that were stored
+     * as JSON can still be read and are converted when they are saved again.
+     */
+    public void useNativeJobDocuments() {
+        this.useNativeJobDocuments = true;
+        if (jobDocumentMapper != null) {
+            this.jobDocumentMapper = createJobDocumentMapper(jobDocumentMapper.getJobMapper());
+        }
+    }
+
+    /**
+     * Lets MongoDB remove the deleted jobs itself using a TTL index: a job that is saved in the DELETED state gets an {@code expireAt} date
+     * after which MongoDB removes it, without any query of the BackgroundJobServer. The permanent deletion of the BackgroundJobServer
+     * (see {@code permanentlyDeleteDeletedJobsAfter}) can then be disabled. Note that MongoDB does not dispose the resources of the
+     * job metadata when it removes a job.
+     * <p>
+     * The TTL index is only created once the expiry is used; passing {@code null} disables the expiry again and drops the TTL index.
+     *
+     * @param deletedJobsExpireAfter the time after which a deleted job is removed, measured from the moment it was deleted
+     */
+    public void useExpiryForRetention(Duration deletedJobsExpireAfter) {
+        useExpiryForRetention(deletedJobsExpireAfter, null);
+    }
+
+    /**
+     * Lets MongoDB remove the deleted and the succeeded jobs itself using a TTL index (see {@link #useExpiryForRetention(Duration)}). As a
+     * succeeded job that is removed by MongoDB never goes to the DELETED state, it is not added to the all-time succeeded jobs counter.
+     *
+     * @param deletedJobsExpireAfter   the time after which a deleted job is removed, measured from the moment it was deleted
+     * @param succeededJobsExpireAfter the time after which a succeeded job is removed, measured from the moment it succeeded
+     */
+    public void useExpiryForRetention(Duration deletedJobsExpireAfter, Duration succeededJobsExpireAfter) {
+        this.expireJobsAfter.clear();
+        if (deletedJobsExpireAfter != null) {
+            this.expireJobsAfter.put(DELETED, deletedJobsExpireAfter);
+        }
+        if (succeededJobsExpireAfter != null) {
+            this.expireJobsAfter.put(SUCCEEDED, succeededJobsExpireAfter);
+        }
+        if (expireJobsAfter.isEmpty()) {
+            dropExpireAtIndex();
+        } else {
+            jobCollection.createIndex(Indexes.ascending(Jobs.FIELD_EXPIRE_AT), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+        }
+        if (jobDocumentMapper != null) {
+            this.jobDocumentMapper = createJobDocumentMapper(jobDocumentMapper.getJobMapper());
+        }
+    }
+
+    /**
+     * Lets a BackgroundJobServer claim the enqueued jobs it asks for using {@link #getJobs(StateName, PageRequest)}: the jobs are marked with
+     * a claim token in a single {@code updateMany} so that concurrent BackgroundJobServers receive different jobs instead of competing for
+     * the same ones and losing the race when saving them. The claim is removed when the job is saved again. A claimed job that is still
+     * enqueued after the given time (e.g. because its BackgroundJobServer stopped) can be claimed again.
+     *
+     * @param claimExpiresAfter the time after which a claimed job that is still enqueued can be claimed by another BackgroundJobServer
+     */
+    public void useClaimingOfEnqueuedJobs(Duration claimExpiresAfter) {
+        this.claimOfEnqueuedJobsExpiresAfter = claimExpiresAfter;
+    }
+
+    /**
+     * Watches the job collection using a change stream and wakes up the BackgroundJobServers as soon as new jobs are enqueued, instead of
+     * waiting for their next poll. Change streams require MongoDB to run as a replica set or a sharded cluster; if the change stream can not
+     * be opened, the BackgroundJobServers keep on polling. Once opened, a change stream that fails (e.g. because of an election) is resumed
+     * where it left off, retrying with an increasing delay.
+     */
+    public void useChangeStreamForEnqueuedJobs() {
+        if (enqueuedJobsChangeStreamThread != null) return;
+
+        final Thread thread = new Thread(this::watchEnqueuedJobs, "jobrunr-mongo-enqueued-jobs-change-stream");
+        thread.setDaemon(true);
+        enqueuedJobsChangeStreamThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        final Thread thread = enqueuedJobsChangeStreamThread;
+        enqueuedJobsChangeStreamThread = null;
+        final MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = enqueuedJobsChangeStreamCursor;
+        if (cursor != null) cursor.close();
+        if (thread != null) thread.interrupt();
+    }
 
     @Override
     public JobMapper getJobMapper() {
@@ -157,7 +285,7 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
 
     @Override
     public void setJobMapper(JobMapper jobMapper) {
-        this.jobDocumentMapper = new JobDocumentMapper(jobMapper);
+        this.jobDocumentMapper = createJobDocumentMapper(jobMapper);
         this.backgroundJobServerStatusDocumentMapper = new BackgroundJobServerStatusDocumentMapper();
         this.metadataDocumentMapper = new MetadataDocumentMapper();
     }
@@ -188,6 +316,7 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
     @Override
     public List<BackgroundJobServerStatus> getBackgroundJobServers() {
         return this.backgroundJobServerCollection
+                .withReadPreference(readOnlyReadPreference)
                 .find()
                 .sort(ascending(BackgroundJobServers.FIELD_FIRST_HEARTBEAT))
                 .map(backgroundJobServerStatusDocumentMapper::toBackgroundJobServerStatus)
@@ -243,7 +372,12 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
                 jobCollection.insertOne(jobDocumentMapper.toInsertDocument(job));
             } else {
                 final UpdateOneModel<Document> updateModel = jobDocumentMapper.toUpdateOneModel(job);
-                final UpdateResult updateResult = jobCollection.updateOne(updateModel.getFilter(), updateModel.getUpdate());
+                UpdateResult updateResult = jobCollection.updateOne(updateModel.getFilter(), updateModel.getUpdate());
+                if (updateResult.getModifiedCount() < 1 && jobDocumentMapper.usesNativeJobDocuments()) {
+                    // the update of the added states only matches if the stored job has the states this job was loaded with
+                    final UpdateOneModel<Document> fullUpdateModel = jobDocumentMapper.toFullUpdateOneModel(job);
+                    updateResult = jobCollection.updateOne(fullUpdateModel.getFilter(), fullUpdateModel.getUpdate());
+                }
                 if (updateResult.getModifiedCount() < 1) {
                     throw new ConcurrentJobModificationException(job);
                 }
@@ -273,7 +407,7 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
 
     @Override
     public Job getJobById(UUID id) {
-        final Document document = jobCollection.find(eq(toMongoId(Jobs.FIELD_ID), id)).projection(include(Jobs.FIELD_JOB_AS_JSON)).first();
+        final Document document = jobCollection.find(eq(toMongoId(Jobs.FIELD_ID), id)).projection(jobProjection).first();
         if (document != null) {
             return jobDocumentMapper.toJob(document);
         }
@@ -294,19 +428,11 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
                         .collect(toList());
                 final BulkWriteResult bulkWriteResult = jobCollection.bulkWrite(jobsToUpdate);
                 if (bulkWriteResult.getModifiedCount() != jobs.size()) {
-                    //ugly workaround as we do not know which document did not update due to concurrent modification exception. So, we download them all and compare the lastUpdated
-                    final Map<UUID, Job> mongoDbDocuments = new HashMap<>();
-                    jobCollection
-                            .find(in(toMongoId(Jobs.FIELD_ID), jobs.stream().map(Job::getId).collect(toList())))
-                            .projection(include(Jobs.FIELD_JOB_AS_JSON))
-                            .map(jobDocumentMapper::toJob)
-                            .forEach(job -> mongoDbDocuments.put(job.getId(), job));
-
-                    final List<Job> concurrentModifiedJobs = jobs.stream()
-                            .filter(job -> !job.getUpdatedAt().equals(mongoDbDocuments.get(job.getId()).getUpdatedAt()))
-                            .collect(toList());
-                    jobListVersioner.rollbackVersions(concurrentModifiedJobs);
-                    throw new ConcurrentJobModificationException(concurrentModifiedJobs);
+                    final List<Job> concurrentModifiedJobs = getConcurrentModifiedJobs(jobs);
+                    if (!concurrentModifiedJobs.isEmpty()) {
+                        jobListVersioner.rollbackVersions(concurrentModifiedJobs);
+                        throw new ConcurrentJobModificationException(concurrentModifiedJobs);
+                    }
                 }
             }
             jobListVersioner.commitVersions();
@@ -329,6 +455,9 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
 
     @Override
     public List<Job> getJobs(StateName state, PageRequest pageRequest) {
+        if (isClaimOfEnqueuedJobsRequest(state, pageRequest)) {
+            return claimEnqueuedJobs(pageRequest);
+        }
         return findJobs(eq(Jobs.FIELD_STATE, state.name()), pageRequest);
     }
 
@@ -392,10 +521,12 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
     @Override
     public JobStats getJobStats() {
         Instant instant = Instant.now();
-        final Document succeededJobStats = metadataCollection.find(eq(toMongoId(Metadata.FIELD_ID), Metadata.STATS_ID)).first();
-        final long allTimeSucceededCount = (succeededJobStats != null ? ((Number) succeededJobStats.get(Metadata.FIELD_VALUE)).longValue() : 0L);
+        final long allTimeSucceededCount = metadataCollection.withReadPreference(readOnlyReadPreference).find(in(toMongoId(Metadata.FIELD_ID), succeededJobsCounterStripeIds())).into(new ArrayList<>())
+                .stream()
+                .mapToLong(succeededJobStats -> ((Number) succeededJobStats.get(Metadata.FIELD_VALUE)).longValue())
+                .sum();
 
-        final List<Document> aggregates = jobCollection.aggregate(asList(
+        final List<Document> aggregates = jobCollection.withReadPreference(readOnlyReadPreference).aggregate(asList(
                         match(ne(Jobs.FIELD_STATE, null)),
                         group("$state", Accumulators.sum(Jobs.FIELD_STATE, 1)),
                         limit(10)))
@@ -409,8 +540,8 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
         Long deletedCount = getCount(DELETED, aggregates);
 
         final long total = scheduledCount + enqueuedCount + processingCount + succeededCount + failedCount;
-        final int recurringJobCount = (int) recurringJobCollection.countDocuments();
-        final int backgroundJobServerCount = (int) backgroundJobServerCollection.countDocuments();
+        final int recurringJobCount = (int) recurringJobCollection.withReadPreference(readOnlyReadPreference).countDocuments();
+        final int backgroundJobServerCount = (int) backgroundJobServerCollection.withReadPreference(readOnlyReadPreference).countDocuments();
 
         return new JobStats(
                 instant,
@@ -429,7 +560,17 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
 
     @Override
     public void publishTotalAmountOfSucceededJobs(int amount) {
-        metadataCollection.updateOne(eq(toMongoId(Metadata.FIELD_ID), Metadata.STATS_ID), Updates.inc(Metadata.FIELD_VALUE, amount), new UpdateOptions().upsert(true));
+        // the counter is striped over multiple documents so that concurrent BackgroundJobServers do not contend on a single document
+        final int stripe = ThreadLocalRandom.current().nextInt(SUCCEEDED_JOBS_COUNTER_STRIPES);
+        metadataCollection.updateOne(eq(toMongoId(Metadata.FIELD_ID), succeededJobsCounterStripeId(stripe)), Updates.inc(Metadata.FIELD_VALUE, amount), new UpdateOptions().upsert(true));
+    }
+
+    private static List<String> succeededJobsCounterStripeIds() {
+        return IntStream.range(0, SUCCEEDED_JOBS_COUNTER_STRIPES).mapToObj(MongoDBStorageProvider::succeededJobsCounterStripeId).collect(toList());
+    }
+
+    private static String succeededJobsCounterStripeId(int stripe) {
+        return stripe == 0 ? Metadata.STATS_ID : Metadata.STATS_ID + "-" + stripe;
     }
 
     private long toMicroSeconds(Instant instant) {
@@ -448,26 +589,177 @@ public class MongoDBStorageProvider extends AbstractStorageProvider implements N
     }
 
 
+    private JobDocumentMapper createJobDocumentMapper(JobMapper jobMapper) {
+        return new JobDocumentMapper(jobMapper, useNativeJobDocuments, new EnumMap<>(expireJobsAfter));
+    }
+
+    private void dropExpireAtIndex() {
+        try {
+            jobCollection.dropIndex(Indexes.ascending(Jobs.FIELD_EXPIRE_AT));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != INDEX_NOT_FOUND) throw e;
+        }
+    }
+
+    private List<Job> getConcurrentModifiedJobs(List<Job> jobs) {
+        final List<Job> jobsThatWereNotSaved = getJobsThatWereNotSaved(jobs);
+        if (!jobDocumentMapper.usesNativeJobDocuments() || jobsThatWereNotSaved.isEmpty()) return jobsThatWereNotSaved;
+
+        // the update of the added states only matches if the stored job has the states this job was loaded with
+        jobCollection.bulkWrite(jobsThatWereNotSaved.stream()
+                .map(job -> jobDocumentMapper.toFullUpdateOneModel(job))
+                .collect(toList()));
+        return getJobsThatWereNotSaved(jobsThatWereNotSaved);
+    }
+
+    private List<Job> getJobsThatWereNotSaved(List<Job> jobs) {
+        // the bulk write does not tell which updates did not match, so we only fetch the versions to find the jobs that were not saved
+        final Map<UUID, Integer> mongoDbVersions = new HashMap<>();
+        jobCollection
+                .find(in(toMongoId(Jobs.FIELD_ID), jobs.stream().map(Job::getId).collect(toList())))
+                .projection(include(toMongoId(Jobs.FIELD_ID), Jobs.FIELD_VERSION))
+                .forEach(document -> mongoDbVersions.put(MongoUtils.getIdAsUUID(document), ((Number) document.get(Jobs.FIELD_VERSION)).intValue()));
+
+        return jobs.stream()
+                .filter(job -> !Integer.valueOf(job.getVersion()).equals(mongoDbVersions.get(job.getId())))
+                .collect(toList());
+    }
+
+    private boolean isClaimOfEnqueuedJobsRequest(StateName state, PageRequest pageRequest) {
+        return claimOfEnqueuedJobsExpiresAfter != null
+                && ENQUEUED == state
+                && !pageRequest.hasCursor()
+                && pageRequest.getOffset() == 0
+                && "updatedAt:ASC".equals(pageRequest.getOrder());
+    }
+
+    private List<Job> claimEnqueuedJobs(PageRequest pageRequest) {
+        final Bson claimable = and(
+                eq(Jobs.FIELD_STATE, ENQUEUED.name()),
+                or(eq(Jobs.FIELD_CLAIMED_AT, null), lt(Jobs.FIELD_CLAIMED_AT, toMicroSeconds(now().minus(claimOfEnqueuedJobsExpiresAfter)))));
+        final List<Object> jobIdsToClaim = jobCollection
+                .find(claimable)
+                .sort(ascending(Jobs.FIELD_UPDATED_AT))
+                .limit(pageRequest.getLimit())
+                .projection(include(toMongoId(Jobs.FIELD_ID)))
+                .map(document -> document.get(toMongoId(Jobs.FIELD_ID)))
+                .into(new ArrayList<>());
+        if (jobIdsToClaim.isEmpty()) return new ArrayList<>();
+
+        // the claimable filter is repeated so that only the jobs that were not claimed in the meantime by another BackgroundJobServer are claimed
+        final String claimToken = UUID.randomUUID().toString();
+        jobCollection.updateMany(
+                and(in(toMongoId(Jobs.FIELD_ID), jobIdsToClaim), claimable),
+                Updates.combine(Updates.set(Jobs.FIELD_CLAIMED_BY, claimToken), Updates.set(Jobs.FIELD_CLAIMED_AT, toMicroSeconds(now()))));
+        return jobCollection
+                .find(and(in(toMongoId(Jobs.FIELD_ID), jobIdsToClaim), eq(Jobs.FIELD_CLAIMED_BY, claimToken)))
+                .sort(ascending(Jobs.FIELD_UPDATED_AT))
+                .projection(jobProjection)
+                .map(jobDocumentMapper::toJob)
+                .into(new ArrayList<>());
+    }
+
+    private void watchEnqueuedJobs() {
+        final List<Bson> enqueuedJobsPipeline = singletonList(match(or(
+                and(eq("operationType", "insert"), eq("fullDocument." + Jobs.FIELD_STATE, ENQUEUED.name())),
+                and(eq("operationType", "update"), eq("updateDescription.updatedFields." + Jobs.FIELD_STATE, ENQUEUED.name())))));
+        BsonDocument resumeToken = null;
+        boolean opened = false;
+        int failedAttempts = 0;
+        while (isWatchingEnqueuedJobs()) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openChangeStream(enqueuedJobsPipeline, resumeToken)) {
+                enqueuedJobsChangeStreamCursor = cursor;
+                opened = true;
+                failedAttempts = 0;
+                while (isWatchingEnqueuedJobs()) {
+                    if (cursor.tryNext() != null) {
+                        // the jobs that were enqueued together only need to wake up the BackgroundJobServers once
+                        while (cursor.available() > 0) {
+                            cursor.next();
+                        }
+                        notifyEnqueuedJobsChangeListeners();
+                    }
+                    resumeToken = cursor.getResumeToken();
+                }
+            } catch (RuntimeException e) {
+                // closing the StorageProvider closes the cursor while it is being read
+                if (!isWatchingEnqueuedJobs()) return;
+                if (!(e instanceof MongoException)) throw e;
+                if (!opened) {
+                    LOGGER.warn("Unable to watch the job collection for enqueued jobs - the BackgroundJobServers will keep on polling for them.", e);
+                    return;
+                }
+                if (((MongoException) e).getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // the change stream can not be resumed as the oplog no longer contains the resume token, the next poll finds the missed jobs
+                    resumeToken = null;
+                }
+                failedAttempts++;
+                final long retryInMillis = Math.min(CHANGE_STREAM_MAX_RETRY_MILLIS, CHANGE_STREAM_INITIAL_RETRY_MILLIS << Math.min(failedAttempts - 1, 10));
+                LOGGER.warn("The change stream watching the job collection for enqueued jobs failed - resuming it in {} ms.", retryInMillis, e);
+                try {
+                    Thread.sleep(retryInMillis);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                enqueuedJobsChangeStreamCursor = null;
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openChangeStream(List<Bson> pipeline, BsonDocument resumeToken) {
+        final ChangeStreamIterable<Document> changeStream = jobCollection.watch(pipeline).maxAwaitTime(1, TimeUnit.SECONDS);
+        return (resumeToken != null ? changeStream.resumeAfter(resumeToken) : changeStream).cursor();
+    }
+
+    private boolean isWatchingEnqueuedJobs() {
+        return enqueuedJobsChangeStreamThread == Thread.currentThread();
+    }
+
     private Page<Job> getJobPage(Bson query, PageRequest pageRequest) {
-        long count = jobCollection.countDocuments(query);
+        final MongoCollection<Document> readOnlyJobCollection = jobCollection.withReadPreference(readOnlyReadPreference);
+        long count = readOnlyJobCollection.countDocuments(query);
         if (count > 0) {
-            List<Job> jobs = findJobs(query, pageRequest);
+            List<Job> jobs = findJobs(readOnlyJobCollection, query, pageRequest);
             return new Page<>(count, jobs, pageRequest);
         }
         return new Page<>(0, new ArrayList<>(), pageRequest);
     }
 
     private List<Job> findJobs(Bson query, PageRequest pageRequest) {
-        return jobCollection
+        return findJobs(jobCollection, query, pageRequest);
+    }
+
+    private List<Job> findJobs(MongoCollection<Document> collection, Bson query, PageRequest pageRequest) {
+        if (pageRequest.hasCursor()) {
+            return collection
+                    .find(and(query, afterCursor(pageRequest)))
+                    .sort(pageRequestMapper.mapKeyset(pageRequest))
+                    .limit(pageRequest.getLimit())
+                    .projection(jobProjection)
+                    .map(jobDocumentMapper::toJob)
+                    .into(new ArrayList<>());
+        }
+        return collection
                 .find(query)
                 .sort(pageRequestMapper.map(pageRequest))
                 .skip((int) pageRequest.getOffset())
                 .limit(pageRequest.getLimit())
-                .projection(include(Jobs.FIELD_JOB_AS_JSON))
+                .projection(jobProjection)
                 .map(jobDocumentMapper::toJob)
                 .into(new ArrayList<>());
     }
 
+    private Bson afterCursor(PageRequest pageRequest) {
+        final long cursorUpdatedAt = toMicroSeconds(pageRequest.getCursorUpdatedAt());
+        final UUID cursorId = pageRequest.getCursorId();
+        if (pageRequest.getCursorOrder() == PageRequest.Order.DESC) {
+            return or(lt(Jobs.FIELD_UPDATED_AT, cursorUpdatedAt), and(eq(Jobs.FIELD_UPDATED_AT, cursorUpdatedAt), lt(toMongoId(Jobs.FIELD_ID), cursorId)));
+        }
+        return or(gt(Jobs.FIELD_UPDATED_AT, cursorUpdatedAt), and(eq(Jobs.FIELD_UPDATED_AT, cursorUpdatedAt), gt(toMongoId(Jobs.FIELD_ID), cursorId)));
+    }
+
     private void validateMongoClient(MongoClient mongoClient) {
         Optional<Method> codecRegistryGetter = findMethod(mongoClient, "getCodecRegistry");
         if (codecRegistryGetter.isPresent()) {
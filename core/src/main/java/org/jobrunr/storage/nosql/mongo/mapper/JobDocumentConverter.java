@@ -0,0 +1,304 @@
+package org.jobrunr.storage.nosql.mongo.mapper;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the JSON of a job to a BSON document and back without losing information. {@link Document#parse(String)} can not be used
+ * for this as it parses every decimal number as a double and keeps field names containing a '.' or starting with a '$', which
+ * MongoDB refuses to store.
+ * <ul>
+ *     <li>Integer numbers are stored as an int32 or int64 and other numbers as a double if that represents them exactly, or as a
+ *     decimal128 otherwise. A number that does not fit in a decimal128 is kept as text in a {@value #NUMBER_KEY} subdocument.</li>
+ *     <li>The characters '%', '.' and '$' in field names are percent-encoded.</li>
+ * </ul>
+ */
+final class JobDocumentConverter {
+
+    // as a '%' in a field name is always encoded, this key can not clash with an encoded field name
+    private static final String NUMBER_KEY = "%number";
+
+    private JobDocumentConverter() {
+    }
+
+    static Document toDocument(String json) {
+        final JsonParser parser = new JsonParser(json);
+        final Object value = parser.parseValue();
+        parser.expectEnd();
+        if (!(value instanceof Document)) throw new IllegalArgumentException("Expected a JSON object but was " + json);
+        return (Document) value;
+    }
+
+    static String toJson(Document document) {
+        final StringBuilder json = new StringBuilder();
+        writeValue(json, document);
+        return json.toString();
+    }
+
+    static String encodeFieldName(String fieldName) {
+        final StringBuilder result = new StringBuilder(fieldName.length());
+        for (char c : fieldName.toCharArray()) {
+            if (c == '%') result.append("%25");
+            else if (c == '.') result.append("%2E");
+            else if (c == '$') result.append("%24");
+            else result.append(c);
+        }
+        return result.toString();
+    }
+
+    static String decodeFieldName(String fieldName) {
+        if (fieldName.indexOf('%') < 0) return fieldName;
+
+        final StringBuilder result = new StringBuilder(fieldName.length());
+        for (int i = 0; i < fieldName.length(); i++) {
+            final String encoded = fieldName.startsWith("%", i) && i + 3 <= fieldName.length() ? fieldName.substring(i, i + 3) : "";
+            if ("%25".equals(encoded)) result.append('%');
+            else if ("%2E".equals(encoded)) result.append('.');
+            else if ("%24".equals(encoded)) result.append('$');
+            else {
+                result.append(fieldName.charAt(i));
+                continue;
+            }
+            i += 2;
+        }
+        return result.toString();
+    }
+
+    private static Object toNumber(String number) {
+        final boolean isInteger = number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0;
+        if (isInteger) {
+            try {
+                final long value = Long.parseLong(number);
+                return (value == (int) value) ? (Object) (int) value : (Object) value;
+            } catch (NumberFormatException e) {
+                // too large for a long
+            }
+        } else if (Double.toString(Double.parseDouble(number)).equals(number)) {
+            return Double.parseDouble(number);
+        }
+        try {
+            return new Decimal128(new BigDecimal(number));
+        } catch (NumberFormatException e) {
+            return new Document(NUMBER_KEY, number);
+        }
+    }
+
+    private static void writeValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            if (map.size() == 1 && map.get(NUMBER_KEY) instanceof String) {
+                json.append(map.get(NUMBER_KEY));
+                return;
+            }
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) json.append(',');
+                writeString(json, decodeFieldName(entry.getKey().toString()));
+                json.append(':');
+                writeValue(json, entry.getValue());
+                first = false;
+            }
+            json.append('}');
+        } else if (value instanceof List) {
+            json.append('[');
+            boolean first = true;
+            for (Object item : (List<?>) value) {
+                if (!first) json.append(',');
+                writeValue(json, item);
+                first = false;
+            }
+            json.append(']');
+        } else if (value instanceof Decimal128) {
+            json.append(((Decimal128) value).bigDecimalValue().toString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            writeString(json, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder json, String value) {
+        json.append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                case '\b':
+                    json.append("\\b");
+                    break;
+                case '\f':
+                    json.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static class JsonParser {
+
+        private final String json;
+        private int position;
+
+        JsonParser(String json) {
+            this.json = json;
+        }
+
+        Object parseValue() {
+            skipWhitespace();
+            final char c = peek();
+            if (c == '{') return parseObject();
+            if (c == '[') return parseArray();
+            if (c == '"') return parseString();
+            if (c == '-' || Character.isDigit(c)) return toNumber(parseNumber());
+            if (json.startsWith("true", position)) return parseLiteral("true", Boolean.TRUE);
+            if (json.startsWith("false", position)) return parseLiteral("false", Boolean.FALSE);
+            if (json.startsWith("null", position)) return parseLiteral("null", null);
+            throw unexpected();
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            if (position < json.length()) throw unexpected();
+        }
+
+        private Document parseObject() {
+            final Document document = new Document();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return document;
+            }
+            do {
+                skipWhitespace();
+                final String fieldName = parseString();
+                skipWhitespace();
+                expect(':');
+                document.put(encodeFieldName(fieldName), parseValue());
+                skipWhitespace();
+            } while (tryConsume(','));
+            expect('}');
+            return document;
+        }
+
+        private List<Object> parseArray() {
+            final List<Object> list = new ArrayList<>();
+            expect('[');
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+                return list;
+            }
+            do {
+                list.add(parseValue());
+                skipWhitespace();
+            } while (tryConsume(','));
+            expect(']');
+            return list;
+        }
+
+        private String parseString() {
+            expect('"');
+            final StringBuilder result = new StringBuilder();
+            while (peek() != '"') {
+                final char c = json.charAt(position++);
+                if (c != '\\') {
+                    result.append(c);
+                    continue;
+                }
+                final char escaped = peek();
+                position++;
+                switch (escaped) {
+                    case 'b':
+                        result.append('\b');
+                        break;
+                    case 'f':
+                        result.append('\f');
+                        break;
+                    case 'n':
+                        result.append('\n');
+                        break;
+                    case 'r':
+                        result.append('\r');
+                        break;
+                    case 't':
+                        result.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > json.length()) throw unexpected();
+                        result.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        result.append(escaped);
+                }
+            }
+            position++;
+            return result.toString();
+        }
+
+        private String parseNumber() {
+            final int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            return json.substring(start, position);
+        }
+
+        private Object parseLiteral(String literal, Object value) {
+            position += literal.length();
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean tryConsume(char c) {
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!tryConsume(c)) throw unexpected();
+        }
+
+        private char peek() {
+            if (position >= json.length()) throw unexpected();
+            return json.charAt(position);
+        }
+
+        private IllegalArgumentException unexpected() {
+            return new IllegalArgumentException("Invalid JSON at position " + position + ": " + json);
+        }
+    }
+}
@@ -13,25 +13,54 @@ import org.jobrunr.jobs.states.StateName;
 import org.jobrunr.storage.StorageProviderUtils.Jobs;
 import org.jobrunr.storage.StorageProviderUtils.RecurringJobs;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static java.util.Collections.emptyMap;
 import static org.jobrunr.storage.nosql.mongo.MongoDBStorageProvider.toMongoId;
 
 public class JobDocumentMapper {
+    private static final String JOB_HISTORY = "jobHistory";
+    private static final String JOB_DETAILS = "jobDetails";
+
     private final JobMapper jobMapper;
+    private final boolean useNativeJobDocuments;
+    private final Map<StateName, Duration> expireJobsAfter;
 
     public JobDocumentMapper(JobMapper jobMapper) {
+        this(jobMapper, false);
+    }
+
+    public JobDocumentMapper(JobMapper jobMapper, boolean useNativeJobDocuments) {
+        this(jobMapper, useNativeJobDocuments, emptyMap());
+    }
+
+    /**
+     * @param jobMapper             the JobMapper to (de)serialize the jobs
+     * @param useNativeJobDocuments whether to store a job as a BSON document (with its history as an array and its metadata and job details
+     *                              as subdocuments) instead of as a JSON string, so that an update only writes what changed
+     * @param expireJobsAfter       the time after which a job in the given state expires, measured from the moment it was last updated
+     */
+    public JobDocumentMapper(JobMapper jobMapper, boolean useNativeJobDocuments, Map<StateName, Duration> expireJobsAfter) {
         this.jobMapper = jobMapper;
+        this.useNativeJobDocuments = useNativeJobDocuments;
+        this.expireJobsAfter = expireJobsAfter;
+    }
+
+    public boolean usesNativeJobDocuments() {
+        return useNativeJobDocuments;
     }
 
     public Document toInsertDocument(Job job) {
         final Document document = new Document();
         document.put(toMongoId(Jobs.FIELD_ID), job.getId());
         document.put(Jobs.FIELD_VERSION, job.getVersion());
-        document.put(Jobs.FIELD_JOB_AS_JSON, jobMapper.serializeJob(job));
+        putJob(document, job);
         document.put(Jobs.FIELD_JOB_SIGNATURE, job.getJobSignature());
         document.put(Jobs.FIELD_STATE, job.getState().name());
         document.put(Jobs.FIELD_CREATED_AT, toMicroSeconds(job.getCreatedAt()));
@@ -41,25 +70,47 @@ public class JobDocumentMapper {
         if (job.hasState(StateName.SCHEDULED)) {
             document.put(Jobs.FIELD_SCHEDULED_AT, toMicroSeconds(job.<ScheduledState>getJobState().getScheduledAt()));
         }
+        putExpireAt(document, job);
         return document;
     }
 
     public Document toUpdateDocument(Job job) {
-        final Document document = new Document();
-        document.put(Jobs.FIELD_VERSION, job.getVersion());
-        document.put(Jobs.FIELD_JOB_AS_JSON, jobMapper.serializeJob(job));
-        document.put(Jobs.FIELD_STATE, job.getState().name());
-        document.put(Jobs.FIELD_UPDATED_AT, toMicroSeconds(job.getUpdatedAt()));
-        if (job.hasState(StateName.SCHEDULED)) {
-            document.put(Jobs.FIELD_SCHEDULED_AT, toMicroSeconds(((ScheduledState) job.getJobState()).getScheduledAt()));
-        }
-        return new Document("$set", document);
+        final Document document = toUpdatedFields(job);
+        putJob(document, job);
+        // the job is stored in only one of both representations
+        return toUpdate(document, useNativeJobDocuments ? Jobs.FIELD_JOB_AS_JSON : Jobs.FIELD_JOB_AS_DOCUMENT);
     }
 
+    /**
+     * Returns the update of the given job. If jobs are stored as BSON documents, the update only contains the states that were added
+     * since the job was last loaded or saved and leaves the job details untouched. Such an update does not match if the stored job has
+     * another amount of states (e.g. because it is still stored as JSON), in which case {@link #toFullUpdateOneModel(Job)} must be used.
+     *
+     * @param job the job to update
+     * @return the update of the job
+     */
     public UpdateOneModel<Document> toUpdateOneModel(Job job) {
-        Document filterDocument = new Document();
-        filterDocument.append(toMongoId(Jobs.FIELD_ID), job.getId());
-        filterDocument.append(Jobs.FIELD_VERSION, (job.getVersion() -1));
+        if (!useNativeJobDocuments) return toFullUpdateOneModel(job);
+
+        final Document filterDocument = toVersionFilter(job)
+                .append(Jobs.FIELD_JOB_AS_DOCUMENT + "." + JOB_HISTORY, new Document("$size", job.getAmountOfSavedStates()));
+        final Document document = toUpdatedFields(job);
+        final Document jobDocument = toDocument(job);
+        jobDocument.forEach((key, value) -> {
+            if (!JOB_HISTORY.equals(key) && !JOB_DETAILS.equals(key)) {
+                document.put(Jobs.FIELD_JOB_AS_DOCUMENT + "." + key, value);
+            }
+        });
+        // the last saved state can be changed (e.g. the heartbeat of a job that is processing), the states after it are appended
+        final List<Document> jobHistory = jobDocument.getList(JOB_HISTORY, Document.class);
+        for (int i = Math.max(0, job.getAmountOfSavedStates() - 1); i < jobHistory.size(); i++) {
+            document.put(Jobs.FIELD_JOB_AS_DOCUMENT + "." + JOB_HISTORY + "." + i, jobHistory.get(i));
+        }
+        return new UpdateOneModel<>(filterDocument, toUpdate(document), new UpdateOptions().upsert(false));
+    }
+
+    public UpdateOneModel<Document> toFullUpdateOneModel(Job job) {
+        Document filterDocument = toVersionFilter(job);
 
         //Update doc
         Document updateDocument = toUpdateDocument(job);
@@ -72,6 +123,10 @@ public class JobDocumentMapper {
     }
 
     public Job toJob(Document document) {
+        final Document jobDocument = document.get(Jobs.FIELD_JOB_AS_DOCUMENT, Document.class);
+        if (jobDocument != null) {
+            return jobMapper.deserializeJob(JobDocumentConverter.toJson(jobDocument));
+        }
         return jobMapper.deserializeJob(document.get(Jobs.FIELD_JOB_AS_JSON).toString());
     }
 
@@ -91,6 +146,57 @@ public class JobDocumentMapper {
         return jobMapper.deserializeRecurringJob(document.get(RecurringJobs.FIELD_JOB_AS_JSON).toString());
     }
 
+    private Document toVersionFilter(Job job) {
+        Document filterDocument = new Document();
+        filterDocument.append(toMongoId(Jobs.FIELD_ID), job.getId());
+        filterDocument.append(Jobs.FIELD_VERSION, (job.getVersion() - 1));
+        return filterDocument;
+    }
+
+    private Document toUpdatedFields(Job job) {
+        final Document document = new Document();
+        document.put(Jobs.FIELD_VERSION, job.getVersion());
+        document.put(Jobs.FIELD_STATE, job.getState().name());
+        document.put(Jobs.FIELD_UPDATED_AT, toMicroSeconds(job.getUpdatedAt()));
+        if (job.hasState(StateName.SCHEDULED)) {
+            document.put(Jobs.FIELD_SCHEDULED_AT, toMicroSeconds(((ScheduledState) job.getJobState()).getScheduledAt()));
+        }
+        putExpireAt(document, job);
+        return document;
+    }
+
+    private Document toUpdate(Document fieldsToSet, String... otherFieldsToRemove) {
+        // a claim of a BackgroundJobServer only lasts until the job is saved again
+        final Document fieldsToRemove = new Document(Jobs.FIELD_CLAIMED_BY, "").append(Jobs.FIELD_CLAIMED_AT, "");
+        if (!fieldsToSet.containsKey(Jobs.FIELD_EXPIRE_AT)) {
+            fieldsToRemove.append(Jobs.FIELD_EXPIRE_AT, "");
+        }
+        for (String field : otherFieldsToRemove) {
+            fieldsToRemove.append(field, "");
+        }
+        return new Document("$set", fieldsToSet).append("$unset", fieldsToRemove);
+    }
+
+    private void putExpireAt(Document document, Job job) {
+        final Duration expireAfter = expireJobsAfter.get(job.getState());
+        if (expireAfter != null) {
+            // a TTL index only removes documents of which the indexed field is a date
+            document.put(Jobs.FIELD_EXPIRE_AT, Date.from(job.getUpdatedAt().plus(expireAfter)));
+        }
+    }
+
+    private void putJob(Document document, Job job) {
+        if (useNativeJobDocuments) {
+            document.put(Jobs.FIELD_JOB_AS_DOCUMENT, toDocument(job));
+        } else {
+            document.put(Jobs.FIELD_JOB_AS_JSON, jobMapper.serializeJob(job));
+        }
+    }
+
+    private Document toDocument(Job job) {
+        return JobDocumentConverter.toDocument(jobMapper.serializeJob(job));
+    }
+
     private long toMicroSeconds(Instant instant) {
         return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
     }
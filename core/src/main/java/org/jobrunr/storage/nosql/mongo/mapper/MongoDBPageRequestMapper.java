@@ -11,7 +11,9 @@ import java.util.Set;
 
 import static com.mongodb.client.model.Sorts.ascending;
 import static com.mongodb.client.model.Sorts.descending;
+import static org.jobrunr.storage.nosql.mongo.MongoDBStorageProvider.toMongoId;
 import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_CREATED_AT;
+import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_ID;
 import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_UPDATED_AT;
 
 public class MongoDBPageRequestMapper {
@@ -39,4 +41,11 @@ public class MongoDBPageRequestMapper {
         return Sorts.orderBy(result);
     }
 
+    public Bson mapKeyset(PageRequest pageRequest) {
+        final String idField = toMongoId(FIELD_ID);
+        return pageRequest.getCursorOrder() == PageRequest.Order.ASC
+                ? Sorts.orderBy(ascending(FIELD_UPDATED_AT), ascending(idField))
+                : Sorts.orderBy(descending(FIELD_UPDATED_AT), descending(idField));
+    }
+
 }
@@ -2,25 +2,30 @@ package org.jobrunr.storage.nosql.redis;
 
 import org.jobrunr.jobs.*;
 import org.jobrunr.jobs.mappers.JobMapper;
-import org.jobrunr.jobs.states.ScheduledState;
 import org.jobrunr.jobs.states.StateName;
 import org.jobrunr.storage.*;
 import org.jobrunr.storage.StorageProviderUtils.BackgroundJobServers;
+import org.jobrunr.storage.StorageProviderUtils.Jobs;
 import org.jobrunr.storage.nosql.NoSqlStorageProvider;
 import org.jobrunr.utils.annotations.Beta;
 import org.jobrunr.utils.resilience.RateLimiter;
 import redis.clients.jedis.*;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.lang.Long.parseLong;
 import static java.time.Instant.now;
 import static java.util.Arrays.stream;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.jobrunr.jobs.states.StateName.DELETED;
@@ -31,10 +36,12 @@ import static org.jobrunr.jobs.states.StateName.SCHEDULED;
 import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
 import static org.jobrunr.storage.JobRunrMetadata.toId;
 import static org.jobrunr.storage.StorageProviderUtils.Metadata;
-import static org.jobrunr.storage.StorageProviderUtils.returnConcurrentModifiedJobs;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.backgroundJobServerKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.backgroundJobServersCreatedKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.backgroundJobServersUpdatedKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.enqueuedJobsStreamKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.firstRankAfterCursor;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.hashTaggedKeyPrefix;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobDetailsKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobQueueForStateKey;
@@ -44,7 +51,9 @@ import static org.jobrunr.storage.nosql.redis.RedisUtilities.metadatasKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.recurringJobKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.recurringJobsKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.scheduledJobsKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.toHashTaggedKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.toMicroSeconds;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.unTaggedKeyPatterns;
 import static org.jobrunr.utils.JobUtils.getJobSignature;
 import static org.jobrunr.utils.StringUtils.isNullOrEmpty;
 import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
@@ -53,8 +62,16 @@ import static org.jobrunr.utils.resilience.RateLimiter.SECOND;
 @Beta
 public class JedisRedisStorageProvider extends AbstractStorageProvider implements NoSqlStorageProvider {
 
+    private static final String ENQUEUED_JOBS_CONSUMER_GROUP = "jobrunr";
+    private static final int ENQUEUED_JOBS_STREAM_PAGE_SIZE = 1000;
+    private static final Duration ENQUEUED_JOBS_STREAM_BLOCK = Duration.ofMillis(500);
+
     private final JedisPool jedisPool;
-    private final String keyPrefix;
+    private String keyPrefix;
+    private final String enqueuedJobsConsumer = UUID.randomUUID().toString();
+    private JedisPool readOnlyJedisPool;
+    private Duration claimDeliveredEnqueuedJobsAfter;
+    private final Map<StateName, Duration> expireJobsAfter = new EnumMap<>(StateName.class);
     private JobMapper jobMapper;
 
     public JedisRedisStorageProvider() {
@@ -76,11 +93,94 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     public JedisRedisStorageProvider(JedisPool jedisPool, String keyPrefix, RateLimiter changeListenerNotificationRateLimit) {
         super(changeListenerNotificationRateLimit);
         this.jedisPool = jedisPool;
+        this.readOnlyJedisPool = jedisPool;
         this.keyPrefix = isNullOrEmpty(keyPrefix) ? "" : keyPrefix;
 
         new JedisRedisDBCreator(this, jedisPool, keyPrefix).runMigrations();
     }
 
+    /**
+     * Uses the given {@link JedisPool} (e.g. of a replica) for the queries of the dashboard and the job statistics, so that they do not
+     * compete with the BackgroundJobServers on the primary. The results of these queries may lag behind by the replication delay.
+     *
+     * @param readOnlyJedisPool the JedisPool to use for the dashboard and statistics queries
+     */
+    public void setReadOnlyJedisPool(JedisPool readOnlyJedisPool) {
+        this.readOnlyJedisPool = readOnlyJedisPool;
+    }
+
+    /**
+     * Wraps the key prefix in a hash tag (e.g. "{jobrunr}", or "{my-app}" for the key prefix "my-app") so that all keys of JobRunr are
+     * stored in the same hash slot, which lets its transactions and Lua scripts run on a Redis Cluster. The keys that are stored without the
+     * hash tag are renamed, so this must be enabled on all JobRunr instances sharing the database before it is moved to a cluster, and before
+     * any other use of this StorageProvider. A key that already exists with the hash tag is kept. A key prefix that already contains a hash
+     * tag is used as is.
+     */
+    public void useHashTaggedKeys() {
+        final String hashTaggedKeyPrefix = hashTaggedKeyPrefix(keyPrefix);
+        if (hashTaggedKeyPrefix.equals(keyPrefix)) return;
+
+        try (final Jedis jedis = getJedis()) {
+            for (String unTaggedKeyPattern : unTaggedKeyPatterns(keyPrefix)) {
+                final ScanParams scanParams = new ScanParams().match(unTaggedKeyPattern).count(1000);
+                String cursor = ScanParams.SCAN_POINTER_START;
+                do {
+                    final ScanResult<String> scanResult = jedis.scan(cursor, scanParams);
+                    renameToHashTaggedKeys(jedis, scanResult.getResult());
+                    cursor = scanResult.getCursor();
+                } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+            }
+        }
+        this.keyPrefix = hashTaggedKeyPrefix;
+    }
+
+    /**
+     * Dispatches the enqueued jobs using a Redis Stream with one consumer group for all BackgroundJobServers instead of letting each of them
+     * scan the sorted set of enqueued jobs from the start. Asking the enqueued jobs using {@link #getJobs(StateName, PageRequest)} (as the
+     * BackgroundJobServer does) then returns the jobs that were not yet delivered to another server, so that the servers do not compete for
+     * the same jobs. A job that was delivered to a server but is still enqueued after the given time (e.g. because that server stopped) is
+     * claimed by the next server asking for work. The sorted set of enqueued jobs is still maintained for the dashboard and the statistics.
+     *
+     * @param claimDeliveredJobsAfter the time after which a delivered job that is still enqueued is delivered to another server
+     */
+    public void useStreamForEnqueuedJobs(Duration claimDeliveredJobsAfter) {
+        try (final Jedis jedis = getJedis()) {
+            createEnqueuedJobsConsumerGroup(jedis);
+            addEnqueuedJobsToStream(jedis);
+        }
+        this.claimDeliveredEnqueuedJobsAfter = claimDeliveredJobsAfter;
+    }
+
+    /**
+     * Lets Redis remove the deleted jobs itself: a job that is saved in the DELETED state gets an expiry after which Redis removes it. The
+     * ids of the expired jobs stay in the sorted set of deleted jobs (and thus in the job statistics) until the permanent deletion of the
+     * BackgroundJobServer (see {@code permanentlyDeleteDeletedJobsAfter}) reconciles it, which only needs to remove their ids. Note that
+     * Redis does not dispose the resources of the job metadata when a job expires.
+     *
+     * @param deletedJobsExpireAfter the time after which a deleted job is removed, measured from the moment it was deleted
+     */
+    public void useExpiryForRetention(Duration deletedJobsExpireAfter) {
+        useExpiryForRetention(deletedJobsExpireAfter, null);
+    }
+
+    /**
+     * Lets Redis remove the deleted and the succeeded jobs itself (see {@link #useExpiryForRetention(Duration)}). A succeeded job that
+     * expires never goes to the DELETED state: the permanent deletion of the deleted jobs also removes the ids of the expired succeeded
+     * jobs and adds them to the all-time succeeded jobs counter.
+     *
+     * @param deletedJobsExpireAfter   the time after which a deleted job is removed, measured from the moment it was deleted
+     * @param succeededJobsExpireAfter the time after which a succeeded job is removed, measured from the moment it succeeded
+     */
+    public void useExpiryForRetention(Duration deletedJobsExpireAfter, Duration succeededJobsExpireAfter) {
+        this.expireJobsAfter.clear();
+        if (deletedJobsExpireAfter != null) {
+            this.expireJobsAfter.put(DELETED, deletedJobsExpireAfter);
+        }
+        if (succeededJobsExpireAfter != null) {
+            this.expireJobsAfter.put(SUCCEEDED, succeededJobsExpireAfter);
+        }
+    }
+
     @Override
     public JobMapper getJobMapper() {
         return jobMapper;
@@ -150,7 +250,7 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<BackgroundJobServerStatus> getBackgroundJobServers() {
-        try (final Jedis jedis = getJedis()) {
+        try (final Jedis jedis = getReadOnlyJedis()) {
             return new JedisRedisPipelinedStream<>(jedis.zrange(backgroundJobServersCreatedKey(keyPrefix), 0, Integer.MAX_VALUE), jedis)
                     .mapUsingPipeline((p, id) -> p.hgetAll(backgroundJobServerKey(keyPrefix, id)))
                     .mapAfterSync(Response::get)
@@ -220,9 +320,11 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     @Override
     public List<JobRunrMetadata> getMetadata(String name) {
         try (final Jedis jedis = getJedis()) {
-            return jedis.smembers(metadatasKey(keyPrefix)).stream()
-                    .filter(metadataName -> metadataName.startsWith(metadataKey(keyPrefix, name + "-")))
-                    .map(jedis::hgetAll)
+            final Stream<String> metadataNames = jedis.smembers(metadatasKey(keyPrefix)).stream()
+                    .filter(metadataName -> metadataName.startsWith(metadataKey(keyPrefix, name + "-")));
+            return new JedisRedisPipelinedStream<>(metadataNames, jedis)
+                    .mapUsingPipeline((p, metadataName) -> p.hgetAll(metadataName))
+                    .mapAfterSync(Response::get)
                     .map(fieldMap -> new JobRunrMetadata(
                             fieldMap.get(Metadata.FIELD_NAME),
                             fieldMap.get(Metadata.FIELD_OWNER),
@@ -271,11 +373,7 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     @Override
     public Job save(Job jobToSave) {
         try (final Jedis jedis = getJedis(); final JobVersioner jobVersioner = new JobVersioner(jobToSave)) {
-            if (jobVersioner.isNewJob()) {
-                insertJob(jobToSave, jedis);
-            } else {
-                updateJob(jobToSave, jedis);
-            }
+            saveJob(jobToSave, jedis, jobVersioner.isNewJob());
             jobVersioner.commitVersion();
             notifyJobStatsOnChangeListeners();
         } catch (JedisException e) {
@@ -314,17 +412,11 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
         if (jobs.isEmpty()) return jobs;
 
         try (final Jedis jedis = getJedis(); final JobListVersioner jobListVersioner = new JobListVersioner(jobs)) {
-            if (jobListVersioner.areNewJobs()) {
-                try (Transaction p = jedis.multi()) {
-                    jobs.forEach(jobToSave -> saveJob(p, jobToSave));
-                    p.exec();
-                }
-            } else {
-                final List<Job> concurrentModifiedJobs = returnConcurrentModifiedJobs(jobs, job -> updateJob(job, jedis));
-                if (!concurrentModifiedJobs.isEmpty()) {
-                    jobListVersioner.rollbackVersions(concurrentModifiedJobs);
-                    throw new ConcurrentJobModificationException(concurrentModifiedJobs);
-                }
+            final boolean areNewJobs = jobListVersioner.areNewJobs();
+            final List<Job> concurrentModifiedJobs = saveJobs(jobs, jedis, areNewJobs);
+            if (!concurrentModifiedJobs.isEmpty()) {
+                jobListVersioner.rollbackVersions(concurrentModifiedJobs);
+                throw new ConcurrentJobModificationException(concurrentModifiedJobs);
             }
             jobListVersioner.commitVersions();
             notifyJobStatsOnChangeListenersIf(!jobs.isEmpty());
@@ -338,7 +430,9 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     public List<Job> getJobs(StateName state, Instant updatedBefore, PageRequest pageRequest) {
         try (final Jedis jedis = getJedis()) {
             Set<String> jobsByState;
-            if ("updatedAt:ASC" .equals(pageRequest.getOrder())) {
+            if (pageRequest.hasCursor()) {
+                jobsByState = getJobIdsAfterCursor(jedis, state, toMicroSeconds(updatedBefore), pageRequest);
+            } else if ("updatedAt:ASC" .equals(pageRequest.getOrder())) {
                 jobsByState = jedis.zrangeByScore(jobQueueForStateKey(keyPrefix, state), 0, toMicroSeconds(updatedBefore), (int) pageRequest.getOffset(), pageRequest.getLimit());
             } else if ("updatedAt:DESC" .equals(pageRequest.getOrder())) {
                 jobsByState = jedis.zrevrangeByScore(jobQueueForStateKey(keyPrefix, state), toMicroSeconds(updatedBefore), 0, (int) pageRequest.getOffset(), pageRequest.getLimit());
@@ -348,6 +442,7 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
             return new JedisRedisPipelinedStream<>(jobsByState, jedis)
                     .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
                     .mapAfterSync(Response::get)
+                    .filter(Objects::nonNull)
                     .map(jobMapper::deserializeJob)
                     .collect(toList());
         }
@@ -359,6 +454,7 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
             return new JedisRedisPipelinedStream<>(jedis.zrangeByScore(scheduledJobsKey(keyPrefix), 0, toMicroSeconds(now()), (int) pageRequest.getOffset(), pageRequest.getLimit()), jedis)
                     .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
                     .mapAfterSync(Response::get)
+                    .filter(Objects::nonNull)
                     .map(jobMapper::deserializeJob)
                     .collect(toList());
         }
@@ -367,29 +463,69 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     @Override
     public List<Job> getJobs(StateName state, PageRequest pageRequest) {
         try (final Jedis jedis = getJedis()) {
-            Set<String> jobsByState;
-            // we only support what is used by frontend
-            if ("updatedAt:ASC" .equals(pageRequest.getOrder())) {
-                jobsByState = jedis.zrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
-            } else if ("updatedAt:DESC" .equals(pageRequest.getOrder())) {
-                jobsByState = jedis.zrevrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
-            } else {
-                throw new IllegalArgumentException("Unsupported sorting: " + pageRequest.getOrder());
+            if (isStreamOfEnqueuedJobsRequest(state, pageRequest)) {
+                return getJobsFromStreamOfEnqueuedJobs(jedis, pageRequest.getLimit());
             }
-            return new JedisRedisPipelinedStream<>(jobsByState, jedis)
-                    .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
-                    .mapAfterSync(Response::get)
-                    .map(jobMapper::deserializeJob)
-                    .collect(toList());
+            return getJobs(jedis, state, pageRequest);
+        }
+    }
+
+    private List<Job> getJobs(Jedis jedis, StateName state, PageRequest pageRequest) {
+        Set<String> jobsByState;
+        // we only support what is used by frontend
+        if (pageRequest.hasCursor()) {
+            jobsByState = getJobIdsAfterCursor(jedis, state, Double.POSITIVE_INFINITY, pageRequest);
+        } else if ("updatedAt:ASC" .equals(pageRequest.getOrder())) {
+            jobsByState = jedis.zrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
+        } else if ("updatedAt:DESC" .equals(pageRequest.getOrder())) {
+            jobsByState = jedis.zrevrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
+        } else {
+            throw new IllegalArgumentException("Unsupported sorting: " + pageRequest.getOrder());
+        }
+        return new JedisRedisPipelinedStream<>(jobsByState, jedis)
+                .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
+                .mapAfterSync(Response::get)
+                .filter(Objects::nonNull)
+                .map(jobMapper::deserializeJob)
+                .collect(toList());
+    }
+
+    private Set<String> getJobIdsAfterCursor(Jedis jedis, StateName state, double maxScore, PageRequest pageRequest) {
+        // jobs with the same score are sorted on their id by Redis, so the jobs after the cursor start at the first rank after the cursor
+        final String jobQueueForStateKey = jobQueueForStateKey(keyPrefix, state);
+        final long cursorScore = toMicroSeconds(pageRequest.getCursorUpdatedAt());
+        final String cursorId = pageRequest.getCursorId().toString();
+        final Set<String> result = new LinkedHashSet<>();
+        if (pageRequest.getCursorOrder() == PageRequest.Order.DESC) {
+            final long firstRankAfterCursor = firstRankAfterCursor(
+                    jedis.zcount(jobQueueForStateKey, "(" + cursorScore, "+inf"),
+                    jedis.zcount(jobQueueForStateKey, String.valueOf(cursorScore), "+inf"),
+                    rank -> jedis.zrevrange(jobQueueForStateKey, rank, rank).stream().findFirst().orElse(null),
+                    id -> id.compareTo(cursorId) < 0);
+            // the jobs updated after the max score come first in descending order and must be skipped
+            final long firstRank = Double.isInfinite(maxScore)
+                    ? firstRankAfterCursor
+                    : Math.max(firstRankAfterCursor, jedis.zcount(jobQueueForStateKey, "(" + (long) maxScore, "+inf"));
+            result.addAll(jedis.zrevrange(jobQueueForStateKey, firstRank, firstRank + pageRequest.getLimit() - 1));
+        } else {
+            final long firstRank = firstRankAfterCursor(
+                    jedis.zcount(jobQueueForStateKey, "-inf", "(" + cursorScore),
+                    jedis.zcount(jobQueueForStateKey, "-inf", String.valueOf(cursorScore)),
+                    rank -> jedis.zrange(jobQueueForStateKey, rank, rank).stream().findFirst().orElse(null),
+                    id -> id.compareTo(cursorId) > 0);
+            jedis.zrangeWithScores(jobQueueForStateKey, firstRank, firstRank + pageRequest.getLimit() - 1).stream()
+                    .filter(tuple -> tuple.getScore() <= maxScore)
+                    .forEach(tuple -> result.add(tuple.getElement()));
         }
+        return result;
     }
 
     @Override
     public Page<Job> getJobPage(StateName state, PageRequest pageRequest) {
-        try (final Jedis jedis = getJedis()) {
+        try (final Jedis jedis = getReadOnlyJedis()) {
             long count = jedis.zcount(jobQueueForStateKey(keyPrefix, state), 0, Long.MAX_VALUE);
             if (count > 0) {
-                List<Job> jobs = getJobs(state, pageRequest);
+                List<Job> jobs = getJobs(jedis, state, pageRequest);
                 return new Page<>(count, jobs, pageRequest);
             }
             return new Page<>(0, new ArrayList<>(), pageRequest);
@@ -399,28 +535,20 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     @Override
     public int deleteJobsPermanently(StateName state, Instant updatedBefore) {
         int amount = 0;
+        int amountOfExpiredSucceededJobs = 0;
         try (final Jedis jedis = getJedis()) {
-            Set<String> zrangeToInspect = jedis.zrange(jobQueueForStateKey(keyPrefix, state), 0, 1000);
-            outerloop:
-            while (!zrangeToInspect.isEmpty()) {
-                for (String id : zrangeToInspect) {
-                    final Job job = getJobById(UUID.fromString(id));
-                    if (job.getUpdatedAt().isAfter(updatedBefore)) break outerloop;
-
-                    try (Transaction transaction = jedis.multi()) {
-                        transaction.del(jobKey(keyPrefix, job));
-                        transaction.del(jobVersionKey(keyPrefix, job));
-                        deleteJobMetadata(transaction, job);
-
-                        final List<Object> exec = transaction.exec();
-                        disposeJobResources(job.getMetadata());
-                        if (exec != null && !exec.isEmpty()) amount++;
-                    }
-                }
-                zrangeToInspect = jedis.zrange(jobQueueForStateKey(keyPrefix, state), 0, 1000);
+            final long updatedBeforeScore = toMicroSeconds(updatedBefore);
+            Set<String> idsToDelete = jedis.zrangeByScore(jobQueueForStateKey(keyPrefix, state), 0, updatedBeforeScore, 0, 1000);
+            while (!idsToDelete.isEmpty()) {
+                amount += deleteJobsPermanently(jedis, new ArrayList<>(idsToDelete));
+                idsToDelete = jedis.zrangeByScore(jobQueueForStateKey(keyPrefix, state), 0, updatedBeforeScore, 0, 1000);
+            }
+            // why: the permanent deletion of the deleted jobs runs periodically on the master, which makes it the place to reconcile the expired succeeded jobs
+            if (DELETED == state) {
+                amountOfExpiredSucceededJobs = removeIdsOfExpiredSucceededJobs(jedis);
             }
         }
-        notifyJobStatsOnChangeListenersIf(amount > 0);
+        notifyJobStatsOnChangeListenersIf(amount > 0 || amountOfExpiredSucceededJobs > 0);
         return amount;
     }
 
@@ -470,9 +598,13 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     @Override
     public List<RecurringJob> getRecurringJobs() {
         try (final Jedis jedis = getJedis()) {
-            return jedis.smembers(recurringJobsKey(keyPrefix))
-                    .stream()
-                    .map(id -> jedis.get(recurringJobKey(keyPrefix, id)))
+            final String[] recurringJobKeys = jedis.smembers(recurringJobsKey(keyPrefix)).stream()
+                    .map(id -> recurringJobKey(keyPrefix, id))
+                    .toArray(String[]::new);
+            if (recurringJobKeys.length == 0) return new ArrayList<>();
+
+            return jedis.mget(recurringJobKeys).stream()
+                    .filter(Objects::nonNull)
                     .map(jobMapper::deserializeRecurringJob)
                     .collect(toList());
         }
@@ -492,7 +624,7 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
     @Override
     public JobStats getJobStats() {
         Instant instant = Instant.now();
-        try (final Jedis jedis = getJedis(); final Pipeline p = jedis.pipelined()) {
+        try (final Jedis jedis = getReadOnlyJedis(); final Pipeline p = jedis.pipelined()) {
             final Response<String> totalAmountSucceeded = p.hget(metadataKey(keyPrefix, Metadata.STATS_ID), Metadata.FIELD_VALUE);
 
             final Response<Long> scheduledResponse = p.zcount(jobQueueForStateKey(keyPrefix, SCHEDULED), 0, Long.MAX_VALUE);
@@ -544,51 +676,237 @@ public class JedisRedisStorageProvider extends AbstractStorageProvider implement
         return jedisPool.getResource();
     }
 
-    private void insertJob(Job jobToSave, Jedis jedis) {
-        if (jedis.exists(jobKey(keyPrefix, jobToSave))) throw new ConcurrentJobModificationException(jobToSave);
-        try (Transaction transaction = jedis.multi()) {
-            saveJob(transaction, jobToSave);
-            final List<Object> result = transaction.exec();
-            if (result == null || result.isEmpty()) {
-                throw new StorageException("Unable to save job " + jobToSave.getId() + " with version " + jobToSave.getVersion());
+    protected Jedis getReadOnlyJedis() {
+        return readOnlyJedisPool.getResource();
+    }
+
+    private void saveJob(Job jobToSave, Jedis jedis, boolean isNewJob) {
+        final List<String> keys = SaveJobScript.keys(keyPrefix, jobToSave, isNewJob);
+        final List<String> args = SaveJobScript.args(jobToSave, jobMapper.serializeJob(jobToSave), isNewJob, claimDeliveredEnqueuedJobsAfter != null, expireJobsAfter);
+        Object result;
+        try {
+            result = jedis.evalsha(SaveJobScript.SHA1, keys, args);
+        } catch (JedisNoScriptException e) {
+            result = jedis.eval(SaveJobScript.SCRIPT, keys, args);
+        }
+        if (!SaveJobScript.isSaved(result)) throw new ConcurrentJobModificationException(jobToSave);
+    }
+
+    private List<Job> saveJobs(List<Job> jobs, Jedis jedis, boolean areNewJobs) {
+        // the scripts are pipelined so that saving all jobs is a single roundtrip
+        final List<Object> results;
+        try (final Pipeline p = jedis.pipelined()) {
+            jobs.forEach(job -> p.evalsha(SaveJobScript.SHA1, SaveJobScript.keys(keyPrefix, job, areNewJobs), SaveJobScript.args(job, jobMapper.serializeJob(job), areNewJobs, claimDeliveredEnqueuedJobsAfter != null, expireJobsAfter)));
+            results = p.syncAndReturnAll();
+        }
+        final List<Job> concurrentModifiedJobs = new ArrayList<>();
+        final List<Job> jobsToSaveAgain = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            final Object result = results.get(i);
+            if (result instanceof JedisNoScriptException) {
+                jobsToSaveAgain.add(jobs.get(i));
+            } else if (result instanceof JedisException) {
+                throw (JedisException) result;
+            } else if (!SaveJobScript.isSaved(result)) {
+                concurrentModifiedJobs.add(jobs.get(i));
             }
         }
+        if (!jobsToSaveAgain.isEmpty()) {
+            jedis.scriptLoad(SaveJobScript.SCRIPT);
+            concurrentModifiedJobs.addAll(saveJobs(jobsToSaveAgain, jedis, areNewJobs));
+        }
+        return concurrentModifiedJobs;
+    }
+
+    private boolean isStreamOfEnqueuedJobsRequest(StateName state, PageRequest pageRequest) {
+        return claimDeliveredEnqueuedJobsAfter != null
+                && ENQUEUED == state
+                && !pageRequest.hasCursor()
+                && pageRequest.getOffset() == 0
+                && "updatedAt:ASC".equals(pageRequest.getOrder());
+    }
+
+    private void renameToHashTaggedKeys(Jedis jedis, List<String> unTaggedKeys) {
+        if (unTaggedKeys.isEmpty()) return;
+
+        final List<Response<Long>> renamed;
+        try (final Pipeline p = jedis.pipelined()) {
+            renamed = unTaggedKeys.stream()
+                    .map(unTaggedKey -> p.renamenx(unTaggedKey, toHashTaggedKey(keyPrefix, unTaggedKey)))
+                    .collect(toList());
+            p.sync();
+        }
+        // e.g. the job stats that the migrations create on startup if they can not find them without the hash tag
+        final String[] keysAlreadyHashTagged = IntStream.range(0, unTaggedKeys.size())
+                .filter(i -> renamed.get(i).get() == 0)
+                .mapToObj(unTaggedKeys::get)
+                .toArray(String[]::new);
+        if (keysAlreadyHashTagged.length > 0) {
+            jedis.del(keysAlreadyHashTagged);
+        }
     }
 
-    private void updateJob(Job jobToSave, Jedis jedis) {
-        jedis.watch(jobVersionKey(keyPrefix, jobToSave));
-        final int version = Integer.parseInt(jedis.get(jobVersionKey(keyPrefix, jobToSave)));
-        if (version != (jobToSave.getVersion() - 1)) throw new ConcurrentJobModificationException(jobToSave);
+    private void createEnqueuedJobsConsumerGroup(Jedis jedis) {
+        try {
+            jedis.xgroupCreate(enqueuedJobsStreamKey(keyPrefix), ENQUEUED_JOBS_CONSUMER_GROUP, new StreamEntryID(), true);
+        } catch (JedisDataException e) {
+            if (!e.getMessage().startsWith("BUSYGROUP")) throw e;
+        }
+    }
+
+    private void addEnqueuedJobsToStream(Jedis jedis) {
+        // jobs that were enqueued while the stream was not in use are not in the stream yet
+        final Set<String> jobIdsInStream = new HashSet<>();
+        StreamEntryID from = null;
+        List<StreamEntry> entries;
+        do {
+            entries = jedis.xrange(enqueuedJobsStreamKey(keyPrefix), from, (StreamEntryID) null, ENQUEUED_JOBS_STREAM_PAGE_SIZE);
+            entries.forEach(entry -> jobIdsInStream.add(entry.getFields().get(Jobs.FIELD_ID)));
+            if (!entries.isEmpty()) from = nextStreamEntryId(entries.get(entries.size() - 1).getID());
+        } while (entries.size() == ENQUEUED_JOBS_STREAM_PAGE_SIZE);
+
+        long offset = 0;
+        Set<String> enqueuedJobIds;
+        do {
+            enqueuedJobIds = jedis.zrange(jobQueueForStateKey(keyPrefix, ENQUEUED), offset, offset + ENQUEUED_JOBS_STREAM_PAGE_SIZE - 1);
+            try (final Pipeline p = jedis.pipelined()) {
+                enqueuedJobIds.stream()
+                        .filter(id -> !jobIdsInStream.contains(id))
+                        .forEach(id -> p.xadd(enqueuedJobsStreamKey(keyPrefix), StreamEntryID.NEW_ENTRY, singletonMap(Jobs.FIELD_ID, id)));
+                p.sync();
+            }
+            offset += ENQUEUED_JOBS_STREAM_PAGE_SIZE;
+        } while (enqueuedJobIds.size() == ENQUEUED_JOBS_STREAM_PAGE_SIZE);
+    }
+
+    private List<Job> getJobsFromStreamOfEnqueuedJobs(Jedis jedis, int limit) {
+        // the jobs delivered to this server that are no longer enqueued were processed and can be removed from the stream
+        getEnqueuedJobs(jedis, readEnqueuedJobsStream(jedis, new StreamEntryID(), ENQUEUED_JOBS_STREAM_PAGE_SIZE, 0));
+
+        final List<StreamEntry> entries = new ArrayList<>(claimIdleEntriesOfEnqueuedJobsStream(jedis, limit));
+        if (entries.size() < limit) {
+            // only wait for new entries if there is nothing else to process
+            final long block = entries.isEmpty() ? ENQUEUED_JOBS_STREAM_BLOCK.toMillis() : 0;
+            entries.addAll(readEnqueuedJobsStream(jedis, StreamEntryID.UNRECEIVED_ENTRY, limit - entries.size(), block));
+        }
+        return getEnqueuedJobs(jedis, entries);
+    }
+
+    private List<StreamEntry> readEnqueuedJobsStream(Jedis jedis, StreamEntryID from, int count, long block) {
+        final List<Map.Entry<String, List<StreamEntry>>> streams = jedis.xreadGroup(ENQUEUED_JOBS_CONSUMER_GROUP, enqueuedJobsConsumer, count, block, false, new AbstractMap.SimpleImmutableEntry<>(enqueuedJobsStreamKey(keyPrefix), from));
+        if (streams == null) return emptyList();
+        return streams.stream().flatMap(stream -> stream.getValue().stream()).collect(toList());
+    }
+
+    private List<StreamEntry> claimIdleEntriesOfEnqueuedJobsStream(Jedis jedis, int count) {
+        // XPENDING only returns the first pending entries of the group, so it is paged until enough idle entries are claimed
+        final List<StreamEntry> claimedEntries = new ArrayList<>();
+        StreamEntryID from = null;
+        List<StreamPendingEntry> pendingEntries;
+        do {
+            pendingEntries = jedis.xpending(enqueuedJobsStreamKey(keyPrefix), ENQUEUED_JOBS_CONSUMER_GROUP, from, (StreamEntryID) null, ENQUEUED_JOBS_STREAM_PAGE_SIZE, (String) null);
+            final StreamEntryID[] idleEntryIds = pendingEntries.stream()
+                    .filter(pendingEntry -> pendingEntry.getIdleTime() >= claimDeliveredEnqueuedJobsAfter.toMillis())
+                    .limit(count - claimedEntries.size())
+                    .map(StreamPendingEntry::getID)
+                    .toArray(StreamEntryID[]::new);
+            if (idleEntryIds.length > 0) {
+                jedis.xclaim(enqueuedJobsStreamKey(keyPrefix), ENQUEUED_JOBS_CONSUMER_GROUP, enqueuedJobsConsumer, claimDeliveredEnqueuedJobsAfter.toMillis(), 0, 0, false, idleEntryIds).stream()
+                        .filter(Objects::nonNull)
+                        .forEach(claimedEntries::add);
+            }
+            if (!pendingEntries.isEmpty()) from = nextStreamEntryId(pendingEntries.get(pendingEntries.size() - 1).getID());
+        } while (claimedEntries.size() < count && pendingEntries.size() == ENQUEUED_JOBS_STREAM_PAGE_SIZE);
+        return claimedEntries;
+    }
+
+    private static StreamEntryID nextStreamEntryId(StreamEntryID entryId) {
+        return new StreamEntryID(entryId.getTime(), entryId.getSequence() + 1);
+    }
+
+    private List<Job> getEnqueuedJobs(Jedis jedis, List<StreamEntry> entries) {
+        if (entries.isEmpty()) return emptyList();
+
+        final List<String> serializedJobs = jedis.mget(entries.stream().map(entry -> jobKey(keyPrefix, entry.getFields().get(Jobs.FIELD_ID))).toArray(String[]::new));
+        final Map<UUID, Job> enqueuedJobs = new LinkedHashMap<>();
+        final List<StreamEntryID> handledEntryIds = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            final Job job = serializedJobs.get(i) != null ? jobMapper.deserializeJob(serializedJobs.get(i)) : null;
+            if (job != null && ENQUEUED == job.getState() && !enqueuedJobs.containsKey(job.getId())) {
+                enqueuedJobs.put(job.getId(), job);
+            } else {
+                handledEntryIds.add(entries.get(i).getID());
+            }
+        }
+        if (!handledEntryIds.isEmpty()) {
+            final StreamEntryID[] entryIds = handledEntryIds.toArray(new StreamEntryID[0]);
+            try (final Transaction transaction = jedis.multi()) {
+                transaction.xack(enqueuedJobsStreamKey(keyPrefix), ENQUEUED_JOBS_CONSUMER_GROUP, entryIds);
+                transaction.xdel(enqueuedJobsStreamKey(keyPrefix), entryIds);
+                transaction.exec();
+            }
+        }
+        return new ArrayList<>(enqueuedJobs.values());
+    }
+
+    private int deleteJobsPermanently(Jedis jedis, List<String> ids) {
+        final String[] jobKeys = ids.stream().map(id -> jobKey(keyPrefix, id)).toArray(String[]::new);
+        final List<Job> jobs = jedis.mget(jobKeys).stream()
+                .filter(Objects::nonNull)
+                .map(jobMapper::deserializeJob)
+                .collect(toList());
+        final String[] jobIds = ids.toArray(new String[0]);
+        final String[] jobSignatures = jobs.stream().map(job -> getJobSignature(job.getJobDetails())).distinct().toArray(String[]::new);
+
         try (Transaction transaction = jedis.multi()) {
-            saveJob(transaction, jobToSave);
-            List<Object> result = transaction.exec();
-            jedis.unwatch();
-            if (result == null || result.isEmpty()) throw new ConcurrentJobModificationException(jobToSave);
+            final Response<Long> amountDeleted = transaction.del(jobKeys);
+            transaction.del(ids.stream().map(id -> jobVersionKey(keyPrefix, UUID.fromString(id))).toArray(String[]::new));
+            transaction.zrem(scheduledJobsKey(keyPrefix), jobIds);
+            Stream.of(StateName.values()).forEach(stateName -> transaction.zrem(jobQueueForStateKey(keyPrefix, stateName), jobIds));
+            if (jobSignatures.length > 0) {
+                Stream.of(StateName.values()).forEach(stateName -> transaction.srem(jobDetailsKey(keyPrefix, stateName), jobSignatures));
+            }
+            transaction.exec();
+
+            jobs.forEach(job -> disposeJobResources(job.getMetadata()));
+            return amountDeleted.get().intValue();
         }
     }
 
-    private void saveJob(Transaction transaction, Job jobToSave) {
-        deleteJobMetadataForUpdate(transaction, jobToSave);
-        transaction.set(jobVersionKey(keyPrefix, jobToSave), String.valueOf(jobToSave.getVersion()));
-        transaction.set(jobKey(keyPrefix, jobToSave), jobMapper.serializeJob(jobToSave));
-        transaction.zadd(jobQueueForStateKey(keyPrefix, jobToSave.getState()), toMicroSeconds(jobToSave.getUpdatedAt()), jobToSave.getId().toString());
-        transaction.sadd(jobDetailsKey(keyPrefix, jobToSave.getState()), getJobSignature(jobToSave.getJobDetails()));
-        if (SCHEDULED.equals(jobToSave.getState())) {
-            transaction.zadd(scheduledJobsKey(keyPrefix), toMicroSeconds(((ScheduledState) jobToSave.getJobState()).getScheduledAt()), jobToSave.getId().toString());
+    private int removeIdsOfExpiredSucceededJobs(Jedis jedis) {
+        final Duration succeededJobsExpireAfter = expireJobsAfter.get(SUCCEEDED);
+        if (succeededJobsExpireAfter == null) return 0;
+
+        final String succeededJobsKey = jobQueueForStateKey(keyPrefix, SUCCEEDED);
+        final long expiredBeforeScore = toMicroSeconds(now().minus(succeededJobsExpireAfter));
+        int amountExpired = 0;
+        int offset = 0;
+        Set<String> ids = jedis.zrangeByScore(succeededJobsKey, 0, expiredBeforeScore, offset, 1000);
+        while (!ids.isEmpty()) {
+            final String[] expiredIds = idsOfExpiredJobs(jedis, ids);
+            if (expiredIds.length > 0) {
+                jedis.zrem(succeededJobsKey, expiredIds);
+            }
+            // the jobs that succeeded before the expiry was used do not expire and stay in the sorted set
+            amountExpired += expiredIds.length;
+            offset += ids.size() - expiredIds.length;
+            ids = jedis.zrangeByScore(succeededJobsKey, 0, expiredBeforeScore, offset, 1000);
         }
-        jobToSave.getJobStatesOfType(ScheduledState.class).findFirst().map(ScheduledState::getRecurringJobId).ifPresent(recurringJobId -> transaction.sadd(recurringJobKey(keyPrefix, jobToSave.getState()), recurringJobId));
+        if (amountExpired > 0) {
+            jedis.hincrBy(metadataKey(keyPrefix, Metadata.STATS_ID), Metadata.FIELD_VALUE, amountExpired);
+        }
+        return amountExpired;
     }
 
-    private void deleteJobMetadataForUpdate(Transaction transaction, Job job) {
-        String id = job.getId().toString();
-        transaction.zrem(scheduledJobsKey(keyPrefix), id);
-        Stream.of(StateName.values()).forEach(stateName -> transaction.zrem(jobQueueForStateKey(keyPrefix, stateName), id));
-        Stream.of(StateName.values()).filter(stateName -> !SCHEDULED.equals(stateName)).forEach(stateName -> transaction.srem(jobDetailsKey(keyPrefix, stateName), getJobSignature(job.getJobDetails())));
-        if ((job.hasState(ENQUEUED) && job.getJobStates().size() >= 2 && job.getJobState(-2) instanceof ScheduledState)
-                || (job.hasState(DELETED) && job.getJobStates().size() >= 2 && job.getJobState(-2) instanceof ScheduledState)) {
-            transaction.srem(jobDetailsKey(keyPrefix, SCHEDULED), getJobSignature(job.getJobDetails()));
+    private String[] idsOfExpiredJobs(Jedis jedis, Set<String> ids) {
+        try (final Pipeline p = jedis.pipelined()) {
+            final Map<String, Response<Boolean>> jobExists = ids.stream().collect(Collectors.toMap(id -> id, id -> p.exists(jobKey(keyPrefix, id))));
+            p.sync();
+            return jobExists.entrySet().stream()
+                    .filter(entry -> !entry.getValue().get())
+                    .map(Map.Entry::getKey)
+                    .toArray(String[]::new);
         }
-        job.getJobStatesOfType(ScheduledState.class).findFirst().map(ScheduledState::getRecurringJobId).ifPresent(recurringJobId -> Stream.of(StateName.values()).forEach(stateName -> transaction.srem(recurringJobKey(keyPrefix, stateName), recurringJobId)));
     }
 
     private void deleteJobMetadata(Transaction transaction, Job job) {
@@ -0,0 +1,169 @@
+package org.jobrunr.storage.nosql.redis;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps values read from Redis in local memory using client-side caching ({@code CLIENT TRACKING}): Redis notifies the connection
+ * when a key that was read is modified, after which its value is removed from the cache. This requires a connection that uses the
+ * RESP3 protocol and that is not used for anything else, so this cache opens its own connection.
+ * <p>
+ * When the connection is lost, the invalidations sent in the meantime are lost too: the cache is cleared and the tracking is enabled again
+ * on the next read, once Lettuce re-established the connection.
+ */
+public class LettuceRedisClientSideCache implements AutoCloseable {
+
+    private final RedisClient redisClient;
+    private final RedisConnectionStateListener connectionStateListener;
+    private final StatefulRedisConnection<String, String> connection;
+    private final Map<String, Object> cache;
+    private final AtomicLong invalidations;
+    private final Object cacheLock;
+    private volatile boolean trackingEnabled;
+
+    public LettuceRedisClientSideCache(RedisClient redisClient) {
+        this.redisClient = redisClient;
+        this.connectionStateListener = new ConnectionStateListener();
+        this.cache = new ConcurrentHashMap<>();
+        this.invalidations = new AtomicLong();
+        this.cacheLock = new Object();
+        redisClient.addListener(connectionStateListener);
+        this.connection = redisClient.connect();
+        connection.addListener(this::onPushMessage);
+    }
+
+    public List<String> mget(List<String> keys) {
+        final long invalidationsBeforeRead = enableTracking();
+        final Map<String, String> values = new HashMap<>();
+        final List<String> keysToRead = new ArrayList<>();
+        for (String key : keys) {
+            final Object value = cache.get(key);
+            if (value != null) {
+                values.put(key, (String) value);
+            } else {
+                keysToRead.add(key);
+            }
+        }
+        if (!keysToRead.isEmpty()) {
+            final Map<String, String> readValues = new HashMap<>();
+            commands().mget(keysToRead.toArray(new String[0])).stream()
+                    .filter(KeyValue::hasValue)
+                    .forEach(keyValue -> readValues.put(keyValue.getKey(), keyValue.getValue()));
+            values.putAll(readValues);
+            cacheIfNotInvalidated(invalidationsBeforeRead, readValues);
+        }
+        return keys.stream().map(values::get).collect(toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, String> hgetall(String key) {
+        final long invalidationsBeforeRead = enableTracking();
+        final Object value = cache.get(key);
+        if (value != null) return (Map<String, String>) value;
+
+        final Map<String, String> readValue = commands().hgetall(key);
+        final Map<String, Object> readValues = new HashMap<>();
+        readValues.put(key, readValue);
+        cacheIfNotInvalidated(invalidationsBeforeRead, readValues);
+        return readValue;
+    }
+
+    @Override
+    public void close() {
+        redisClient.removeListener(connectionStateListener);
+        cache.clear();
+        connection.close();
+    }
+
+    private long enableTracking() {
+        if (!trackingEnabled) {
+            synchronized (this) {
+                if (!trackingEnabled) {
+                    // set before sending the command so that a disconnect while it is sent is not overwritten
+                    trackingEnabled = true;
+                    try {
+                        commands().clientTracking(TrackingArgs.Builder.enabled());
+                    } catch (RuntimeException e) {
+                        trackingEnabled = false;
+                        throw e;
+                    }
+                }
+            }
+        }
+        return invalidations.get();
+    }
+
+    private void cacheIfNotInvalidated(long invalidationsBeforeRead, Map<String, ?> values) {
+        // an invalidation that arrives while reading may be about one of the values that were read
+        synchronized (cacheLock) {
+            if (invalidations.get() == invalidationsBeforeRead) {
+                cache.putAll(values);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onPushMessage(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) return;
+
+        final List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        final List<String> keys = (List<String>) content.get(1);
+        if (keys == null) {
+            invalidateAll();
+        } else {
+            synchronized (cacheLock) {
+                invalidations.incrementAndGet();
+                keys.forEach(cache::remove);
+            }
+        }
+    }
+
+    private void invalidateAll() {
+        synchronized (cacheLock) {
+            invalidations.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    private RedisCommands<String, String> commands() {
+        return connection.sync();
+    }
+
+    private class ConnectionStateListener implements RedisConnectionStateListener {
+
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> redisConnection, SocketAddress socketAddress) {
+            // the tracking is enabled on the next read as no commands may be sent from the event loop of Lettuce
+        }
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> redisConnection) {
+            if (redisConnection != connection) return;
+
+            trackingEnabled = false;
+            invalidateAll();
+        }
+
+        @Override
+        public void onRedisExceptionCaught(RedisChannelHandler<?, ?> redisConnection, Throwable cause) {
+            // a connection that is lost because of an exception is also disconnected
+        }
+    }
+}
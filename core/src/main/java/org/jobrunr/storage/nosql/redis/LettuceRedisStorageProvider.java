@@ -9,7 +9,6 @@ import org.apache.commons.pool2.ObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.jobrunr.jobs.*;
 import org.jobrunr.jobs.mappers.JobMapper;
-import org.jobrunr.jobs.states.ScheduledState;
 import org.jobrunr.jobs.states.StateName;
 import org.jobrunr.storage.*;
 import org.jobrunr.storage.nosql.NoSqlStorageProvider;
@@ -20,12 +19,19 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static io.lettuce.core.Range.unbounded;
 import static java.time.Instant.now;
 import static java.util.Arrays.stream;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.jobrunr.jobs.states.StateName.DELETED;
@@ -36,11 +42,14 @@ import static org.jobrunr.jobs.states.StateName.SCHEDULED;
 import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
 import static org.jobrunr.storage.JobRunrMetadata.toId;
 import static org.jobrunr.storage.StorageProviderUtils.BackgroundJobServers;
+import static org.jobrunr.storage.StorageProviderUtils.Jobs;
 import static org.jobrunr.storage.StorageProviderUtils.Metadata;
-import static org.jobrunr.storage.StorageProviderUtils.returnConcurrentModifiedJobs;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.backgroundJobServerKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.backgroundJobServersCreatedKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.backgroundJobServersUpdatedKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.enqueuedJobsStreamKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.firstRankAfterCursor;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.hashTaggedKeyPrefix;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobDetailsKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobQueueForStateKey;
@@ -50,7 +59,9 @@ import static org.jobrunr.storage.nosql.redis.RedisUtilities.metadatasKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.recurringJobKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.recurringJobsKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.scheduledJobsKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.toHashTaggedKey;
 import static org.jobrunr.storage.nosql.redis.RedisUtilities.toMicroSeconds;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.unTaggedKeyPatterns;
 import static org.jobrunr.utils.JobUtils.getJobSignature;
 import static org.jobrunr.utils.NumberUtils.parseLong;
 import static org.jobrunr.utils.StringUtils.isNullOrEmpty;
@@ -60,8 +71,18 @@ import static org.jobrunr.utils.resilience.RateLimiter.SECOND;
 @Beta
 public class LettuceRedisStorageProvider extends AbstractStorageProvider implements NoSqlStorageProvider {
 
+    private static final String ENQUEUED_JOBS_CONSUMER_GROUP = "jobrunr";
+    private static final int ENQUEUED_JOBS_STREAM_PAGE_SIZE = 1000;
+    private static final Duration ENQUEUED_JOBS_STREAM_BLOCK = Duration.ofMillis(500);
+
     private final ObjectPool<StatefulRedisConnection<String, String>> pool;
-    private final String keyPrefix;
+    private String keyPrefix;
+    private final io.lettuce.core.Consumer<String> enqueuedJobsConsumer = io.lettuce.core.Consumer.from(ENQUEUED_JOBS_CONSUMER_GROUP, UUID.randomUUID().toString());
+    private ObjectPool<StatefulRedisConnection<String, String>> readOnlyPool;
+    private StatefulRedisConnection<String, String> sharedConnection;
+    private LettuceRedisClientSideCache clientSideCache;
+    private Duration claimDeliveredEnqueuedJobsAfter;
+    private final Map<StateName, Duration> expireJobsAfter = new EnumMap<>(StateName.class);
     private JobMapper jobMapper;
 
     public LettuceRedisStorageProvider(RedisClient redisClient) {
@@ -91,11 +112,122 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
     public LettuceRedisStorageProvider(ObjectPool<StatefulRedisConnection<String, String>> pool, String keyPrefix, RateLimiter changeListenerNotificationRateLimit) {
         super(changeListenerNotificationRateLimit);
         this.pool = pool;
+        this.readOnlyPool = pool;
         this.keyPrefix = isNullOrEmpty(keyPrefix) ? "" : keyPrefix;
 
         new LettuceRedisDBCreator(this, pool, keyPrefix).runMigrations();
     }
 
+    /**
+     * Uses the given connection pool (e.g. of connections created using {@code MasterReplica.connect} and {@code ReadFrom.REPLICA}) for the
+     * queries of the dashboard and the job statistics, so that they do not compete with the BackgroundJobServers on the primary. The results
+     * of these queries may lag behind by the replication delay.
+     *
+     * @param readOnlyPool the connection pool to use for the dashboard and statistics queries
+     */
+    public void setReadOnlyConnectionPool(ObjectPool<StatefulRedisConnection<String, String>> readOnlyPool) {
+        this.readOnlyPool = readOnlyPool;
+    }
+
+    /**
+     * Uses the given connection, shared by all threads, for the commands that do not need a connection of their own: saving jobs (which is
+     * a single script call), fetching a job by id and the lookups done by the BackgroundJobServers. Lettuce connections are thread-safe and
+     * multiplex the commands of concurrent threads on the wire, so concurrent saves of the workers are pipelined instead of each waiting for
+     * a connection of the pool. The pool is still used for the WATCH / MULTI / EXEC transactions and the pipelined reads, as these need a
+     * dedicated connection. The shared connection is closed when this StorageProvider is closed.
+     *
+     * @param sharedConnection the connection to share (e.g. {@code redisClient.connect()})
+     */
+    public void useSharedConnection(StatefulRedisConnection<String, String> sharedConnection) {
+        this.sharedConnection = sharedConnection;
+    }
+
+    /**
+     * Keeps the recurring jobs and the metadata in local memory using client-side caching, so that the recurring jobs, which are read on
+     * every poll of the master BackgroundJobServer, are only read again from Redis once they changed. Redis notifies a dedicated connection
+     * of these changes, which is opened using the given client and closed when this StorageProvider is closed. It must use the RESP3 protocol
+     * (the default of Lettuce 6).
+     *
+     * @param redisClient the client to open the connection for the cached reads with
+     */
+    public void useClientSideCaching(RedisClient redisClient) {
+        this.clientSideCache = new LettuceRedisClientSideCache(redisClient);
+    }
+
+    /**
+     * Wraps the key prefix in a hash tag (e.g. "{jobrunr}", or "{my-app}" for the key prefix "my-app") so that all keys of JobRunr are
+     * stored in the same hash slot, which lets its transactions and Lua scripts run on a Redis Cluster. The keys that are stored without the
+     * hash tag are renamed, so this must be enabled on all JobRunr instances sharing the database before it is moved to a cluster, and before
+     * any other use of this StorageProvider. A key that already exists with the hash tag is kept. A key prefix that already contains a hash
+     * tag is used as is.
+     */
+    public void useHashTaggedKeys() {
+        final String hashTaggedKeyPrefix = hashTaggedKeyPrefix(keyPrefix);
+        if (hashTaggedKeyPrefix.equals(keyPrefix)) return;
+
+        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+            RedisCommands<String, String> commands = connection.sync();
+            for (String unTaggedKeyPattern : unTaggedKeyPatterns(keyPrefix)) {
+                final ScanArgs scanArgs = ScanArgs.Builder.matches(unTaggedKeyPattern).limit(1000);
+                KeyScanCursor<String> cursor = commands.scan(scanArgs);
+                renameToHashTaggedKeys(connection, cursor.getKeys());
+                while (!cursor.isFinished()) {
+                    cursor = commands.scan(cursor, scanArgs);
+                    renameToHashTaggedKeys(connection, cursor.getKeys());
+                }
+            }
+        }
+        this.keyPrefix = hashTaggedKeyPrefix;
+    }
+
+    /**
+     * Dispatches the enqueued jobs using a Redis Stream with one consumer group for all BackgroundJobServers instead of letting each of them
+     * scan the sorted set of enqueued jobs from the start. Asking the enqueued jobs using {@link #getJobs(StateName, PageRequest)} (as the
+     * BackgroundJobServer does) then returns the jobs that were not yet delivered to another server, so that the servers do not compete for
+     * the same jobs. A job that was delivered to a server but is still enqueued after the given time (e.g. because that server stopped) is
+     * claimed by the next server asking for work. The sorted set of enqueued jobs is still maintained for the dashboard and the statistics.
+     *
+     * @param claimDeliveredJobsAfter the time after which a delivered job that is still enqueued is delivered to another server
+     */
+    public void useStreamForEnqueuedJobs(Duration claimDeliveredJobsAfter) {
+        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+            RedisCommands<String, String> commands = connection.sync();
+            createEnqueuedJobsConsumerGroup(commands);
+            addEnqueuedJobsToStream(commands);
+        }
+        this.claimDeliveredEnqueuedJobsAfter = claimDeliveredJobsAfter;
+    }
+
+    /**
+     * Lets Redis remove the deleted jobs itself: a job that is saved in the DELETED state gets an expiry after which Redis removes it. The
+     * ids of the expired jobs stay in the sorted set of deleted jobs (and thus in the job statistics) until the permanent deletion of the
+     * BackgroundJobServer (see {@code permanentlyDeleteDeletedJobsAfter}) reconciles it, which only needs to remove their ids. Note that
+     * Redis does not dispose the resources of the job metadata when a job expires.
+     *
+     * @param deletedJobsExpireAfter the time after which a deleted job is removed, measured from the moment it was deleted
+     */
+    public void useExpiryForRetention(Duration deletedJobsExpireAfter) {
+        useExpiryForRetention(deletedJobsExpireAfter, null);
+    }
+
+    /**
+     * Lets Redis remove the deleted and the succeeded jobs itself (see {@link #useExpiryForRetention(Duration)}). A succeeded job that
+     * expires never goes to the DELETED state: the permanent deletion of the deleted jobs also removes the ids of the expired succeeded
+     * jobs and adds them to the all-time succeeded jobs counter.
+     *
+     * @param deletedJobsExpireAfter   the time after which a deleted job is removed, measured from the moment it was deleted
+     * @param succeededJobsExpireAfter the time after which a succeeded job is removed, measured from the moment it succeeded
+     */
+    public void useExpiryForRetention(Duration deletedJobsExpireAfter, Duration succeededJobsExpireAfter) {
+        this.expireJobsAfter.clear();
+        if (deletedJobsExpireAfter != null) {
+            this.expireJobsAfter.put(DELETED, deletedJobsExpireAfter);
+        }
+        if (succeededJobsExpireAfter != null) {
+            this.expireJobsAfter.put(SUCCEEDED, succeededJobsExpireAfter);
+        }
+    }
+
     @Override
     public JobMapper getJobMapper() {
         return jobMapper;
@@ -170,7 +302,7 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
 
     @Override
     public List<BackgroundJobServerStatus> getBackgroundJobServers() {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+        try (final StatefulRedisConnection<String, String> connection = getReadOnlyConnection()) {
             RedisCommands<String, String> commands = connection.sync();
             List<String> zrange = commands.zrange(backgroundJobServersCreatedKey(keyPrefix), 0, Integer.MAX_VALUE);
             return new LettuceRedisPipelinedStream<>(zrange, connection)
@@ -249,7 +381,7 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
 
             return (commands.smembers(metadatasKey(keyPrefix))).stream()
                     .filter(metadataName -> metadataName.startsWith(metadataKey(keyPrefix, name + "-")))
-                    .map(commands::hgetall)
+                    .map(metadataName -> hgetall(commands, metadataName))
                     .map(fieldMap -> new JobRunrMetadata(
                             fieldMap.get(Metadata.FIELD_NAME),
                             fieldMap.get(Metadata.FIELD_OWNER),
@@ -265,7 +397,7 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
     public JobRunrMetadata getMetadata(String name, String owner) {
         try (final StatefulRedisConnection<String, String> connection = getConnection()) {
             RedisCommands<String, String> commands = connection.sync();
-            Map<String, String> fieldMap = commands.hgetall(metadataKey(keyPrefix, toId(name, owner)));
+            Map<String, String> fieldMap = hgetall(commands, metadataKey(keyPrefix, toId(name, owner)));
             return new JobRunrMetadata(
                     fieldMap.get(Metadata.FIELD_NAME),
                     fieldMap.get(Metadata.FIELD_OWNER),
@@ -298,13 +430,8 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
 
     @Override
     public Job save(Job jobToSave) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection(); JobVersioner jobVersioner = new JobVersioner(jobToSave)) {
-            RedisCommands<String, String> commands = connection.sync();
-            if (jobVersioner.isNewJob()) {
-                insertJob(jobToSave, commands);
-            } else {
-                updateJob(jobToSave, commands);
-            }
+        try (JobVersioner jobVersioner = new JobVersioner(jobToSave)) {
+            runWithSharedConnection(commands -> saveJob(jobToSave, commands, jobVersioner.isNewJob()));
             jobVersioner.commitVersion();
             notifyJobStatsOnChangeListeners();
             return jobToSave;
@@ -332,30 +459,21 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
 
     @Override
     public Job getJobById(UUID id) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
-            RedisCommands<String, String> commands = connection.sync();
-            final Object serializedJob = commands.get(jobKey(keyPrefix, id));
-            if (serializedJob == null) throw new JobNotFoundException(id);
-            return jobMapper.deserializeJob(serializedJob.toString());
-        }
+        final String serializedJob = withSharedConnection(commands -> commands.get(jobKey(keyPrefix, id)));
+        if (serializedJob == null) throw new JobNotFoundException(id);
+        return jobMapper.deserializeJob(serializedJob);
     }
 
     @Override
     public List<Job> save(List<Job> jobs) {
         if (jobs.isEmpty()) return jobs;
 
-        try (final StatefulRedisConnection<String, String> connection = getConnection(); final JobListVersioner jobListVersioner = new JobListVersioner(jobs)) {
-            RedisCommands<String, String> commands = connection.sync();
-            if (jobListVersioner.areNewJobs()) {
-                commands.multi();
-                jobs.forEach(jobToSave -> saveJob(commands, jobToSave));
-                commands.exec();
-            } else {
-                final List<Job> concurrentModifiedJobs = returnConcurrentModifiedJobs(jobs, job -> updateJob(job, commands));
-                if (!concurrentModifiedJobs.isEmpty()) {
-                    jobListVersioner.rollbackVersions(concurrentModifiedJobs);
-                    throw new ConcurrentJobModificationException(concurrentModifiedJobs);
-                }
+        try (final JobListVersioner jobListVersioner = new JobListVersioner(jobs)) {
+            final boolean areNewJobs = jobListVersioner.areNewJobs();
+            final List<Job> concurrentModifiedJobs = saveJobs(jobs, areNewJobs);
+            if (!concurrentModifiedJobs.isEmpty()) {
+                jobListVersioner.rollbackVersions(concurrentModifiedJobs);
+                throw new ConcurrentJobModificationException(concurrentModifiedJobs);
             }
             jobListVersioner.commitVersions();
             notifyJobStatsOnChangeListenersIf(!jobs.isEmpty());
@@ -370,7 +488,9 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
         try (final StatefulRedisConnection<String, String> connection = getConnection()) {
             RedisCommands<String, String> commands = connection.sync();
             List<String> jobsByState;
-            if ("updatedAt:ASC".equals(pageRequest.getOrder())) {
+            if (pageRequest.hasCursor()) {
+                jobsByState = getJobIdsAfterCursor(commands, state, toMicroSeconds(updatedBefore), pageRequest);
+            } else if ("updatedAt:ASC".equals(pageRequest.getOrder())) {
                 jobsByState = commands.zrangebyscore(jobQueueForStateKey(keyPrefix, state), Range.create(0, toMicroSeconds(updatedBefore)), Limit.create(pageRequest.getOffset(), pageRequest.getLimit()));
             } else if ("updatedAt:DESC".equals(pageRequest.getOrder())) {
                 jobsByState = commands.zrevrangebyscore(jobQueueForStateKey(keyPrefix, state), Range.create(0, toMicroSeconds(updatedBefore)), Limit.create(pageRequest.getOffset(), pageRequest.getLimit()));
@@ -380,6 +500,7 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
             return new LettuceRedisPipelinedStream<>(jobsByState, connection)
                     .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
                     .mapAfterSync(RedisFuture<String>::get)
+                    .filter(Objects::nonNull)
                     .map(jobMapper::deserializeJob)
                     .collect(toList());
         }
@@ -392,6 +513,7 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
             return new LettuceRedisPipelinedStream<>(commands.zrangebyscore(scheduledJobsKey(keyPrefix), Range.create(0, toMicroSeconds(now())), Limit.create(pageRequest.getOffset(), pageRequest.getLimit())), connection)
                     .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
                     .mapAfterSync(RedisFuture<String>::get)
+                    .filter(Objects::nonNull)
                     .map(jobMapper::deserializeJob)
                     .collect(toList());
         }
@@ -400,31 +522,70 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
     @Override
     public List<Job> getJobs(StateName state, PageRequest pageRequest) {
         try (final StatefulRedisConnection<String, String> connection = getConnection()) {
-            RedisCommands<String, String> commands = connection.sync();
-            List<String> jobsByState;
-            // we only support what is used by frontend
-            if ("updatedAt:ASC".equals(pageRequest.getOrder())) {
-                jobsByState = commands.zrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
-            } else if ("updatedAt:DESC".equals(pageRequest.getOrder())) {
-                jobsByState = commands.zrevrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
-            } else {
-                throw new IllegalArgumentException("Unsupported sorting: " + pageRequest.getOrder());
+            if (isStreamOfEnqueuedJobsRequest(state, pageRequest)) {
+                return getJobsFromStreamOfEnqueuedJobs(connection.sync(), pageRequest.getLimit());
             }
-            return new LettuceRedisPipelinedStream<>(jobsByState, connection)
-                    .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
-                    .mapAfterSync(RedisFuture<String>::get)
-                    .map(jobMapper::deserializeJob)
+            return getJobs(connection, state, pageRequest);
+        }
+    }
+
+    private List<Job> getJobs(StatefulRedisConnection<String, String> connection, StateName state, PageRequest pageRequest) {
+        RedisCommands<String, String> commands = connection.sync();
+        List<String> jobsByState;
+        // we only support what is used by frontend
+        if (pageRequest.hasCursor()) {
+            jobsByState = getJobIdsAfterCursor(commands, state, Double.POSITIVE_INFINITY, pageRequest);
+        } else if ("updatedAt:ASC".equals(pageRequest.getOrder())) {
+            jobsByState = commands.zrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
+        } else if ("updatedAt:DESC".equals(pageRequest.getOrder())) {
+            jobsByState = commands.zrevrange(jobQueueForStateKey(keyPrefix, state), pageRequest.getOffset(), pageRequest.getOffset() + pageRequest.getLimit() - 1);
+        } else {
+            throw new IllegalArgumentException("Unsupported sorting: " + pageRequest.getOrder());
+        }
+        return new LettuceRedisPipelinedStream<>(jobsByState, connection)
+                .mapUsingPipeline((p, id) -> p.get(jobKey(keyPrefix, id)))
+                .mapAfterSync(RedisFuture<String>::get)
+                .filter(Objects::nonNull)
+                .map(jobMapper::deserializeJob)
+                .collect(toList());
+    }
+
+    private List<String> getJobIdsAfterCursor(RedisCommands<String, String> commands, StateName state, double maxScore, PageRequest pageRequest) {
+        // jobs with the same score are sorted on their id by Redis, so the jobs after the cursor start at the first rank after the cursor
+        final String jobQueueForStateKey = jobQueueForStateKey(keyPrefix, state);
+        final long cursorScore = toMicroSeconds(pageRequest.getCursorUpdatedAt());
+        final String cursorId = pageRequest.getCursorId().toString();
+        if (pageRequest.getCursorOrder() == PageRequest.Order.DESC) {
+            final long firstRankAfterCursor = firstRankAfterCursor(
+                    commands.zcount(jobQueueForStateKey, Range.from(Range.Boundary.excluding(cursorScore), Range.Boundary.unbounded())),
+                    commands.zcount(jobQueueForStateKey, Range.from(Range.Boundary.including(cursorScore), Range.Boundary.unbounded())),
+                    rank -> commands.zrevrange(jobQueueForStateKey, rank, rank).stream().findFirst().orElse(null),
+                    id -> id.compareTo(cursorId) < 0);
+            // the jobs updated after the max score come first in descending order and must be skipped
+            final long firstRank = Double.isInfinite(maxScore)
+                    ? firstRankAfterCursor
+                    : Math.max(firstRankAfterCursor, commands.zcount(jobQueueForStateKey, Range.from(Range.Boundary.excluding((long) maxScore), Range.Boundary.unbounded())));
+            return commands.zrevrange(jobQueueForStateKey, firstRank, firstRank + pageRequest.getLimit() - 1);
+        } else {
+            final long firstRank = firstRankAfterCursor(
+                    commands.zcount(jobQueueForStateKey, Range.from(Range.Boundary.unbounded(), Range.Boundary.excluding(cursorScore))),
+                    commands.zcount(jobQueueForStateKey, Range.from(Range.Boundary.unbounded(), Range.Boundary.including(cursorScore))),
+                    rank -> commands.zrange(jobQueueForStateKey, rank, rank).stream().findFirst().orElse(null),
+                    id -> id.compareTo(cursorId) > 0);
+            return commands.zrangeWithScores(jobQueueForStateKey, firstRank, firstRank + pageRequest.getLimit() - 1).stream()
+                    .filter(scoredValue -> scoredValue.getScore() <= maxScore)
+                    .map(ScoredValue::getValue)
                     .collect(toList());
         }
     }
 
     @Override
     public Page<Job> getJobPage(StateName state, PageRequest pageRequest) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+        try (final StatefulRedisConnection<String, String> connection = getReadOnlyConnection()) {
             RedisCommands<String, String> commands = connection.sync();
             long count = commands.zcount(jobQueueForStateKey(keyPrefix, state), unbounded());
             if (count > 0) {
-                List<Job> jobs = getJobs(state, pageRequest);
+                List<Job> jobs = getJobs(connection, state, pageRequest);
                 return new Page<>(count, jobs, pageRequest);
             }
             return new Page<>(0, new ArrayList<>(), pageRequest);
@@ -434,63 +595,43 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
     @Override
     public int deleteJobsPermanently(StateName state, Instant updatedBefore) {
         int amount = 0;
+        int amountOfExpiredSucceededJobs = 0;
         try (final StatefulRedisConnection<String, String> connection = getConnection()) {
             RedisCommands<String, String> commands = connection.sync();
-            List<String> zrangeToInspect = commands.zrange(jobQueueForStateKey(keyPrefix, state), 0, 1000);
-            outerloop:
-            while (!zrangeToInspect.isEmpty()) {
-                for (String id : zrangeToInspect) {
-                    final Job job = getJobById(UUID.fromString(id));
-                    if (job.getUpdatedAt().isAfter(updatedBefore)) break outerloop;
-
-                    commands.multi();
-                    commands.del(jobKey(keyPrefix, job));
-                    commands.del(jobVersionKey(keyPrefix, job));
-                    deleteJobMetadata(commands, job);
-
-                    final TransactionResult exec = commands.exec();
-                    disposeJobResources(job.getMetadata());
-                    if (exec != null && !exec.isEmpty()) amount++;
-                }
-                zrangeToInspect = commands.zrange(jobQueueForStateKey(keyPrefix, state), 0, 1000);
+            final Range<Long> updatedBeforeRange = Range.create(0L, toMicroSeconds(updatedBefore));
+            List<String> idsToDelete = commands.zrangebyscore(jobQueueForStateKey(keyPrefix, state), updatedBeforeRange, Limit.create(0, 1000));
+            while (!idsToDelete.isEmpty()) {
+                amount += deleteJobsPermanently(commands, idsToDelete);
+                idsToDelete = commands.zrangebyscore(jobQueueForStateKey(keyPrefix, state), updatedBeforeRange, Limit.create(0, 1000));
+            }
+            // why: the permanent deletion of the deleted jobs runs periodically on the master, which makes it the place to reconcile the expired succeeded jobs
+            if (DELETED == state) {
+                amountOfExpiredSucceededJobs = removeIdsOfExpiredSucceededJobs(connection);
             }
         }
 
-        notifyJobStatsOnChangeListenersIf(amount > 0);
+        notifyJobStatsOnChangeListenersIf(amount > 0 || amountOfExpiredSucceededJobs > 0);
         return amount;
     }
 
     @Override
     public Set<String> getDistinctJobSignatures(StateName... states) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
-            RedisCommands<String, String> commands = connection.sync();
-            List<Set<String>> jobSignatures = stream(states)
-                    .map(stateName -> commands.smembers(jobDetailsKey(keyPrefix, stateName)))
-                    .collect(toList());
-            return jobSignatures.stream().flatMap(Collection::stream).collect(toSet());
-        }
+        return withSharedConnection(commands -> stream(states)
+                .map(stateName -> commands.smembers(jobDetailsKey(keyPrefix, stateName)))
+                .flatMap(Collection::stream)
+                .collect(toSet()));
     }
 
     @Override
     public boolean exists(JobDetails jobDetails, StateName... states) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
-            RedisCommands<String, String> commands = connection.sync();
-            List<Boolean> existsJob = stream(states)
-                    .map(stateName -> commands.sismember(jobDetailsKey(keyPrefix, stateName), getJobSignature(jobDetails)))
-                    .collect(toList());
-            return existsJob.stream().filter(b -> b).findAny().orElse(false);
-        }
+        return withSharedConnection(commands -> stream(states)
+                .anyMatch(stateName -> commands.sismember(jobDetailsKey(keyPrefix, stateName), getJobSignature(jobDetails))));
     }
 
     @Override
     public boolean recurringJobExists(String recurringJobId, StateName... states) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
-            RedisCommands<String, String> commands = connection.sync();
-            List<Boolean> existsJob = stream(states)
-                    .map(stateName -> commands.sismember(recurringJobKey(keyPrefix, stateName), recurringJobId))
-                    .collect(toList());
-            return existsJob.stream().filter(b -> b).findAny().orElse(false);
-        }
+        return withSharedConnection(commands -> stream(states)
+                .anyMatch(stateName -> commands.sismember(recurringJobKey(keyPrefix, stateName), recurringJobId)));
     }
 
     @Override
@@ -509,9 +650,11 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
     public List<RecurringJob> getRecurringJobs() {
         try (final StatefulRedisConnection<String, String> connection = getConnection()) {
             RedisCommands<String, String> commands = connection.sync();
-            return commands.smembers(recurringJobsKey(keyPrefix))
-                    .stream()
-                    .map(id -> commands.get(recurringJobKey(keyPrefix, id)))
+            final List<String> recurringJobKeys = commands.smembers(recurringJobsKey(keyPrefix)).stream()
+                    .map(id -> recurringJobKey(keyPrefix, id))
+                    .collect(toList());
+            return mget(commands, recurringJobKeys).stream()
+                    .filter(Objects::nonNull)
                     .map(jobMapper::deserializeRecurringJob)
                     .collect(toList());
         }
@@ -533,7 +676,7 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
     @Override
     public JobStats getJobStats() {
         Instant instant = Instant.now();
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+        try (final StatefulRedisConnection<String, String> connection = getReadOnlyConnection()) {
             connection.setAutoFlushCommands(false);
             RedisAsyncCommands<String, String> commands = connection.async();
             final RedisFuture<String> totalSucceededAmountCounterResponse = commands.hget(metadataKey(keyPrefix, Metadata.STATS_ID), Metadata.FIELD_VALUE);
@@ -580,62 +723,274 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
 
     @Override
     public void publishTotalAmountOfSucceededJobs(int amount) {
-        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
-            RedisCommands<String, String> commands = connection.sync();
-            commands.hincrby(metadataKey(keyPrefix, Metadata.STATS_ID), Metadata.FIELD_VALUE, amount);
-        }
+        runWithSharedConnection(commands -> commands.hincrby(metadataKey(keyPrefix, Metadata.STATS_ID), Metadata.FIELD_VALUE, amount));
     }
 
     @Override
     public void close() {
         super.close();
+        if (sharedConnection != null) sharedConnection.close();
+        if (clientSideCache != null) clientSideCache.close();
         pool.close();
     }
 
-    private void insertJob(Job jobToSave, RedisCommands<String, String> commands) {
-        if (commands.exists(jobKey(keyPrefix, jobToSave)) > 0) throw new ConcurrentJobModificationException(jobToSave);
-        commands.multi();
-        saveJob(commands, jobToSave);
-        TransactionResult result = commands.exec();
-        if (result.wasDiscarded()) {
-            throw new StorageException("Unable to save job " + jobToSave.getId() + " with version " + jobToSave.getVersion());
+    private void saveJob(Job jobToSave, RedisCommands<String, String> commands, boolean isNewJob) {
+        final String[] keys = SaveJobScript.keys(keyPrefix, jobToSave, isNewJob).toArray(new String[0]);
+        final String[] args = SaveJobScript.args(jobToSave, jobMapper.serializeJob(jobToSave), isNewJob, claimDeliveredEnqueuedJobsAfter != null, expireJobsAfter).toArray(new String[0]);
+        Long result;
+        try {
+            result = commands.evalsha(SaveJobScript.SHA1, ScriptOutputType.INTEGER, keys, args);
+        } catch (RedisNoScriptException e) {
+            result = commands.eval(SaveJobScript.SCRIPT, ScriptOutputType.INTEGER, keys, args);
+        }
+        if (!SaveJobScript.isSaved(result)) throw new ConcurrentJobModificationException(jobToSave);
+    }
+
+    private List<String> mget(RedisCommands<String, String> commands, List<String> keys) {
+        if (keys.isEmpty()) return emptyList();
+        if (clientSideCache != null) return clientSideCache.mget(keys);
+
+        return commands.mget(keys.toArray(new String[0])).stream()
+                .map(keyValue -> keyValue.getValueOrElse(null))
+                .collect(toList());
+    }
+
+    private Map<String, String> hgetall(RedisCommands<String, String> commands, String key) {
+        if (clientSideCache != null) return clientSideCache.hgetall(key);
+
+        return commands.hgetall(key);
+    }
+
+    private boolean isStreamOfEnqueuedJobsRequest(StateName state, PageRequest pageRequest) {
+        return claimDeliveredEnqueuedJobsAfter != null
+                && ENQUEUED == state
+                && !pageRequest.hasCursor()
+                && pageRequest.getOffset() == 0
+                && "updatedAt:ASC".equals(pageRequest.getOrder());
+    }
+
+    private void createEnqueuedJobsConsumerGroup(RedisCommands<String, String> commands) {
+        try {
+            commands.xgroupCreate(XReadArgs.StreamOffset.from(enqueuedJobsStreamKey(keyPrefix), "0-0"), ENQUEUED_JOBS_CONSUMER_GROUP, XGroupCreateArgs.Builder.mkstream());
+        } catch (RedisCommandExecutionException e) {
+            if (!e.getMessage().startsWith("BUSYGROUP")) throw e;
+        }
+    }
+
+    private void renameToHashTaggedKeys(StatefulRedisConnection<String, String> connection, List<String> unTaggedKeys) {
+        if (unTaggedKeys.isEmpty()) return;
+
+        // the renames are pipelined so that each page of keys is a single roundtrip
+        connection.setAutoFlushCommands(false);
+        final List<RedisFuture<Boolean>> renamed;
+        try {
+            RedisAsyncCommands<String, String> commands = connection.async();
+            renamed = unTaggedKeys.stream()
+                    .map(unTaggedKey -> commands.renamenx(unTaggedKey, toHashTaggedKey(keyPrefix, unTaggedKey)))
+                    .collect(toList());
+            connection.flushCommands();
+        } finally {
+            connection.setAutoFlushCommands(true);
+        }
+        if (!LettuceFutures.awaitAll(Duration.ofSeconds(10), renamed.toArray(new RedisFuture[0]))) {
+            throw new RedisCommandTimeoutException("Renaming the keys timed out after 10 second(s)");
+        }
+        // e.g. the job stats that the migrations create on startup if they can not find them without the hash tag
+        final String[] keysAlreadyHashTagged = IntStream.range(0, unTaggedKeys.size())
+                .filter(i -> !renamed.get(i).toCompletableFuture().join())
+                .mapToObj(unTaggedKeys::get)
+                .toArray(String[]::new);
+        if (keysAlreadyHashTagged.length > 0) {
+            connection.sync().del(keysAlreadyHashTagged);
         }
     }
 
-    private void updateJob(Job jobToSave, RedisCommands<String, String> commands) {
-        commands.watch(jobVersionKey(keyPrefix, jobToSave));
-        final int version = Integer.parseInt(commands.get(jobVersionKey(keyPrefix, jobToSave)));
-        if (version != (jobToSave.getVersion() - 1)) throw new ConcurrentJobModificationException(jobToSave);
+    private void addEnqueuedJobsToStream(RedisCommands<String, String> commands) {
+        // jobs that were enqueued while the stream was not in use are not in the stream yet
+        final Set<String> jobIdsInStream = new HashSet<>();
+        Range<String> range = Range.unbounded();
+        List<StreamMessage<String, String>> messages;
+        do {
+            messages = commands.xrange(enqueuedJobsStreamKey(keyPrefix), range, Limit.from(ENQUEUED_JOBS_STREAM_PAGE_SIZE));
+            messages.forEach(message -> jobIdsInStream.add(message.getBody().get(Jobs.FIELD_ID)));
+            if (!messages.isEmpty()) {
+                range = Range.from(Range.Boundary.including(nextStreamMessageId(messages.get(messages.size() - 1).getId())), Range.Boundary.unbounded());
+            }
+        } while (messages.size() == ENQUEUED_JOBS_STREAM_PAGE_SIZE);
+
+        long offset = 0;
+        List<String> enqueuedJobIds;
+        do {
+            enqueuedJobIds = commands.zrange(jobQueueForStateKey(keyPrefix, ENQUEUED), offset, offset + ENQUEUED_JOBS_STREAM_PAGE_SIZE - 1);
+            enqueuedJobIds.stream()
+                    .filter(id -> !jobIdsInStream.contains(id))
+                    .forEach(id -> commands.xadd(enqueuedJobsStreamKey(keyPrefix), singletonMap(Jobs.FIELD_ID, id)));
+            offset += ENQUEUED_JOBS_STREAM_PAGE_SIZE;
+        } while (enqueuedJobIds.size() == ENQUEUED_JOBS_STREAM_PAGE_SIZE);
+    }
+
+    private List<Job> getJobsFromStreamOfEnqueuedJobs(RedisCommands<String, String> commands, int limit) {
+        // the jobs delivered to this server that are no longer enqueued were processed and can be removed from the stream
+        getEnqueuedJobs(commands, commands.xreadgroup(enqueuedJobsConsumer, XReadArgs.Builder.count(ENQUEUED_JOBS_STREAM_PAGE_SIZE), XReadArgs.StreamOffset.from(enqueuedJobsStreamKey(keyPrefix), "0-0")));
+
+        final List<StreamMessage<String, String>> messages = new ArrayList<>();
+        String claimFrom = "0-0";
+        do {
+            final ClaimedMessages<String, String> claimedMessages = commands.xautoclaim(enqueuedJobsStreamKey(keyPrefix), XAutoClaimArgs.Builder.xautoclaim(enqueuedJobsConsumer, claimDeliveredEnqueuedJobsAfter, claimFrom).count(limit - messages.size()));
+            messages.addAll(claimedMessages.getMessages());
+            claimFrom = claimedMessages.getId();
+        } while (messages.size() < limit && !"0-0".equals(claimFrom));
+        if (messages.size() < limit) {
+            // only wait for new messages if there is nothing else to process
+            final XReadArgs readArgs = XReadArgs.Builder.count(limit - messages.size());
+            if (messages.isEmpty()) readArgs.block(ENQUEUED_JOBS_STREAM_BLOCK);
+            messages.addAll(commands.xreadgroup(enqueuedJobsConsumer, readArgs, XReadArgs.StreamOffset.lastConsumed(enqueuedJobsStreamKey(keyPrefix))));
+        }
+        return getEnqueuedJobs(commands, messages);
+    }
+
+    private static String nextStreamMessageId(String messageId) {
+        final int separator = messageId.indexOf('-');
+        return messageId.substring(0, separator) + "-" + (Long.parseLong(messageId.substring(separator + 1)) + 1);
+    }
+
+    private List<Job> getEnqueuedJobs(RedisCommands<String, String> commands, List<StreamMessage<String, String>> messages) {
+        if (messages.isEmpty()) return emptyList();
+
+        final List<KeyValue<String, String>> serializedJobs = commands.mget(messages.stream().map(message -> jobKey(keyPrefix, message.getBody().get(Jobs.FIELD_ID))).toArray(String[]::new));
+        final Map<UUID, Job> enqueuedJobs = new LinkedHashMap<>();
+        final List<String> handledMessageIds = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            final Job job = serializedJobs.get(i).hasValue() ? jobMapper.deserializeJob(serializedJobs.get(i).getValue()) : null;
+            if (job != null && ENQUEUED == job.getState() && !enqueuedJobs.containsKey(job.getId())) {
+                enqueuedJobs.put(job.getId(), job);
+            } else {
+                handledMessageIds.add(messages.get(i).getId());
+            }
+        }
+        if (!handledMessageIds.isEmpty()) {
+            final String[] messageIds = handledMessageIds.toArray(new String[0]);
+            commands.multi();
+            commands.xack(enqueuedJobsStreamKey(keyPrefix), ENQUEUED_JOBS_CONSUMER_GROUP, messageIds);
+            commands.xdel(enqueuedJobsStreamKey(keyPrefix), messageIds);
+            commands.exec();
+        }
+        return new ArrayList<>(enqueuedJobs.values());
+    }
+
+    private int deleteJobsPermanently(RedisCommands<String, String> commands, List<String> ids) {
+        final String[] jobKeys = ids.stream().map(id -> jobKey(keyPrefix, id)).toArray(String[]::new);
+        final List<Job> jobs = commands.mget(jobKeys).stream()
+                .filter(KeyValue::hasValue)
+                .map(serializedJob -> jobMapper.deserializeJob(serializedJob.getValue()))
+                .collect(toList());
+        final String[] jobIds = ids.toArray(new String[0]);
+        final String[] jobSignatures = jobs.stream().map(job -> getJobSignature(job.getJobDetails())).distinct().toArray(String[]::new);
+
         commands.multi();
-        saveJob(commands, jobToSave);
-        TransactionResult result = commands.exec();
-        if (result == null || result.isEmpty()) {
-            throw new ConcurrentJobModificationException(jobToSave);
+        commands.del(jobKeys);
+        commands.del(ids.stream().map(id -> jobVersionKey(keyPrefix, UUID.fromString(id))).toArray(String[]::new));
+        commands.zrem(scheduledJobsKey(keyPrefix), jobIds);
+        Stream.of(StateName.values()).forEach(stateName -> commands.zrem(jobQueueForStateKey(keyPrefix, stateName), jobIds));
+        if (jobSignatures.length > 0) {
+            Stream.of(StateName.values()).forEach(stateName -> commands.srem(jobDetailsKey(keyPrefix, stateName), jobSignatures));
         }
+        final TransactionResult result = commands.exec();
+
+        jobs.forEach(job -> disposeJobResources(job.getMetadata()));
+        return result == null || result.isEmpty() ? 0 : ((Long) result.get(0)).intValue();
     }
 
-    private void saveJob(RedisCommands<String, String> commands, Job jobToSave) {
-        deleteJobMetadataForUpdate(commands, jobToSave);
-        commands.set(jobVersionKey(keyPrefix, jobToSave), String.valueOf(jobToSave.getVersion()));
-        commands.set(jobKey(keyPrefix, jobToSave), jobMapper.serializeJob(jobToSave));
-        commands.zadd(jobQueueForStateKey(keyPrefix, jobToSave.getState()), toMicroSeconds(jobToSave.getUpdatedAt()), jobToSave.getId().toString());
-        commands.sadd(jobDetailsKey(keyPrefix, jobToSave.getState()), getJobSignature(jobToSave.getJobDetails()));
-        if (SCHEDULED.equals(jobToSave.getState())) {
-            commands.zadd(scheduledJobsKey(keyPrefix), toMicroSeconds(((ScheduledState) jobToSave.getJobState()).getScheduledAt()), jobToSave.getId().toString());
+    private List<Job> saveJobs(List<Job> jobs, boolean areNewJobs) {
+        final List<Job> concurrentModifiedJobs = new ArrayList<>();
+        final List<Job> jobsToSaveAgain = new ArrayList<>();
+        // the scripts are pipelined on a connection of the pool so that saving all jobs is a single roundtrip
+        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+            connection.setAutoFlushCommands(false);
+            RedisAsyncCommands<String, String> commands = connection.async();
+            final List<RedisFuture<Long>> results = jobs.stream()
+                    .map(job -> commands.<Long>evalsha(SaveJobScript.SHA1, ScriptOutputType.INTEGER,
+                            SaveJobScript.keys(keyPrefix, job, areNewJobs).toArray(new String[0]),
+                            SaveJobScript.args(job, jobMapper.serializeJob(job), areNewJobs, claimDeliveredEnqueuedJobsAfter != null, expireJobsAfter).toArray(new String[0])))
+                    .collect(toList());
+            connection.flushCommands();
+            for (int i = 0; i < jobs.size(); i++) {
+                final Object result = getSaveJobScriptResult(results.get(i));
+                if (result instanceof RedisNoScriptException) {
+                    jobsToSaveAgain.add(jobs.get(i));
+                } else if (!SaveJobScript.isSaved(result)) {
+                    concurrentModifiedJobs.add(jobs.get(i));
+                }
+            }
         }
-        jobToSave.getJobStatesOfType(ScheduledState.class).findFirst().map(ScheduledState::getRecurringJobId).ifPresent(recurringJobId -> commands.sadd(recurringJobKey(keyPrefix, jobToSave.getState()), recurringJobId));
+        if (!jobsToSaveAgain.isEmpty()) {
+            runWithSharedConnection(commands -> commands.scriptLoad(SaveJobScript.SCRIPT));
+            concurrentModifiedJobs.addAll(saveJobs(jobsToSaveAgain, areNewJobs));
+        }
+        return concurrentModifiedJobs;
     }
 
-    private void deleteJobMetadataForUpdate(RedisCommands<String, String> commands, Job job) {
-        String id = job.getId().toString();
-        commands.zrem(scheduledJobsKey(keyPrefix), id);
-        Stream.of(StateName.values()).forEach(stateName -> commands.zrem(jobQueueForStateKey(keyPrefix, stateName), id));
-        Stream.of(StateName.values()).filter(stateName -> !SCHEDULED.equals(stateName)).forEach(stateName -> commands.srem(jobDetailsKey(keyPrefix, stateName), getJobSignature(job.getJobDetails())));
-        if ((job.hasState(ENQUEUED) && job.getJobStates().size() >= 2 && job.getJobState(-2) instanceof ScheduledState)
-                || (job.hasState(DELETED) && job.getJobStates().size() >= 2 && job.getJobState(-2) instanceof ScheduledState)) {
-            commands.srem(jobDetailsKey(keyPrefix, SCHEDULED), getJobSignature(job.getJobDetails()));
+    private Object getSaveJobScriptResult(RedisFuture<Long> result) {
+        try {
+            return result.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RedisNoScriptException) return e.getCause();
+            if (e.getCause() instanceof RedisException) throw (RedisException) e.getCause();
+            throw new RedisException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RedisCommandTimeoutException("Saving the jobs timed out after 10 second(s)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException(e);
+        }
+    }
+
+    private int removeIdsOfExpiredSucceededJobs(StatefulRedisConnection<String, String> connection) {
+        final Duration succeededJobsExpireAfter = expireJobsAfter.get(SUCCEEDED);
+        if (succeededJobsExpireAfter == null) return 0;
+
+        final RedisCommands<String, String> commands = connection.sync();
+        final String succeededJobsKey = jobQueueForStateKey(keyPrefix, SUCCEEDED);
+        final Range<Long> expiredBeforeRange = Range.create(0L, toMicroSeconds(now().minus(succeededJobsExpireAfter)));
+        int amountExpired = 0;
+        int offset = 0;
+        List<String> ids = commands.zrangebyscore(succeededJobsKey, expiredBeforeRange, Limit.create(offset, 1000));
+        while (!ids.isEmpty()) {
+            final String[] expiredIds = idsOfExpiredJobs(connection, ids);
+            if (expiredIds.length > 0) {
+                commands.zrem(succeededJobsKey, expiredIds);
+            }
+            // the jobs that succeeded before the expiry was used do not expire and stay in the sorted set
+            amountExpired += expiredIds.length;
+            offset += ids.size() - expiredIds.length;
+            ids = commands.zrangebyscore(succeededJobsKey, expiredBeforeRange, Limit.create(offset, 1000));
+        }
+        if (amountExpired > 0) {
+            commands.hincrby(metadataKey(keyPrefix, Metadata.STATS_ID), Metadata.FIELD_VALUE, amountExpired);
         }
-        job.getJobStatesOfType(ScheduledState.class).findFirst().map(ScheduledState::getRecurringJobId).ifPresent(recurringJobId -> Stream.of(StateName.values()).forEach(stateName -> commands.srem(recurringJobKey(keyPrefix, stateName), recurringJobId)));
+        return amountExpired;
+    }
+
+    private String[] idsOfExpiredJobs(StatefulRedisConnection<String, String> connection, List<String> ids) {
+        // the exists checks are pipelined so that each page of ids is a single roundtrip
+        connection.setAutoFlushCommands(false);
+        final List<RedisFuture<Long>> jobExists;
+        try {
+            RedisAsyncCommands<String, String> commands = connection.async();
+            jobExists = ids.stream()
+                    .map(id -> commands.exists(jobKey(keyPrefix, id)))
+                    .collect(toList());
+            connection.flushCommands();
+        } finally {
+            connection.setAutoFlushCommands(true);
+        }
+        if (!LettuceFutures.awaitAll(Duration.ofSeconds(10), jobExists.toArray(new RedisFuture[0]))) {
+            throw new RedisCommandTimeoutException("Checking the expired jobs timed out after 10 second(s)");
+        }
+        return IntStream.range(0, ids.size())
+                .filter(i -> jobExists.get(i).toCompletableFuture().join() == 0L)
+                .mapToObj(ids::get)
+                .toArray(String[]::new);
     }
 
     private void deleteJobMetadata(RedisCommands<String, String> commands, Job job) {
@@ -663,7 +1018,30 @@ public class LettuceRedisStorageProvider extends AbstractStorageProvider impleme
         }
     }
 
+    private <T> T withSharedConnection(Function<RedisCommands<String, String>, T> function) {
+        if (sharedConnection != null) return function.apply(sharedConnection.sync());
+
+        try (final StatefulRedisConnection<String, String> connection = getConnection()) {
+            return function.apply(connection.sync());
+        }
+    }
+
+    private void runWithSharedConnection(Consumer<RedisCommands<String, String>> consumer) {
+        withSharedConnection(commands -> {
+            consumer.accept(commands);
+            return null;
+        });
+    }
+
     protected StatefulRedisConnection<String, String> getConnection() {
+        return borrowConnection(pool);
+    }
+
+    protected StatefulRedisConnection<String, String> getReadOnlyConnection() {
+        return borrowConnection(readOnlyPool);
+    }
+
+    private static StatefulRedisConnection<String, String> borrowConnection(ObjectPool<StatefulRedisConnection<String, String>> pool) {
         try {
             StatefulRedisConnection<String, String> statefulRedisConnection = pool.borrowObject();
             statefulRedisConnection.setAutoFlushCommands(true);
@@ -8,11 +8,17 @@ import org.jobrunr.utils.StringUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.jobrunr.storage.StorageProviderUtils.Metadata.NAME;
+import static org.jobrunr.utils.StringUtils.isNullOrEmpty;
 
 public class RedisUtilities {
 
@@ -28,6 +34,40 @@ public class RedisUtilities {
         return "counter:jobs:" + stateName;
     }
 
+    /**
+     * Wraps the key prefix in a hash tag so that all keys of JobRunr are stored in the same hash slot of a Redis Cluster. This lets the
+     * transactions and Lua scripts of JobRunr span them. A key prefix that already contains a hash tag is used as is. Hash tagged keys are
+     * opt-in (see {@code useHashTaggedKeys()} of the Redis StorageProviders), as they change the layout of the keys.
+     */
+    public static String hashTaggedKeyPrefix(String keyPrefix) {
+        if (isNullOrEmpty(keyPrefix)) return "{jobrunr}";
+        if (keyPrefix.contains("{") && keyPrefix.contains("}")) return keyPrefix;
+        return "{" + keyPrefix + "}";
+    }
+
+    /**
+     * Returns the patterns matching the keys that are stored under the given key prefix without a hash tag.
+     */
+    public static List<String> unTaggedKeyPatterns(String keyPrefix) {
+        if (hashTaggedKeyPrefix(keyPrefix).equals(keyPrefix)) return emptyList();
+
+        final String unTaggedKeyPrefix = unTaggedKeyPrefix(keyPrefix).replaceAll("([*?\\[\\]\\\\])", "\\\\$1");
+        return Stream.of("backgroundjobserver*", "set:" + NAME, NAME + ":*", "queue:*", "recurringjob*", "job:*")
+                .map(pattern -> unTaggedKeyPrefix + pattern)
+                .collect(toList());
+    }
+
+    /**
+     * Returns the key to which the given key, stored under the given key prefix without a hash tag, is moved once hash tags are used.
+     */
+    public static String toHashTaggedKey(String keyPrefix, String unTaggedKey) {
+        return toRedisKey(hashTaggedKeyPrefix(keyPrefix), unTaggedKey.substring(unTaggedKeyPrefix(keyPrefix).length()));
+    }
+
+    private static String unTaggedKeyPrefix(String keyPrefix) {
+        return isNullOrEmpty(keyPrefix) ? "" : keyPrefix + ":";
+    }
+
     public static String backgroundJobServersCreatedKey(String keyPrefix) {
         return toRedisKey(keyPrefix, "backgroundjobservers", "created");
     }
@@ -64,6 +104,10 @@ public class RedisUtilities {
         return toRedisKey(keyPrefix, "queue", "jobs", stateName.toString());
     }
 
+    public static String enqueuedJobsStreamKey(String keyPrefix) {
+        return toRedisKey(keyPrefix, "stream", "jobs", StateName.ENQUEUED.toString());
+    }
+
     public static String recurringJobsKey(String keyPrefix) {
         return toRedisKey(keyPrefix, "recurringjobs");
     }
@@ -113,5 +157,31 @@ public class RedisUtilities {
     public static long toMicroSeconds(Instant instant) {
         return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
     }
+
+    /**
+     * Finds the first rank in the given range of ranks of which the member comes after the cursor. All members in that range have the score
+     * of the cursor, so Redis sorts them on their id and a binary search only needs to read one member per step, however many jobs were
+     * updated at the same time.
+     *
+     * @param fromRank      the rank of the first member with the score of the cursor
+     * @param toRank        the rank after the last member with the score of the cursor
+     * @param memberAtRank  reads the member at the given rank (or null if there is none)
+     * @param isAfterCursor whether the given member comes after the cursor
+     * @return the rank of the first member that comes after the cursor
+     */
+    public static long firstRankAfterCursor(long fromRank, long toRank, LongFunction<String> memberAtRank, Predicate<String> isAfterCursor) {
+        long low = fromRank;
+        long high = toRank;
+        while (low < high) {
+            final long middle = (low + high) >>> 1;
+            final String member = memberAtRank.apply(middle);
+            if (member == null || isAfterCursor.test(member)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
 }
 
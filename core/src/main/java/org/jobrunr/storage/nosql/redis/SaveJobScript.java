@@ -0,0 +1,141 @@
+package org.jobrunr.storage.nosql.redis;
+
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.states.ScheduledState;
+import org.jobrunr.jobs.states.StateName;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.jobrunr.jobs.states.StateName.DELETED;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.jobs.states.StateName.SCHEDULED;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.enqueuedJobsStreamKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobDetailsKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobQueueForStateKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobVersionKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.recurringJobKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.scheduledJobsKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.toMicroSeconds;
+import static org.jobrunr.utils.JobUtils.getJobSignature;
+
+/**
+ * Lua script that checks the version of a job, moves it between the state indexes and writes the job itself in a single atomic call,
+ * so that saving a job is one roundtrip instead of a WATCH / MULTI / EXEC transaction that is discarded under contention.
+ * <p>
+ * Only the indexes of the state the job was last saved in (see {@link Job#getLastSavedState()}) and of its new state are passed to the
+ * script: as the version of the job is checked, the job cannot be in the index of any other state.
+ * <p>
+ * If the stream of enqueued jobs is used, a job that becomes enqueued is also added to it in the same call. If the jobs in the new state of
+ * the job expire (see {@code useExpiryForRetention}), the expiry of the job is set in the same call as well.
+ * <p>
+ * The script returns 1 if the job was saved and 0 if the job was modified concurrently (or already exists in case of a new job).
+ */
+public class SaveJobScript {
+
+    // KEYS: the job version, the job, the scheduled jobs, the stream of enqueued jobs, the job queue, the job details and the recurring job ids
+    //       of the state the job was last saved in and the job queue, the job details and the recurring job ids of the state of the job
+    // ARGV: the expected version (empty for a new job), the version, the job, the id, updatedAt, the job signature, scheduledAt (empty if not
+    //       scheduled), the recurring job id (empty if none), '1' to remove the job signature from the job details of the previous state,
+    //       '1' to add the job to the stream of enqueued jobs if it was not enqueued yet and the time in milliseconds at which the job
+    //       expires (empty if it does not expire)
+    public static final String SCRIPT = "" +
+            "local id = ARGV[4]\n" +
+            "if ARGV[1] == '' then\n" +
+            "    if redis.call('exists', KEYS[2]) == 1 then return 0 end\n" +
+            "elseif redis.call('get', KEYS[1]) ~= ARGV[1] then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "redis.call('zrem', KEYS[3], id)\n" +
+            "local wasInState = redis.call('zrem', KEYS[5], id) == 1 and KEYS[5] == KEYS[8]\n" +
+            "if ARGV[9] == '1' then\n" +
+            "    redis.call('srem', KEYS[6], ARGV[6])\n" +
+            "end\n" +
+            "if ARGV[8] ~= '' then\n" +
+            "    redis.call('srem', KEYS[7], ARGV[8])\n" +
+            "end\n" +
+            "redis.call('set', KEYS[1], ARGV[2])\n" +
+            "redis.call('set', KEYS[2], ARGV[3])\n" +
+            "if ARGV[11] ~= '' then\n" +
+            "    redis.call('pexpireat', KEYS[1], ARGV[11])\n" +
+            "    redis.call('pexpireat', KEYS[2], ARGV[11])\n" +
+            "end\n" +
+            "redis.call('zadd', KEYS[8], ARGV[5], id)\n" +
+            "redis.call('sadd', KEYS[9], ARGV[6])\n" +
+            "if ARGV[7] ~= '' then\n" +
+            "    redis.call('zadd', KEYS[3], ARGV[7], id)\n" +
+            "end\n" +
+            "if ARGV[8] ~= '' then\n" +
+            "    redis.call('sadd', KEYS[10], ARGV[8])\n" +
+            "end\n" +
+            "if ARGV[10] == '1' and not wasInState then\n" +
+            "    redis.call('xadd', KEYS[4], '*', 'id', id)\n" +
+            "end\n" +
+            "return 1";
+
+    public static final String SHA1 = sha1(SCRIPT);
+
+    private SaveJobScript() {
+    }
+
+    public static List<String> keys(String keyPrefix, Job job, boolean isNewJob) {
+        final StateName previousState = isNewJob ? job.getState() : job.getLastSavedState();
+        return asList(
+                jobVersionKey(keyPrefix, job),
+                jobKey(keyPrefix, job),
+                scheduledJobsKey(keyPrefix),
+                enqueuedJobsStreamKey(keyPrefix),
+                jobQueueForStateKey(keyPrefix, previousState),
+                jobDetailsKey(keyPrefix, previousState),
+                recurringJobKey(keyPrefix, previousState),
+                jobQueueForStateKey(keyPrefix, job.getState()),
+                jobDetailsKey(keyPrefix, job.getState()),
+                recurringJobKey(keyPrefix, job.getState())
+        );
+    }
+
+    public static List<String> args(Job job, String serializedJob, boolean isNewJob, boolean useEnqueuedJobsStream, Map<StateName, Duration> expireJobsAfter) {
+        final StateName previousState = isNewJob ? job.getState() : job.getLastSavedState();
+        final Duration expireAfter = expireJobsAfter.get(job.getState());
+        return asList(
+                isNewJob ? "" : String.valueOf(job.getVersion() - 1),
+                String.valueOf(job.getVersion()),
+                serializedJob,
+                job.getId().toString(),
+                String.valueOf(toMicroSeconds(job.getUpdatedAt())),
+                getJobSignature(job.getJobDetails()),
+                SCHEDULED.equals(job.getState()) ? String.valueOf(toMicroSeconds(((ScheduledState) job.getJobState()).getScheduledAt())) : "",
+                job.getJobStatesOfType(ScheduledState.class).findFirst().map(ScheduledState::getRecurringJobId).orElse(""),
+                !SCHEDULED.equals(previousState) || wasScheduledBefore(job) ? "1" : "0",
+                useEnqueuedJobsStream && ENQUEUED.equals(job.getState()) ? "1" : "0",
+                expireAfter != null ? String.valueOf(job.getUpdatedAt().plus(expireAfter).toEpochMilli()) : ""
+        );
+    }
+
+    public static boolean isSaved(Object result) {
+        return result instanceof Long && (Long) result == 1L;
+    }
+
+    private static boolean wasScheduledBefore(Job job) {
+        return (job.hasState(ENQUEUED) || job.hasState(DELETED)) && job.getJobStates().size() >= 2 && job.getJobState(-2) instanceof ScheduledState;
+    }
+
+    private static String sha1(String script) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder result = new StringBuilder();
+            for (byte b : digest) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,5 +2,22 @@ package org.jobrunr.storage.sql;
 
 import org.jobrunr.storage.StorageProvider;
 
+import java.sql.Connection;
+import java.util.function.Function;
+
 public interface SqlStorageProvider extends StorageProvider {
+
+    /**
+     * Runs the given unit of work against a StorageProvider of which all calls use the given connection. The connection is owned by the caller:
+     * it is neither committed, rolled back nor closed by JobRunr so that the jobs are saved atomically with the other changes of the caller
+     * (e.g. a connection that takes part in a Spring managed transaction, obtained via {@code DataSourceUtils.getConnection(dataSource)}).
+     * As JobRunr does not know when the connection is committed, the change listeners (e.g. of the dashboard) are not notified of these changes
+     * right away but the next time they are notified.
+     *
+     * @param connection the connection of the caller, which must point to the database of this StorageProvider
+     * @param unitOfWork the reads and writes to run on the given connection
+     * @param <T>        the type of the result of the unit of work
+     * @return the result of the unit of work
+     */
+    <T> T inTransaction(Connection connection, Function<StorageProvider, T> unitOfWork);
 }
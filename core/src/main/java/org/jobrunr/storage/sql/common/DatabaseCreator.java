@@ -3,6 +3,8 @@ package org.jobrunr.storage.sql.common;
 import org.jobrunr.JobRunrException;
 import org.jobrunr.storage.sql.SqlStorageProvider;
 import org.jobrunr.storage.sql.common.db.Transaction;
+import org.jobrunr.storage.sql.common.migrations.BackfillJobSignatureHashMigration;
+import org.jobrunr.storage.sql.common.migrations.JavaMigration;
 import org.jobrunr.storage.sql.common.migrations.SqlMigration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,10 +15,18 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static java.util.Arrays.stream;
+import static java.util.Collections.singletonList;
 import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.jobrunr.storage.StorageProviderUtils.elementPrefixer;
 import static org.jobrunr.utils.StringUtils.isNullOrEmpty;
 import static org.jobrunr.utils.StringUtils.substringAfterLast;
@@ -25,7 +35,8 @@ public class DatabaseCreator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseCreator.class);
     private static final String DEFAULT_PREFIX = "jobrunr_";
-    private static final String[] JOBRUNR_TABLES = new String[]{"jobrunr_jobs", "jobrunr_recurring_jobs", "jobrunr_backgroundjobservers", "jobrunr_metadata"};
+    private static final List<JavaMigration> JAVA_MIGRATIONS = singletonList(new BackfillJobSignatureHashMigration());
+    private static final String[] JOBRUNR_TABLES = new String[]{"jobrunr_jobs", "jobrunr_jobs_archive", "jobrunr_job_counters", "jobrunr_counters", "jobrunr_recurring_jobs", "jobrunr_backgroundjobservers", "jobrunr_metadata"};
 
     private final ConnectionProvider connectionProvider;
     private final TablePrefixStatementUpdater tablePrefixStatementUpdater;
@@ -75,24 +86,41 @@ public class DatabaseCreator {
     }
 
     public void runMigrations() {
+        final Set<String> appliedMigrations = getAppliedMigrations();
         getMigrations()
                 .filter(migration -> migration.getFileName().endsWith(".sql"))
                 .sorted(comparing(SqlMigration::getFileName))
-                .filter(this::isNewMigration)
+                .filter(migration -> !appliedMigrations.contains(migration.getFileName()))
                 .forEach(this::runMigration);
     }
 
+    /**
+     * Runs the opt-in migrations of the database that are found in the given folder next to its regular migrations folder.
+     *
+     * @param folder the folder containing the opt-in migrations (e.g. nativejson)
+     * @return false if there are no such migrations for the database
+     */
+    public boolean runOptionalMigrations(String folder) {
+        final List<SqlMigration> optionalMigrations = databaseMigrationsProvider.getOptionalMigrations(folder)
+                .filter(migration -> migration.getFileName().endsWith(".sql"))
+                .sorted(comparing(SqlMigration::getFileName))
+                .collect(toList());
+        final Set<String> appliedMigrations = getAppliedMigrations();
+        optionalMigrations.stream()
+                .filter(migration -> !appliedMigrations.contains(migration.getFileName()))
+                .forEach(this::runMigration);
+        return !optionalMigrations.isEmpty();
+    }
+
     public void validateTables() {
+        // a single query that fails if one of the tables does not exist, without reading any of their rows
+        final String query = stream(JOBRUNR_TABLES)
+                .map(table -> "select 1 from " + tablePrefixStatementUpdater.getFQTableName(table) + " where 1 = 0")
+                .collect(joining(" union all "));
         try (final Connection conn = getConnection();
              final Transaction tran = new Transaction(conn, false);
-             final Statement pSt = conn.createStatement()) {
-            for (String table : JOBRUNR_TABLES) {
-                try (ResultSet rs = pSt.executeQuery("select count(*) from " + tablePrefixStatementUpdater.getFQTableName(table))) {
-                    if (rs.next()) {
-                        int count = rs.getInt(1);
-                    }
-                }
-            }
+             final Statement pSt = conn.createStatement();
+             final ResultSet rs = pSt.executeQuery(query)) {
             tran.commit();
         } catch (Exception becauseTableDoesNotExist) {
             throw new JobRunrException("Not all required tables are available by JobRunr!");
@@ -103,8 +131,13 @@ public class DatabaseCreator {
         return databaseMigrationsProvider.getMigrations();
     }
 
+    protected Stream<JavaMigration> getJavaMigrations() {
+        return JAVA_MIGRATIONS.stream();
+    }
+
     protected void runMigration(SqlMigration migration) {
         LOGGER.info("Running migration {}", migration);
+        runJavaMigrations(migration);
         try (final Connection conn = getConnection(); final Transaction tran = new Transaction(conn, false)) {
             if (!isEmptyMigration(migration)) {
                 runMigrationStatement(conn, migration);
@@ -116,6 +149,29 @@ public class DatabaseCreator {
         }
     }
 
+    private void runJavaMigrations(SqlMigration migration) {
+        final JavaMigration.Context context = new JavaMigration.Context() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return connectionProvider.getConnection();
+            }
+
+            @Override
+            public String getFQTableName(String tableName) {
+                return tablePrefixStatementUpdater.getFQTableName(tableName);
+            }
+        };
+        getJavaMigrations()
+                .filter(javaMigration -> javaMigration.getSqlMigrationFileName().equals(migration.getFileName()))
+                .forEach(javaMigration -> {
+                    try {
+                        javaMigration.migrate(context);
+                    } catch (SQLException e) {
+                        throw JobRunrException.shouldNotHappenException(new IllegalStateException("Error running java migration of " + migration.getFileName(), e));
+                    }
+                });
+    }
+
     private boolean isEmptyMigration(SqlMigration migration) throws IOException {
         return migration.getMigrationSql().startsWith("-- Empty migration");
     }
@@ -123,13 +179,38 @@ public class DatabaseCreator {
 
     protected void runMigrationStatement(Connection connection, SqlMigration migration) throws IOException, SQLException {
         final String sql = migration.getMigrationSql();
-        for (String statement : sql.split(";")) {
+        for (String statement : splitStatements(sql)) {
             try (final Statement stmt = connection.createStatement()) {
                 stmt.execute(tablePrefixStatementUpdater.updateStatement(statement).trim());
             }
         }
     }
 
+    /**
+     * Splits a migration in its statements on ';', except within a dollar-quoted string like the body of a Postgres function.
+     */
+    static List<String> splitStatements(String sql) {
+        final List<String> statements = new ArrayList<>();
+        final String[] dollarQuotedParts = sql.split("\\$\\$", -1);
+        StringBuilder statement = new StringBuilder();
+        for (int i = 0; i < dollarQuotedParts.length; i++) {
+            if (i % 2 == 1) {
+                statement.append("$$").append(dollarQuotedParts[i]).append("$$");
+                continue;
+            }
+            final String[] parts = dollarQuotedParts[i].split(";", -1);
+            statement.append(parts[0]);
+            for (int j = 1; j < parts.length; j++) {
+                statements.add(statement.toString());
+                statement = new StringBuilder(parts[j]);
+            }
+        }
+        statements.add(statement.toString());
+        return statements.stream()
+                .filter(s -> !s.trim().isEmpty())
+                .collect(toList());
+    }
+
     protected void updateMigrationsTable(Connection connection, SqlMigration migration) throws SQLException {
         try (PreparedStatement pSt = connection.prepareStatement("insert into " + tablePrefixStatementUpdater.getFQTableName("jobrunr_migrations") + " values (?, ?, ?)")) {
             pSt.setString(1, UUID.randomUUID().toString());
@@ -139,8 +220,24 @@ public class DatabaseCreator {
         }
     }
 
-    private boolean isNewMigration(SqlMigration migration) {
-        return !isMigrationApplied(migration);
+    /**
+     * Returns the file names of all migrations that were already applied using a single query, so that a database that is up-to-date
+     * only costs one roundtrip on startup.
+     */
+    protected Set<String> getAppliedMigrations() {
+        try (final Connection conn = getConnection();
+             final Transaction tran = new Transaction(conn, false);
+             final Statement pSt = conn.createStatement();
+             final ResultSet rs = pSt.executeQuery("select script from " + tablePrefixStatementUpdater.getFQTableName("jobrunr_migrations"))) {
+            final Set<String> appliedMigrations = new HashSet<>();
+            while (rs.next()) {
+                appliedMigrations.add(rs.getString(1));
+            }
+            tran.commit();
+            return appliedMigrations;
+        } catch (Exception becauseTableDoesNotExist) {
+            return new HashSet<>();
+        }
     }
 
     protected boolean isMigrationApplied(SqlMigration migration) {
@@ -248,8 +345,8 @@ public class DatabaseCreator {
 
         @Override
         public String updateStatement(String statement) {
-            if (isCreateIndex(statement)) {
-                return updateStatementWithTablePrefixForCreateIndexStatement(statement);
+            if (isCreateIndex(statement) || isDropIndexOnTable(statement)) {
+                return updateStatementWithTablePrefixForIndexStatement(statement);
             }
             return updateStatementWithTablePrefixForOtherStatements(statement);
         }
@@ -263,9 +360,13 @@ public class DatabaseCreator {
             return statement.contains("CREATE INDEX ");
         }
 
-        private String updateStatementWithTablePrefixForCreateIndexStatement(String statement) {
+        private boolean isDropIndexOnTable(String statement) {
+            return statement.contains("DROP INDEX ") && statement.contains(" ON ");
+        }
+
+        private String updateStatementWithTablePrefixForIndexStatement(String statement) {
             return statement
-                    .replace("CREATE INDEX jobrunr_", "CREATE INDEX " + elementPrefixer(indexPrefix, DEFAULT_PREFIX))
+                    .replace("INDEX jobrunr_", "INDEX " + elementPrefixer(indexPrefix, DEFAULT_PREFIX))
                     .replace("ON jobrunr_", "ON " + elementPrefixer(tablePrefix, DEFAULT_PREFIX));
         }
 
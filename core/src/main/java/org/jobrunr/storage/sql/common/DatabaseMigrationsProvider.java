@@ -2,6 +2,7 @@ package org.jobrunr.storage.sql.common;
 
 import org.jobrunr.storage.sql.SqlStorageProvider;
 import org.jobrunr.storage.sql.common.migrations.DefaultSqlMigrationProvider;
+import org.jobrunr.storage.sql.common.migrations.IndexedSqlMigrationProvider;
 import org.jobrunr.storage.sql.common.migrations.RunningOnJava11OrLowerWithinFatJarSqlMigrationProvider;
 import org.jobrunr.storage.sql.common.migrations.SqlMigration;
 import org.jobrunr.storage.sql.common.migrations.SqlMigrationProvider;
@@ -35,7 +36,18 @@ class DatabaseMigrationsProvider {
         return actualMigrations.values().stream();
     }
 
+    public Stream<SqlMigration> getOptionalMigrations(String folder) {
+        if (sqlStorageProviderClass != null) {
+            return getMigrationProvider().getMigrations(sqlStorageProviderClass, folder);
+        }
+        return Stream.empty();
+    }
+
     private SqlMigrationProvider getMigrationProvider() {
+        return new IndexedSqlMigrationProvider(getClasspathScanningMigrationProvider());
+    }
+
+    private SqlMigrationProvider getClasspathScanningMigrationProvider() {
         if (RuntimeUtils.getJvmVersion() < 12 && RuntimeUtils.isRunningFromNestedJar()) {
             return new RunningOnJava11OrLowerWithinFatJarSqlMigrationProvider();
         } else {
@@ -2,13 +2,16 @@ package org.jobrunr.storage.sql.common;
 
 import org.jobrunr.jobs.Job;
 import org.jobrunr.jobs.JobDetails;
+import org.jobrunr.jobs.JobVersionsSnapshot;
 import org.jobrunr.jobs.RecurringJob;
 import org.jobrunr.jobs.mappers.JobMapper;
 import org.jobrunr.jobs.states.StateName;
 import org.jobrunr.storage.*;
 import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
+import org.jobrunr.storage.StorageProviderUtils.Metadata;
 import org.jobrunr.storage.sql.SqlStorageProvider;
 import org.jobrunr.storage.sql.common.db.Transaction;
+import org.jobrunr.storage.sql.common.db.UnitOfWorkConnection;
 import org.jobrunr.storage.sql.common.db.dialect.Dialect;
 import org.jobrunr.utils.resilience.RateLimiter;
 
@@ -21,19 +24,28 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static java.util.Collections.singletonList;
 import static org.jobrunr.storage.StorageProviderUtils.DatabaseOptions.CREATE;
 import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
 import static org.jobrunr.utils.resilience.RateLimiter.SECOND;
 
 public class DefaultSqlStorageProvider extends AbstractStorageProvider implements SqlStorageProvider {
 
+    private static final int ARCHIVE_BATCH_SIZE = 1000;
+
     protected final DataSource dataSource;
     protected final Dialect dialect;
     protected final String tablePrefix;
     private final DatabaseOptions databaseOptions;
+    private DataSource readOnlyDataSource;
     private JobMapper jobMapper;
+    private boolean nativeJsonColumns;
+    private boolean archiveTable;
+    private final ThreadLocal<UnitOfWork> unitOfWork = new ThreadLocal<>();
 
     public DefaultSqlStorageProvider(DataSource dataSource, Dialect dialect, DatabaseOptions databaseOptions) {
         this(dataSource, dialect, databaseOptions, rateLimit().at1Request().per(SECOND));
@@ -50,6 +62,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
     DefaultSqlStorageProvider(DataSource dataSource, Dialect dialect, String tablePrefix, DatabaseOptions databaseOptions, RateLimiter changeListenerNotificationRateLimit) {
         super(changeListenerNotificationRateLimit);
         this.dataSource = dataSource;
+        this.readOnlyDataSource = dataSource;
         this.dialect = dialect;
         this.tablePrefix = tablePrefix;
         this.databaseOptions = databaseOptions;
@@ -70,6 +83,40 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
         return new DatabaseCreator(dataSource, tablePrefix, getClass());
     }
 
+    /**
+     * Uses the given {@link DataSource} (e.g. of a read replica) for the queries of the dashboard and the job statistics, so that they do not
+     * compete with the BackgroundJobServers on the primary database. The results of these queries may lag behind by the replication delay.
+     *
+     * @param readOnlyDataSource the DataSource to use for the dashboard and statistics queries
+     */
+    public void setReadOnlyDataSource(DataSource readOnlyDataSource) {
+        this.readOnlyDataSource = readOnlyDataSource;
+    }
+
+    /**
+     * Changes the jobAsJson column of the jobs table to the native JSON type of the database (jsonb on Postgres, JSON on MySQL and MariaDB and
+     * JSON on Oracle 21 or higher) so that the database can index and query the job documents. On Postgres, a GIN index is also created on
+     * the metadata of the jobs. Changing the column type rewrites the whole jobs table, so this is best done during a maintenance window.
+     * <p>
+     * Once migrated, this method must be called on every startup so that the jobs are saved using the native JSON type.
+     *
+     * @throws UnsupportedOperationException if the database does not support native JSON columns
+     */
+    public void useNativeJsonColumns() {
+        if (!getDatabaseCreator().runOptionalMigrations("nativejson")) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support native JSON columns.");
+        }
+        this.nativeJsonColumns = true;
+    }
+
+    /**
+     * Moves the SUCCEEDED and DELETED jobs to a separate archive table (see {@link #archiveJobs()}) so that the jobs table and its indexes
+     * only contain the active jobs the BackgroundJobServers poll for. Archived jobs can still be read, requeued and deleted as before.
+     */
+    public void useArchiveTable() {
+        this.archiveTable = true;
+    }
+
     @Override
     public JobMapper getJobMapper() {
         return jobMapper;
@@ -82,7 +129,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public void announceBackgroundJobServer(BackgroundJobServerStatus serverStatus) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             backgroundJobServerTable(conn).announce(serverStatus);
             transaction.commit();
         } catch (SQLException e) {
@@ -92,7 +139,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public boolean signalBackgroundJobServerAlive(BackgroundJobServerStatus serverStatus) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             final boolean isServerAlive = backgroundJobServerTable(conn).signalServerAlive(serverStatus);
             transaction.commit();
             return isServerAlive;
@@ -103,7 +150,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public void signalBackgroundJobServerStopped(BackgroundJobServerStatus serverStatus) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             backgroundJobServerTable(conn).signalServerStopped(serverStatus);
             transaction.commit();
         } catch (SQLException e) {
@@ -114,7 +161,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<BackgroundJobServerStatus> getBackgroundJobServers() {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getReadOnlyConnection()) {
             return backgroundJobServerTable(conn).getAll();
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -123,7 +170,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public UUID getLongestRunningBackgroundJobServerId() {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return backgroundJobServerTable(conn).getLongestRunningBackgroundJobServerId();
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -132,7 +179,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public int removeTimedOutBackgroundJobServers(Instant heartbeatOlderThan) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             final int deletedBackgroundJobServers = backgroundJobServerTable(conn).removeAllWithLastHeartbeatOlderThan(heartbeatOlderThan);
             transaction.commit();
             return deletedBackgroundJobServers;
@@ -143,7 +190,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public void saveMetadata(JobRunrMetadata metadata) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             metadataTable(conn).save(metadata);
             transaction.commit();
             notifyMetadataChangeListeners();
@@ -154,7 +201,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<JobRunrMetadata> getMetadata(String name) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return metadataTable(conn).getAll(name);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -163,7 +210,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public JobRunrMetadata getMetadata(String name, String owner) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return metadataTable(conn).get(name, owner);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -172,10 +219,15 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public void deleteMetadata(String name) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        final int amountDeleted = deleteMetadataByName(name);
+        notifyMetadataChangeListeners(amountDeleted > 0);
+    }
+
+    int deleteMetadataByName(String name) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             final int amountDeleted = metadataTable(conn).deleteByName(name);
             transaction.commit();
-            notifyMetadataChangeListeners(amountDeleted > 0);
+            return amountDeleted;
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -183,31 +235,42 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public Job save(Job jobToSave) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        final JobVersionsSnapshot jobVersionsSnapshot = jobVersionsSnapshot(singletonList(jobToSave));
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
             final Job savedJob = jobTable(conn).save(jobToSave);
             transaction.commit();
             notifyJobStatsOnChangeListeners();
             return savedJob;
         } catch (SQLException e) {
+            jobVersionsSnapshot.restore();
             throw new StorageException(e);
         }
     }
 
     @Override
     public List<Job> save(List<Job> jobs) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
-            final List<Job> savedJobs = jobTable(conn).save(jobs);
-            transaction.commit();
-            notifyJobStatsOnChangeListenersIf(!jobs.isEmpty());
-            return savedJobs;
+        final JobVersionsSnapshot jobVersionsSnapshot = jobVersionsSnapshot(jobs);
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
+            try {
+                final List<Job> savedJobs = jobTable(conn).save(jobs);
+                transaction.commit();
+                notifyJobStatsOnChangeListenersIf(!jobs.isEmpty());
+                return savedJobs;
+            } catch (ConcurrentJobModificationException e) {
+                // the jobs that were not modified concurrently are saved and their new versions are already committed
+                transaction.commit();
+                notifyJobStatsOnChangeListeners();
+                throw e;
+            }
         } catch (SQLException e) {
+            jobVersionsSnapshot.restore();
             throw new StorageException(e);
         }
     }
 
     @Override
     public Job getJobById(UUID id) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn)
                     .selectJobById(id)
                     .orElseThrow(() -> new JobNotFoundException(id));
@@ -218,7 +281,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<Job> getScheduledJobs(Instant scheduledBefore, PageRequest pageRequest) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn).selectJobsScheduledBefore(scheduledBefore, pageRequest);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -227,7 +290,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<Job> getJobs(StateName state, PageRequest pageRequest) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn).selectJobsByState(state, pageRequest);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -237,7 +300,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<Job> getJobs(StateName state, Instant updatedBefore, PageRequest pageRequest) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn).selectJobsByState(state, updatedBefore, pageRequest);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -246,7 +309,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public Page<Job> getJobPage(StateName state, PageRequest pageRequest) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getReadOnlyConnection()) {
             long count = jobTable(conn).countJobs(state);
             if (count > 0 && pageRequest.getLimit() > 0) {
                 List<Job> jobs = jobTable(conn).selectJobsByState(state, pageRequest);
@@ -260,7 +323,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public int deletePermanently(UUID id) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
             Optional<Job> jobToDelete = jobTable(conn).selectJobById(id);
             final int amountDeleted = jobTable(conn).deletePermanently(id);
             jobToDelete.ifPresent(job -> disposeJobResources(job.getMetadata()));
@@ -274,7 +337,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public int deleteJobsPermanently(StateName state, Instant updatedBefore) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
             List<Job> jobsToDelete = jobTable(conn).getJobsByStateAndUpdatedBefore(state, updatedBefore);
             if (jobsToDelete.size() > 0) {
                 UUID[] jobIdsToDelete = jobsToDelete.stream().map(j -> j.getId()).collect(Collectors.toList()).toArray(new UUID[0]);
@@ -292,7 +355,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public Set<String> getDistinctJobSignatures(StateName... states) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn).getDistinctJobSignatures(states);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -301,7 +364,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public boolean exists(JobDetails jobDetails, StateName... states) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn).exists(jobDetails, states);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -310,7 +373,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public boolean recurringJobExists(String recurringJobId, StateName... states) {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return jobTable(conn).recurringJobExists(recurringJobId, states);
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -319,7 +382,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public RecurringJob saveRecurringJob(RecurringJob recurringJob) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             final RecurringJob savedRecurringJob = recurringJobTable(conn).save(recurringJob);
             transaction.commit();
             return savedRecurringJob;
@@ -331,7 +394,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public List<RecurringJob> getRecurringJobs() {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getConnection()) {
             return recurringJobTable(conn).selectAll();
         } catch (SQLException e) {
             throw new StorageException(e);
@@ -340,7 +403,7 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public int deleteRecurringJob(String id) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
             final int deletedRecurringJobCount = recurringJobTable(conn).deleteById(id);
             transaction.commit();
             return deletedRecurringJobCount;
@@ -351,26 +414,136 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
 
     @Override
     public JobStats getJobStats() {
-        try (final Connection conn = dataSource.getConnection()) {
+        try (final Connection conn = getReadOnlyConnection()) {
             return jobStatsView(conn).getJobStats();
         } catch (SQLException e) {
             throw new StorageException(e);
         }
     }
 
+    @Override
+    public void reconcileJobStats() {
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
+            jobCountersTable(conn).reconcile();
+            transaction.commit();
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    @Override
+    public int archiveJobs() {
+        if (!archiveTable) return 0;
+
+        int amountArchived = 0;
+        int amountArchivedInBatch;
+        do {
+            try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
+                final List<UUID> jobIds = jobTable(conn).selectJobIdsToArchive(ARCHIVE_BATCH_SIZE);
+                amountArchivedInBatch = jobIds.isEmpty() ? 0 : jobTable(conn).archive(jobIds);
+                transaction.commit();
+            } catch (SQLException e) {
+                throw new StorageException(e);
+            }
+            amountArchived += amountArchivedInBatch;
+        } while (amountArchivedInBatch == ARCHIVE_BATCH_SIZE);
+        return amountArchived;
+    }
+
+    /**
+     * Runs the unit of work against this StorageProvider: until the unit of work returns, all calls made from the current thread share its
+     * connection. The StorageProvider passed to the unit of work must therefore not be handed over to other threads.
+     */
+    @Override
+    public <T> T inTransaction(Function<StorageProvider, T> unitOfWork) {
+        if (isInUnitOfWork()) return unitOfWork.apply(this);
+
+        final JobVersionsSnapshot jobVersionsSnapshot = new JobVersionsSnapshot();
+        boolean committed = false;
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
+            final T result = inUnitOfWork(conn, jobVersionsSnapshot, () -> unitOfWork.apply(this));
+            transaction.commit();
+            committed = true;
+            notifyJobStatsOnChangeListeners();
+            return result;
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        } finally {
+            if (!committed) {
+                jobVersionsSnapshot.restore();
+            }
+        }
+    }
+
+    @Override
+    public <T> T inTransaction(Connection connection, Function<StorageProvider, T> unitOfWork) {
+        // the caller commits the connection, so the change listeners only see the changes the next time they are notified
+        return inUnitOfWork(connection, new JobVersionsSnapshot(), () -> unitOfWork.apply(this));
+    }
+
+    /**
+     * Runs the given unit of work with all calls of the current thread on the given connection, which is neither committed, rolled back nor
+     * closed by these calls. The versions of the jobs that are saved are remembered in the given snapshot so that they can be restored if the
+     * connection is rolled back. The change listeners are only notified once the unit of work is committed.
+     */
+    <T> T inUnitOfWork(Connection connection, JobVersionsSnapshot jobVersionsSnapshot, Supplier<T> unitOfWork) {
+        this.unitOfWork.set(new UnitOfWork(UnitOfWorkConnection.wrap(connection), jobVersionsSnapshot));
+        try {
+            return unitOfWork.get();
+        } finally {
+            this.unitOfWork.remove();
+        }
+    }
+
+    boolean isInUnitOfWork() {
+        return unitOfWork.get() != null;
+    }
+
+    @Override
+    protected void notifyJobStatsOnChangeListeners() {
+        if (isInUnitOfWork()) return;
+        super.notifyJobStatsOnChangeListeners();
+    }
+
+    @Override
+    protected void notifyMetadataChangeListeners() {
+        if (isInUnitOfWork()) return;
+        super.notifyMetadataChangeListeners();
+    }
+
     @Override
     public void publishTotalAmountOfSucceededJobs(int amount) {
-        try (final Connection conn = dataSource.getConnection(); final Transaction transaction = new Transaction(conn)) {
-            metadataTable(conn).incrementCounter("succeeded-jobs-counter-cluster", amount);
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
+            countersTable(conn).increment(Metadata.STATS_ID, amount);
             transaction.commit();
         } catch (SQLException e) {
             throw new StorageException(e);
         }
     }
 
+    protected Connection getConnection() throws SQLException {
+        final UnitOfWork currentUnitOfWork = unitOfWork.get();
+        if (currentUnitOfWork != null) return currentUnitOfWork.connection;
+        return dataSource.getConnection();
+    }
+
+    protected Connection getReadOnlyConnection() throws SQLException {
+        final UnitOfWork currentUnitOfWork = unitOfWork.get();
+        if (currentUnitOfWork != null) return currentUnitOfWork.connection;
+        return readOnlyDataSource.getConnection();
+    }
+
+    private JobVersionsSnapshot jobVersionsSnapshot(List<Job> jobs) {
+        final JobVersionsSnapshot jobVersionsSnapshot = new JobVersionsSnapshot(jobs);
+        final UnitOfWork currentUnitOfWork = unitOfWork.get();
+        if (currentUnitOfWork != null) {
+            currentUnitOfWork.jobVersionsSnapshot.add(jobVersionsSnapshot);
+        }
+        return jobVersionsSnapshot;
+    }
 
     protected JobTable jobTable(Connection connection) {
-        return new JobTable(connection, dialect, tablePrefix, jobMapper);
+        return new JobTable(connection, dialect, tablePrefix, jobMapper, nativeJsonColumns, archiveTable);
     }
 
     protected RecurringJobTable recurringJobTable(Connection connection) {
@@ -385,8 +558,26 @@ public class DefaultSqlStorageProvider extends AbstractStorageProvider implement
         return new MetadataTable(connection, dialect, tablePrefix);
     }
 
+    protected JobCountersTable jobCountersTable(Connection connection) {
+        return new JobCountersTable(connection, dialect, tablePrefix, archiveTable);
+    }
+
+    protected StripedCountersTable countersTable(Connection connection) {
+        return new StripedCountersTable(connection, dialect, tablePrefix, "jobrunr_counters", "name");
+    }
+
     protected JobStatsView jobStatsView(Connection connection) {
         return new JobStatsView(connection, dialect, tablePrefix);
     }
 
+    private static class UnitOfWork {
+
+        private final Connection connection;
+        private final JobVersionsSnapshot jobVersionsSnapshot;
+
+        private UnitOfWork(Connection connection, JobVersionsSnapshot jobVersionsSnapshot) {
+            this.connection = connection;
+            this.jobVersionsSnapshot = jobVersionsSnapshot;
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package org.jobrunr.storage.sql.common;
+
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.states.StateName;
+import org.jobrunr.storage.sql.common.db.Sql;
+import org.jobrunr.storage.sql.common.db.dialect.Dialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_STATE;
+import static org.jobrunr.storage.StorageProviderUtils.elementPrefixer;
+
+/**
+ * Keeps the amount of jobs per state up-to-date so that the {@link org.jobrunr.storage.JobStats} can be read without counting all jobs.
+ * <p>
+ * Each state is a {@link StripedCountersTable striped counter}. The rows are always updated in the order of the {@link StateName} to avoid deadlocks.
+ * The counters are only exact if they are updated in the same transaction as the jobs, so the connection must not be in auto-commit mode
+ * (see {@link org.jobrunr.storage.sql.common.db.Transaction#Transaction(Connection, Boolean)}).
+ */
+public class JobCountersTable extends Sql<Job> {
+
+    private final String jobsTableName;
+    private final String jobsArchiveTableName;
+    private final boolean archiveTable;
+    private final StripedCountersTable stripedCounters;
+
+    public JobCountersTable(Connection connection, Dialect dialect, String tablePrefix) {
+        this(connection, dialect, tablePrefix, false);
+    }
+
+    public JobCountersTable(Connection connection, Dialect dialect, String tablePrefix, boolean archiveTable) {
+        this.jobsTableName = elementPrefixer(tablePrefix, "jobrunr_jobs");
+        this.jobsArchiveTableName = elementPrefixer(tablePrefix, "jobrunr_jobs_archive");
+        this.archiveTable = archiveTable;
+        this.stripedCounters = new StripedCountersTable(connection, dialect, tablePrefix, "jobrunr_job_counters", FIELD_STATE);
+        this
+                .using(connection, dialect, tablePrefix, "jobrunr_job_counters");
+    }
+
+    public void jobsInserted(List<Job> jobs) throws SQLException {
+        final Map<StateName, Long> amountsByState = new EnumMap<>(StateName.class);
+        jobs.forEach(job -> amountsByState.merge(job.getState(), 1L, Long::sum));
+        increment(amountsByState);
+    }
+
+    public void jobsUpdated(List<Job> jobs) throws SQLException {
+        final Map<StateName, Long> amountsByState = new EnumMap<>(StateName.class);
+        for (Job job : jobs) {
+            if (job.getLastSavedState() != job.getState()) {
+                amountsByState.merge(job.getLastSavedState(), -1L, Long::sum);
+                amountsByState.merge(job.getState(), 1L, Long::sum);
+            }
+        }
+        increment(amountsByState);
+    }
+
+    public Map<StateName, Long> countJobsByState(String jobIds) {
+        final Map<StateName, Long> amountsByState = new EnumMap<>(StateName.class);
+        final String jobsTables = archiveTable
+                ? "(select state from " + jobsTableName + " where id in (" + jobIds + ") union all select state from " + jobsArchiveTableName + " where id in (" + jobIds + ")) j"
+                : jobsTableName + " where id in (" + jobIds + ")";
+        select("state, count(*) as amount from " + jobsTables + " group by state")
+                .forEach(resultSet -> amountsByState.put(StateName.valueOf(resultSet.asString(FIELD_STATE).trim()), resultSet.asLong("amount")));
+        return amountsByState;
+    }
+
+    public void jobsDeleted(Map<StateName, Long> amountsByState) throws SQLException {
+        final Map<StateName, Long> negatedAmountsByState = new EnumMap<>(StateName.class);
+        amountsByState.forEach((state, amount) -> negatedAmountsByState.put(state, -amount));
+        increment(negatedAmountsByState);
+    }
+
+    public void jobsDeleted(StateName state, int amount) throws SQLException {
+        final Map<StateName, Long> amountsByState = new EnumMap<>(StateName.class);
+        amountsByState.put(state, (long) -amount);
+        increment(amountsByState);
+    }
+
+    /**
+     * Adds the difference between the actual amount of jobs and the counters to the first stripe of each state. This is done in one statement
+     * so that the difference is taken from one consistent read: as each job write updates the counters in its own transaction, the jobs and
+     * counters that change while reconciling change by the same amount and the difference stays correct.
+     */
+    public void reconcile() throws SQLException {
+        // the counters are summed in a grouped derived table as MySQL and MariaDB do not allow to select from the table that is updated
+        updateAny("jobrunr_job_counters set amount = amount"
+                + " + (select count(*) from " + jobsTableName + " j where j.state = jobrunr_job_counters.state)"
+                + (archiveTable ? " + (select count(*) from " + jobsArchiveTableName + " a where a.state = jobrunr_job_counters.state)" : "")
+                + " - (select c.amount from (select state, sum(amount) as amount from jobrunr_job_counters group by state) c where c.state = jobrunr_job_counters.state)"
+                + " where stripe = 0");
+    }
+
+    private void increment(Map<StateName, Long> amountsByState) throws SQLException {
+        final Map<String, Long> amountsByCounter = new LinkedHashMap<>();
+        amountsByState.forEach((state, amount) -> amountsByCounter.put(state.name(), amount));
+        stripedCounters.increment(amountsByCounter);
+    }
+}
@@ -10,12 +10,12 @@ import org.jobrunr.storage.sql.common.db.ConcurrentSqlModificationException;
 import org.jobrunr.storage.sql.common.db.Sql;
 import org.jobrunr.storage.sql.common.db.SqlResultSet;
 import org.jobrunr.storage.sql.common.db.dialect.Dialect;
-import org.jobrunr.utils.JobUtils;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -23,24 +23,53 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.stream;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static org.jobrunr.storage.StorageProviderUtils.Jobs.*;
 import static org.jobrunr.utils.JobUtils.getJobSignature;
+import static org.jobrunr.utils.JobUtils.getJobSignatureHash;
 import static org.jobrunr.utils.reflection.ReflectionUtils.cast;
 
+/**
+ * Reads and writes the jobs. If the archive table is used (see {@link DefaultSqlStorageProvider#useArchiveTable()}), SUCCEEDED and DELETED jobs
+ * may have been moved to it, so all queries for these states and all lookups by id span both tables.
+ */
 public class JobTable extends Sql<Job> {
 
+    private static final String ARCHIVABLE_STATES = "'" + StateName.SUCCEEDED.name() + "', '" + StateName.DELETED.name() + "'";
+    private static final String COLUMNS = "id, version, jobAsJson, jobSignature, state, createdAt, updatedAt, scheduledAt, recurringJobId, jobSignatureHash";
+    private static final String PAGED_COLUMNS = "id, jobAsJson, createdAt, updatedAt";
+
     private final JobMapper jobMapper;
+    private final JobCountersTable jobCountersTable;
+    private final String jobAsJsonParameter;
+    private final boolean archiveTable;
     private static final SqlPageRequestMapper pageRequestMapper = new SqlPageRequestMapper();
 
     public JobTable(Connection connection, Dialect dialect, String tablePrefix, JobMapper jobMapper) {
+        this(connection, dialect, tablePrefix, jobMapper, false);
+    }
+
+    public JobTable(Connection connection, Dialect dialect, String tablePrefix, JobMapper jobMapper, boolean nativeJsonColumn) {
+        this(connection, dialect, tablePrefix, jobMapper, nativeJsonColumn, false);
+    }
+
+    public JobTable(Connection connection, Dialect dialect, String tablePrefix, JobMapper jobMapper, boolean nativeJsonColumn, boolean archiveTable) {
         this.jobMapper = jobMapper;
+        this.jobAsJsonParameter = nativeJsonColumn ? dialect.nativeJson(":jobAsJson") : ":jobAsJson";
+        this.archiveTable = archiveTable;
+        this.jobCountersTable = new JobCountersTable(connection, dialect, tablePrefix, archiveTable);
         this
                 .using(connection, dialect, tablePrefix, "jobrunr_jobs")
+                .with(FIELD_ID, Job::getId)
                 .withVersion(AbstractJob::getVersion)
                 .with(FIELD_JOB_AS_JSON, jobMapper::serializeJob)
-                .with(FIELD_JOB_SIGNATURE, JobUtils::getJobSignature)
+                .with(FIELD_JOB_SIGNATURE, AbstractJob::getJobSignature)
+                .with(FIELD_JOB_SIGNATURE_HASH, AbstractJob::getJobSignatureHash)
+                .with(FIELD_STATE, Job::getState)
+                .with(FIELD_CREATED_AT, Job::getCreatedAt)
+                .with(FIELD_UPDATED_AT, Job::getUpdatedAt)
                 .with(FIELD_SCHEDULED_AT, job -> job.hasState(StateName.SCHEDULED) ? job.<ScheduledState>getJobState().getScheduledAt() : null)
                 .with(FIELD_RECURRING_JOB_ID, Job::getRecurringJobId);
     }
@@ -69,8 +98,10 @@ public class JobTable extends Sql<Job> {
         try(JobVersioner jobVersioner = new JobVersioner(jobToSave)) {
             if (jobVersioner.isNewJob()) {
                 insertOneJob(jobToSave);
+                jobCountersTable.jobsInserted(singletonList(jobToSave));
             } else {
                 updateOneJob(jobToSave);
+                jobCountersTable.jobsUpdated(singletonList(jobToSave));
             }
             jobVersioner.commitVersion();
         } catch (ConcurrentSqlModificationException e) {
@@ -89,10 +120,12 @@ public class JobTable extends Sql<Job> {
                 } else {
                     updateAllJobs(jobs);
                 }
+                updateJobCounters(jobListVersioner.areNewJobs(), jobs);
                 jobListVersioner.commitVersions();
                 return jobs;
             } catch (ConcurrentSqlModificationException e) {
                 List<Job> concurrentUpdatedJobs = cast(e.getFailedItems());
+                updateJobCounters(jobListVersioner.areNewJobs(), jobs.stream().filter(job -> !concurrentUpdatedJobs.contains(job)).collect(toList()));
                 jobListVersioner.rollbackVersions(concurrentUpdatedJobs);
                 throw new ConcurrentJobModificationException(concurrentUpdatedJobs);
             }
@@ -100,70 +133,143 @@ public class JobTable extends Sql<Job> {
     }
 
     public Optional<Job> selectJobById(UUID id) {
-        return withId(id)
+        final Optional<Job> job = withId(id)
                 .selectJobs("jobAsJson from jobrunr_jobs where id = :id")
                 .findFirst();
+        if (job.isPresent() || !archiveTable) return job;
+
+        return selectJobs("jobAsJson from jobrunr_jobs_archive where id = :id")
+                .findFirst();
     }
 
     public long countJobs(StateName state) throws SQLException {
-        return withState(state)
+        final long count = withState(state)
                 .selectCount("from jobrunr_jobs where state = :state");
+        if (!isArchived(state)) return count;
+
+        return count + selectCount("from jobrunr_jobs_archive where state = :state");
     }
 
     public List<Job> selectJobsByState(StateName state, PageRequest pageRequest) {
         return withState(state)
-                .withOrderLimitAndOffset(pageRequestMapper.map(pageRequest), pageRequest.getLimit(), pageRequest.getOffset())
-                .selectJobs("jobAsJson from jobrunr_jobs where state = :state")
+                .withPageRequest(pageRequest)
+                .selectJobs(jobsWhere("state = :state" + keysetCondition(pageRequest), state))
                 .collect(toList());
     }
 
     public List<Job> selectJobsByState(StateName state, Instant updatedBefore, PageRequest pageRequest) {
         return withState(state)
                 .withUpdatedBefore(updatedBefore)
-                .withOrderLimitAndOffset(pageRequestMapper.map(pageRequest), pageRequest.getLimit(), pageRequest.getOffset())
-                .selectJobs("jobAsJson from jobrunr_jobs where state = :state AND updatedAt <= :updatedBefore")
+                .withPageRequest(pageRequest)
+                .selectJobs(jobsWhere("state = :state AND updatedAt <= :updatedBefore" + keysetCondition(pageRequest), state))
                 .collect(toList());
     }
 
     public List<Job> selectJobsScheduledBefore(Instant scheduledBefore, PageRequest pageRequest) {
         return withScheduledAt(scheduledBefore)
-                .withOrderLimitAndOffset(pageRequestMapper.map(pageRequest), pageRequest.getLimit(), pageRequest.getOffset())
-                .selectJobs("jobAsJson from jobrunr_jobs where state = 'SCHEDULED' and scheduledAt <= :scheduledAt")
+                .withPageRequest(pageRequest)
+                .selectJobs("jobAsJson from jobrunr_jobs where state = 'SCHEDULED' and scheduledAt <= :scheduledAt" + keysetCondition(pageRequest))
                 .collect(toList());
     }
 
     public Set<String> getDistinctJobSignatures(StateName[] states) {
-        return select("distinct jobSignature from jobrunr_jobs where state in (" + stream(states).map(stateName -> "'" + stateName.name() + "'").collect(joining(",")) + ")")
+        final String condition = "state in (" + stream(states).map(stateName -> "'" + stateName.name() + "'").collect(joining(",")) + ")";
+        final Set<String> jobSignatures = select("distinct jobSignature from jobrunr_jobs where " + condition)
                 .map(resultSet -> resultSet.asString(FIELD_JOB_SIGNATURE))
                 .collect(Collectors.toSet());
+        if (isArchived(states)) {
+            select("distinct jobSignature from jobrunr_jobs_archive where " + condition)
+                    .forEach(resultSet -> jobSignatures.add(resultSet.asString(FIELD_JOB_SIGNATURE)));
+        }
+        return jobSignatures;
     }
 
     public boolean exists(JobDetails jobDetails, StateName... states) throws SQLException {
-        return with(FIELD_JOB_SIGNATURE, getJobSignature(jobDetails))
-                .selectExists("from jobrunr_jobs where state in (" + stream(states).map(stateName -> "'" + stateName.name() + "'").collect(joining(",")) + ") AND jobSignature = :jobSignature");
+        final String jobSignature = getJobSignature(jobDetails);
+        // the hash is only used to find the candidates using the index, the jobSignature is still compared as hashes can collide
+        final String condition = "state in (" + stream(states).map(stateName -> "'" + stateName.name() + "'").collect(joining(",")) + ") AND jobSignatureHash = :jobSignatureHash AND jobSignature = :jobSignature";
+        with(FIELD_JOB_SIGNATURE, jobSignature)
+                .with(FIELD_JOB_SIGNATURE_HASH, getJobSignatureHash(jobSignature));
+        return selectExists("from jobrunr_jobs where " + condition)
+                || (isArchived(states) && selectExists("from jobrunr_jobs_archive where " + condition));
     }
 
     public boolean recurringJobExists(String recurringJobId, StateName... states) throws SQLException {
-        return with(FIELD_RECURRING_JOB_ID, recurringJobId)
-                .selectExists("from jobrunr_jobs where state in (" + stream(states).map(stateName -> "'" + stateName.name() + "'").collect(joining(",")) + ") AND recurringJobId = :recurringJobId");
+        final String condition = "state in (" + stream(states).map(stateName -> "'" + stateName.name() + "'").collect(joining(",")) + ") AND recurringJobId = :recurringJobId";
+        with(FIELD_RECURRING_JOB_ID, recurringJobId);
+        return selectExists("from jobrunr_jobs where " + condition)
+                || (isArchived(states) && selectExists("from jobrunr_jobs_archive where " + condition));
     }
 
     public int deletePermanently(UUID... ids) throws SQLException {
-        return delete("from jobrunr_jobs where id in (" + stream(ids).map(uuid -> "'" + uuid.toString() + "'").collect(joining(",")) + ")");
+        final String jobIds = stream(ids).map(uuid -> "'" + uuid.toString() + "'").collect(joining(","));
+        final Map<StateName, Long> amountsByState = jobCountersTable.countJobsByState(jobIds);
+        int amountDeleted = delete("from jobrunr_jobs where id in (" + jobIds + ")");
+        if (archiveTable) {
+            amountDeleted += delete("from jobrunr_jobs_archive where id in (" + jobIds + ")");
+        }
+        if (amountDeleted == amountsByState.values().stream().mapToLong(Long::longValue).sum()) {
+            // if not, some jobs were deleted concurrently and the job counters will be reconciled later on
+            jobCountersTable.jobsDeleted(amountsByState);
+        }
+        return amountDeleted;
     }
 
     public int deleteJobsByStateAndUpdatedBefore(StateName state, Instant updatedBefore) throws SQLException {
-        return withState(state)
+        int amountDeleted = withState(state)
                 .withUpdatedBefore(updatedBefore)
                 .delete("from jobrunr_jobs where state = :state AND updatedAt <= :updatedBefore");
+        if (isArchived(state)) {
+            amountDeleted += delete("from jobrunr_jobs_archive where state = :state AND updatedAt <= :updatedBefore");
+        }
+        jobCountersTable.jobsDeleted(state, amountDeleted);
+        return amountDeleted;
     }
 
     public List<Job> getJobsByStateAndUpdatedBefore(StateName state, Instant updatedBefore) {
         return withState(state)
                 .withUpdatedBefore(updatedBefore)
-                .selectJobs("jobAsJson from jobrunr_jobs where state = :state AND updatedAt <= :updatedBefore")
+                .selectJobs(jobsWhere("state = :state AND updatedAt <= :updatedBefore", state))
+                .collect(toList());
+    }
+
+    public List<UUID> selectJobIdsToArchive(int limit) {
+        return withOrderLimitAndOffset("updatedAt ASC", limit, 0)
+                .select("id from jobrunr_jobs where state in (" + ARCHIVABLE_STATES + ")")
+                .map(resultSet -> UUID.fromString(resultSet.asString(FIELD_ID)))
                 .collect(toList());
     }
+
+    /**
+     * Moves the given SUCCEEDED and DELETED jobs to the archive table. Jobs that changed in the meantime are left in the jobs table.
+     *
+     * @return the amount of jobs that were moved
+     */
+    public int archive(List<UUID> ids) throws SQLException {
+        final String jobIds = ids.stream().map(uuid -> "'" + uuid.toString() + "'").collect(joining(","));
+        insertAny("into jobrunr_jobs_archive (" + COLUMNS + ") select " + COLUMNS + " from jobrunr_jobs where id in (" + jobIds + ") and state in (" + ARCHIVABLE_STATES + ")");
+        final int amountArchived = delete("from jobrunr_jobs where id in (" + jobIds + ") and exists (select a.id from jobrunr_jobs_archive a where a.id = jobrunr_jobs.id and a.version = jobrunr_jobs.version)");
+        // a job that was updated after it was copied stays in the jobs table, so its stale copy is removed again
+        delete("from jobrunr_jobs_archive where id in (" + jobIds + ") and exists (select j.id from jobrunr_jobs j where j.id = jobrunr_jobs_archive.id)");
+        return amountArchived;
+    }
+
+    private JobTable withPageRequest(PageRequest pageRequest) {
+        if (pageRequest.hasCursor()) {
+            with("cursorUpdatedAt", pageRequest.getCursorUpdatedAt());
+            with("cursorId", pageRequest.getCursorId());
+            return withOrderLimitAndOffset(pageRequestMapper.mapKeyset(pageRequest), pageRequest.getLimit(), 0);
+        }
+        return withOrderLimitAndOffset(pageRequestMapper.map(pageRequest), pageRequest.getLimit(), pageRequest.getOffset());
+    }
+
+    private String keysetCondition(PageRequest pageRequest) {
+        if (!pageRequest.hasCursor()) return "";
+
+        final String comparison = pageRequest.getCursorOrder() == PageRequest.Order.DESC ? "<" : ">";
+        return " AND (updatedAt " + comparison + " :cursorUpdatedAt OR (updatedAt = :cursorUpdatedAt AND id " + comparison + " :cursorId))";
+    }
+
     @Override
     public JobTable withOrderLimitAndOffset(String order, int limit, long offset) {
         super.withOrderLimitAndOffset(order, limit, offset);
@@ -171,19 +277,80 @@ public class JobTable extends Sql<Job> {
     }
 
     void insertOneJob(Job jobToSave) throws SQLException {
-        insert(jobToSave, "into jobrunr_jobs values (:id, :version, :jobAsJson, :jobSignature, :state, :createdAt, :updatedAt, :scheduledAt, :recurringJobId)");
+        insert(jobToSave, "into jobrunr_jobs values (:id, :version, " + jobAsJsonParameter + ", :jobSignature, :state, :createdAt, :updatedAt, :scheduledAt, :recurringJobId, :jobSignatureHash)");
     }
 
     void updateOneJob(Job jobToSave) throws SQLException {
-        update(jobToSave, "jobrunr_jobs SET version = :version, jobAsJson = :jobAsJson, state = :state, updatedAt =:updatedAt, scheduledAt = :scheduledAt WHERE id = :id and version = :previousVersion");
+        try {
+            update(jobToSave, updateStatement("jobrunr_jobs"));
+        } catch (ConcurrentSqlModificationException e) {
+            if (!archiveTable) throw e;
+            // the job is either modified concurrently or was moved to the archive table
+            update(jobToSave, updateStatement("jobrunr_jobs_archive"));
+            unarchive(singletonList(jobToSave));
+        }
     }
 
     void insertAllJobs(List<Job> jobs) throws SQLException {
-        insertAll(jobs, "into jobrunr_jobs values (:id, :version, :jobAsJson, :jobSignature, :state, :createdAt, :updatedAt, :scheduledAt, :recurringJobId)");
+        insertAll(jobs, "into jobrunr_jobs values (:id, :version, " + jobAsJsonParameter + ", :jobSignature, :state, :createdAt, :updatedAt, :scheduledAt, :recurringJobId, :jobSignatureHash)");
     }
 
     void updateAllJobs(List<Job> jobs) throws SQLException {
-        updateAll(jobs, "jobrunr_jobs SET version = :version, jobAsJson = :jobAsJson, state = :state, updatedAt =:updatedAt, scheduledAt = :scheduledAt WHERE id = :id and version = :previousVersion");
+        try {
+            updateAll(jobs, updateStatement("jobrunr_jobs"));
+        } catch (ConcurrentSqlModificationException e) {
+            if (!archiveTable) throw e;
+            updateAllArchivedJobs(cast(e.getFailedItems()));
+        }
+    }
+
+    private void updateAllArchivedJobs(List<Job> jobs) throws SQLException {
+        try {
+            updateAll(jobs, updateStatement("jobrunr_jobs_archive"));
+            unarchive(jobs);
+        } catch (ConcurrentSqlModificationException e) {
+            final List<Job> concurrentUpdatedJobs = cast(e.getFailedItems());
+            unarchive(jobs.stream().filter(job -> !concurrentUpdatedJobs.contains(job)).collect(toList()));
+            throw e;
+        }
+    }
+
+    private String updateStatement(String table) {
+        return table + " SET version = :version, jobAsJson = " + jobAsJsonParameter + ", state = :state, updatedAt =:updatedAt, scheduledAt = :scheduledAt, jobSignatureHash = :jobSignatureHash WHERE id = :id and version = :previousVersion";
+    }
+
+    /**
+     * Moves the archived jobs that are no longer SUCCEEDED or DELETED (e.g. because they were requeued) back to the jobs table.
+     */
+    private void unarchive(List<Job> jobs) throws SQLException {
+        final String jobIds = jobs.stream().filter(job -> !isArchivable(job.getState())).map(job -> "'" + job.getId().toString() + "'").collect(joining(","));
+        if (jobIds.isEmpty()) return;
+
+        insertAny("into jobrunr_jobs (" + COLUMNS + ") select " + COLUMNS + " from jobrunr_jobs_archive where id in (" + jobIds + ")");
+        delete("from jobrunr_jobs_archive where id in (" + jobIds + ")");
+    }
+
+    private String jobsWhere(String condition, StateName state) {
+        if (!isArchived(state)) return "jobAsJson from jobrunr_jobs where " + condition;
+
+        return "jobAsJson from (select " + PAGED_COLUMNS + " from jobrunr_jobs where " + condition
+                + " union all select " + PAGED_COLUMNS + " from jobrunr_jobs_archive where " + condition + ") j";
+    }
+
+    private boolean isArchived(StateName... states) {
+        return archiveTable && isArchivable(states);
+    }
+
+    static boolean isArchivable(StateName... states) {
+        return stream(states).anyMatch(state -> state == StateName.SUCCEEDED || state == StateName.DELETED);
+    }
+
+    private void updateJobCounters(boolean newJobs, List<Job> savedJobs) throws SQLException {
+        if (newJobs) {
+            jobCountersTable.jobsInserted(savedJobs);
+        } else {
+            jobCountersTable.jobsUpdated(savedJobs);
+        }
     }
 
     private Stream<Job> selectJobs(String statement) {
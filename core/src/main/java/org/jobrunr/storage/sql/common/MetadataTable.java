@@ -59,13 +59,6 @@ public class MetadataTable extends Sql<JobRunrMetadata> {
                 .collect(toList());
     }
 
-    public void incrementCounter(String id, int amount) throws SQLException {
-        this
-                .with(FIELD_ID, id)
-                .with("amount", amount)
-                .update("jobrunr_metadata set value = cast((cast(cast( value as char(10) ) as decimal) + :amount) as char(10)) where id = :id");
-    }
-
     public int deleteByName(String name) throws SQLException {
         return with(FIELD_NAME, name)
                 .delete("from jobrunr_metadata where name = :name");
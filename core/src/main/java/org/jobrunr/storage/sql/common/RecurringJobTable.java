@@ -22,6 +22,7 @@ public class RecurringJobTable extends Sql<RecurringJob> {
         this.jobMapper = jobMapper;
         this
                 .using(connection, dialect, tablePrefix, "jobrunr_recurring_jobs")
+                .with(FIELD_ID, RecurringJob::getId)
                 .with(FIELD_JOB_AS_JSON, jobMapper::serializeRecurringJob);
     }
 
@@ -0,0 +1,288 @@
+package org.jobrunr.storage.sql.common;
+
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.JobVersionsSnapshot;
+import org.jobrunr.jobs.RecurringJob;
+import org.jobrunr.jobs.states.StateName;
+import org.jobrunr.storage.BackgroundJobServerStatus;
+import org.jobrunr.storage.ConcurrentJobModificationException;
+import org.jobrunr.storage.JobRunrMetadata;
+import org.jobrunr.storage.StorageException;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
+import org.jobrunr.storage.sql.common.db.Transaction;
+import org.jobrunr.storage.sql.common.db.dialect.Dialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link DefaultSqlStorageProvider} for embedded databases that only allow one writer at a time (like SQLite and H2). Instead of having every
+ * worker open its own write transaction and fight over the write lock, all writes are queued and run by one writer thread. The writer runs all
+ * writes that are queued at that moment in one transaction and gives each write its own savepoint so that a failing write does not undo the others.
+ * Reads do not go through the writer and run concurrently.
+ */
+public class SingleWriterSqlStorageProvider extends DefaultSqlStorageProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleWriterSqlStorageProvider.class);
+
+    static final int MAX_WRITES_PER_TRANSACTION = 1000;
+    private static final Write<Void> STOP = new Write<>(() -> null, false);
+
+    private final BlockingQueue<Write<?>> writeQueue;
+    private final Thread writerThread;
+
+    public SingleWriterSqlStorageProvider(DataSource dataSource, Dialect dialect, DatabaseOptions databaseOptions) {
+        this(dataSource, dialect, null, databaseOptions);
+    }
+
+    public SingleWriterSqlStorageProvider(DataSource dataSource, Dialect dialect, String tablePrefix, DatabaseOptions databaseOptions) {
+        super(dataSource, dialect, tablePrefix, databaseOptions);
+        this.writeQueue = new LinkedBlockingQueue<>();
+        this.writerThread = new Thread(this::runQueuedWrites, "jobrunr-single-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void announceBackgroundJobServer(BackgroundJobServerStatus serverStatus) {
+        writeWithoutResult(() -> super.announceBackgroundJobServer(serverStatus));
+    }
+
+    @Override
+    public boolean signalBackgroundJobServerAlive(BackgroundJobServerStatus serverStatus) {
+        return write(() -> super.signalBackgroundJobServerAlive(serverStatus));
+    }
+
+    @Override
+    public void signalBackgroundJobServerStopped(BackgroundJobServerStatus serverStatus) {
+        writeWithoutResult(() -> super.signalBackgroundJobServerStopped(serverStatus));
+    }
+
+    @Override
+    public int removeTimedOutBackgroundJobServers(Instant heartbeatOlderThan) {
+        return write(() -> super.removeTimedOutBackgroundJobServers(heartbeatOlderThan));
+    }
+
+    @Override
+    public void saveMetadata(JobRunrMetadata metadata) {
+        writeWithoutResult(() -> super.saveMetadata(metadata));
+        notifyMetadataChangeListeners();
+    }
+
+    @Override
+    public void deleteMetadata(String name) {
+        final int amountDeleted = write(() -> deleteMetadataByName(name));
+        notifyMetadataChangeListeners(amountDeleted > 0);
+    }
+
+    @Override
+    public Job save(Job jobToSave) {
+        final Job savedJob = write(() -> super.save(jobToSave));
+        notifyJobStatsOnChangeListeners();
+        return savedJob;
+    }
+
+    @Override
+    public List<Job> save(List<Job> jobs) {
+        final List<Job> savedJobs = write(() -> super.save(jobs));
+        notifyJobStatsOnChangeListenersIf(!jobs.isEmpty());
+        return savedJobs;
+    }
+
+    @Override
+    public int deletePermanently(UUID id) {
+        final int amountDeleted = write(() -> super.deletePermanently(id));
+        notifyJobStatsOnChangeListenersIf(amountDeleted > 0);
+        return amountDeleted;
+    }
+
+    @Override
+    public int deleteJobsPermanently(StateName state, Instant updatedBefore) {
+        final int amountDeleted = write(() -> super.deleteJobsPermanently(state, updatedBefore));
+        notifyJobStatsOnChangeListenersIf(amountDeleted > 0);
+        return amountDeleted;
+    }
+
+    @Override
+    public RecurringJob saveRecurringJob(RecurringJob recurringJob) {
+        return write(() -> super.saveRecurringJob(recurringJob));
+    }
+
+    @Override
+    public int deleteRecurringJob(String id) {
+        return write(() -> super.deleteRecurringJob(id));
+    }
+
+    @Override
+    public void reconcileJobStats() {
+        writeWithoutResult(super::reconcileJobStats);
+    }
+
+    @Override
+    public int archiveJobs() {
+        return write(super::archiveJobs);
+    }
+
+    @Override
+    public void publishTotalAmountOfSucceededJobs(int amount) {
+        writeWithoutResult(() -> super.publishTotalAmountOfSucceededJobs(amount));
+    }
+
+    @Override
+    public <T> T inTransaction(Function<StorageProvider, T> unitOfWork) {
+        if (isInUnitOfWork()) return unitOfWork.apply(this);
+
+        final T result = write(new Write<>(() -> unitOfWork.apply(this), true));
+        notifyJobStatsOnChangeListeners();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        writeQueue.add(STOP);
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeWithoutResult(Runnable write) {
+        write(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    private <T> T write(Supplier<T> write) {
+        return write(new Write<>(write, false));
+    }
+
+    private <T> T write(Write<T> write) {
+        // the writes of a unit of work are run by the single writer itself, within the transaction of that unit of work
+        if (Thread.currentThread() == writerThread) return write.write.get();
+        if (!writerThread.isAlive()) throw new StorageException("The single writer of this StorageProvider is stopped.");
+
+        writeQueue.add(write);
+        return write.awaitResult();
+    }
+
+    private void runQueuedWrites() {
+        final List<Write<?>> writes = new ArrayList<>();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                writes.add(writeQueue.take());
+                writeQueue.drainTo(writes, MAX_WRITES_PER_TRANSACTION - 1);
+                stopped = writes.remove(STOP);
+                runInOneTransaction(writes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            } catch (Exception e) {
+                LOGGER.error("Could not write to the database", e);
+                writes.forEach(write -> write.fail(e instanceof StorageException ? (StorageException) e : new StorageException(e)));
+            } finally {
+                writes.clear();
+            }
+        }
+        writeQueue.drainTo(writes);
+        writes.forEach(write -> write.fail(new StorageException("The single writer of this StorageProvider is stopped.")));
+    }
+
+    private void runInOneTransaction(List<Write<?>> writes) throws SQLException {
+        if (writes.isEmpty()) return;
+
+        final JobVersionsSnapshot jobVersionsSnapshot = new JobVersionsSnapshot();
+        boolean committed = false;
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn, false)) {
+            for (Write<?> write : writes) {
+                final Savepoint savepoint = conn.setSavepoint();
+                final JobVersionsSnapshot jobVersionsSnapshotOfWrite = new JobVersionsSnapshot();
+                if (inUnitOfWork(conn, jobVersionsSnapshotOfWrite, write::run)) {
+                    jobVersionsSnapshot.add(jobVersionsSnapshotOfWrite);
+                } else {
+                    conn.rollback(savepoint);
+                    jobVersionsSnapshotOfWrite.restore();
+                }
+            }
+            transaction.commit();
+            committed = true;
+        } finally {
+            if (!committed) {
+                // the jobs were not saved after all, so they must keep the version they had before
+                jobVersionsSnapshot.restore();
+            }
+        }
+        writes.forEach(Write::complete);
+    }
+
+    private static class Write<T> {
+
+        private final Supplier<T> write;
+        private final boolean isUnitOfWork;
+        private final CompletableFuture<T> result;
+        private T value;
+        private RuntimeException exception;
+
+        private Write(Supplier<T> write, boolean isUnitOfWork) {
+            this.write = write;
+            this.isUnitOfWork = isUnitOfWork;
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * @return whether the changes of this write must be kept. A unit of work is all or nothing, a single storage call only keeps its changes
+         * if it succeeded or if it threw a {@link ConcurrentJobModificationException}: the jobs that were not modified concurrently are saved and
+         * their new versions are already committed, so those changes must be kept. Any other exception rolls back the changes of the write.
+         */
+        private boolean run() {
+            try {
+                value = write.get();
+                return true;
+            } catch (ConcurrentJobModificationException e) {
+                exception = e;
+                return !isUnitOfWork;
+            } catch (RuntimeException e) {
+                exception = e;
+                return false;
+            }
+        }
+
+        private void complete() {
+            if (exception != null) {
+                result.completeExceptionally(exception);
+            } else {
+                result.complete(value);
+            }
+        }
+
+        private void fail(StorageException e) {
+            result.completeExceptionally(e);
+        }
+
+        private T awaitResult() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_CREATED_AT;
+import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_ID;
 import static org.jobrunr.storage.StorageProviderUtils.Jobs.FIELD_UPDATED_AT;
 
 public class SqlPageRequestMapper {
@@ -36,4 +37,9 @@ public class SqlPageRequestMapper {
         return result.toString();
     }
 
+    public String mapKeyset(PageRequest pageRequest) {
+        final PageRequest.Order order = pageRequest.getCursorOrder();
+        return FIELD_UPDATED_AT + " " + order.name() + ", " + FIELD_ID + " " + order.name();
+    }
+
 }
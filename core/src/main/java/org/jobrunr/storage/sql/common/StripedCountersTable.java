@@ -0,0 +1,60 @@
+package org.jobrunr.storage.sql.common;
+
+import org.jobrunr.storage.sql.common.db.Sql;
+import org.jobrunr.storage.sql.common.db.dialect.Dialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Counters of which the value is spread over {@link #STRIPES} rows that are summed on read. An increment only updates the rows of one (random)
+ * stripe so that concurrent transactions rarely wait on each others row locks. The table must contain a row for each counter and stripe and have
+ * the columns {@code <counterColumn>, stripe} and {@code amount}.
+ */
+public class StripedCountersTable extends Sql<Object> {
+
+    public static final int STRIPES = 8;
+
+    private final String tableName;
+    private final String counterColumn;
+
+    public StripedCountersTable(Connection connection, Dialect dialect, String tablePrefix, String tableName, String counterColumn) {
+        this.tableName = tableName;
+        this.counterColumn = counterColumn;
+        this
+                .using(connection, dialect, tablePrefix, tableName);
+    }
+
+    public long get(String counter) {
+        return with("counter", counter)
+                .select("coalesce(sum(amount), 0) as amount from " + tableName + " where " + counterColumn + " = :counter")
+                .map(resultSet -> resultSet.asLong("amount"))
+                .findFirst()
+                .orElse(0L);
+    }
+
+    public void increment(String counter, long amount) throws SQLException {
+        increment(singletonMap(counter, amount));
+    }
+
+    /**
+     * Increments the given counters on the same stripe. The counters are updated in the iteration order of the given map: callers that increment
+     * several counters in one transaction must always use the same order to avoid deadlocks.
+     *
+     * @param amountsByCounter the amount to add to each counter
+     */
+    public void increment(Map<String, Long> amountsByCounter) throws SQLException {
+        final int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+        for (Map.Entry<String, Long> amountForCounter : amountsByCounter.entrySet()) {
+            if (amountForCounter.getValue() == 0) continue;
+            with("counter", amountForCounter.getKey())
+                    .with("stripe", stripe)
+                    .with("amount", amountForCounter.getValue())
+                    .updateAny(tableName + " set amount = amount + :amount where " + counterColumn + " = :counter and stripe = :stripe");
+        }
+    }
+}
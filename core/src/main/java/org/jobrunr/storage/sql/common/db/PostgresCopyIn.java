@@ -0,0 +1,82 @@
+package org.jobrunr.storage.sql.common.db;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts rows using {@code COPY ... FROM STDIN} of the PostgreSQL JDBC driver. The values are written using the CSV format and are converted
+ * the same way as {@link Sql} binds them on a {@link java.sql.PreparedStatement}.
+ * <p>
+ * An {@link Instant} is written as {@link Timestamp#toString()}, which is the local date and time in the default time zone of the JVM. This
+ * is also how the driver binds {@link java.sql.PreparedStatement#setTimestamp(int, Timestamp)} to a {@code TIMESTAMP} column without a time
+ * zone, so a copied row stores the same timestamp as an inserted one.
+ */
+class PostgresCopyIn {
+
+    private PostgresCopyIn() {
+    }
+
+    static boolean isSupported(Connection connection) {
+        try {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static long copyIn(Connection connection, String tableName, List<Object[]> rows) throws SQLException {
+        final StringBuilder csv = new StringBuilder(rows.size() * 512);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) csv.append(',');
+                appendValue(csv, row[i]);
+            }
+            csv.append('\n');
+        }
+
+        try {
+            return connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn("COPY " + tableName + " FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("Could not copy rows into " + tableName, e);
+        }
+    }
+
+    private static void appendValue(StringBuilder csv, Object o) {
+        if (o == null) {
+            // an unquoted empty value is NULL in the CSV format
+        } else if (o instanceof Integer || o instanceof Long || o instanceof Double) {
+            csv.append(o);
+        } else if (o instanceof Boolean) {
+            csv.append((boolean) o ? 1 : 0);
+        } else if (o instanceof Instant) {
+            appendQuoted(csv, Timestamp.from((Instant) o).toString());
+        } else if (o instanceof Enum) {
+            appendQuoted(csv, ((Enum<?>) o).name());
+        } else if (o instanceof Duration || o instanceof UUID || o instanceof String) {
+            appendQuoted(csv, o.toString());
+        } else {
+            throw new IllegalStateException(String.format("Found a value which could not be copied: %s: %s", o.getClass(), o));
+        }
+    }
+
+    private static void appendQuoted(StringBuilder csv, String value) {
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') csv.append('"');
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+}
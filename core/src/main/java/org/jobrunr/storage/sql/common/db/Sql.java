@@ -18,12 +18,15 @@ import static org.jobrunr.storage.sql.common.db.ConcurrentSqlModificationExcepti
 import static org.jobrunr.utils.reflection.ReflectionUtils.getValueFromFieldOrProperty;
 import static org.jobrunr.utils.reflection.ReflectionUtils.objectContainsFieldOrProperty;
 
+/**
+ * Small named-parameter layer on top of JDBC. Statements are parsed once per dialect, table prefix and query and the parameters are
+ * resolved once per execution into an ordered list of accessors so that binding a batch of items does no map lookups nor reflection.
+ */
 public class Sql<T> {
     private static final String INSERT = "insert ";
     private static final String UPDATE = "update ";
     private static final String DELETE = "delete ";
 
-    private final List<String> paramNames;
     private final Map<String, Object> params;
     private final Map<String, Function<T, ?>> paramSuppliers;
 
@@ -31,12 +34,11 @@ public class Sql<T> {
     private String tablePrefix;
     private String suffix = "";
 
-    private static final Map<Integer, ParsedStatement> parsedStatementCache = new ConcurrentHashMap<>();
+    private static final Map<ParsedStatementKey, ParsedStatement> parsedStatementCache = new ConcurrentHashMap<>();
     private String tableName;
     private Connection connection;
 
     protected Sql() {
-        paramNames = new ArrayList<>();
         params = new HashMap<>();
         paramSuppliers = new HashMap<>();
     }
@@ -81,21 +83,21 @@ public class Sql<T> {
     }
 
     public Stream<SqlResultSet> select(String statement) {
-        String parsedStatement = parse("select " + statement + suffix);
-        SqlSpliterator sqlSpliterator = new SqlSpliterator(connection, parsedStatement, this::setParams);
+        ParsedStatement parsedStatement = parse("select " + statement + suffix);
+        SqlSpliterator sqlSpliterator = new SqlSpliterator(connection, parsedStatement.sqlStatement, ps -> setParams(ps, parsedStatement));
         return StreamSupport.stream(sqlSpliterator, false);
     }
 
     public Stream<SqlResultSet> execute(String statement) {
-        String parsedStatement = parse(statement + suffix);
-        SqlSpliterator sqlSpliterator = new SqlSpliterator(connection, parsedStatement, this::setParams);
+        ParsedStatement parsedStatement = parse(statement + suffix);
+        SqlSpliterator sqlSpliterator = new SqlSpliterator(connection, parsedStatement.sqlStatement, ps -> setParams(ps, parsedStatement));
         return StreamSupport.stream(sqlSpliterator, false);
     }
 
     public long selectCount(String statement) throws SQLException {
-        String parsedStatement = parse("select count(*) " + statement);
-        try (PreparedStatement ps = connection.prepareStatement(parsedStatement)) {
-            setParams(ps);
+        ParsedStatement parsedStatement = parse("select count(*) " + statement);
+        try (PreparedStatement ps = connection.prepareStatement(parsedStatement.sqlStatement)) {
+            bindParams(ps, compileParamBinders(parsedStatement, null), null);
             try (ResultSet countResultSet = ps.executeQuery()) {
                 countResultSet.next();
                 return countResultSet.getLong(1);
@@ -115,6 +117,10 @@ public class Sql<T> {
         insertOrUpdate(null, INSERT + statement);
     }
 
+    public int insertAny(String statement) throws SQLException {
+        return executeUpdate(INSERT + statement);
+    }
+
     public void update(String statement) throws SQLException {
         insertOrUpdate(null, UPDATE + statement);
     }
@@ -123,18 +129,26 @@ public class Sql<T> {
         insertOrUpdate(item, UPDATE + statement);
     }
 
+    public int updateAny(String statement) throws SQLException {
+        return executeUpdate(UPDATE + statement);
+    }
+
     public int delete(String statement) throws SQLException {
-        String parsedStatement = parse(DELETE + statement);
-        try (PreparedStatement ps = connection.prepareStatement(parsedStatement)) {
-            setParams(ps);
+        return executeUpdate(DELETE + statement);
+    }
+
+    private int executeUpdate(String statement) throws SQLException {
+        ParsedStatement parsedStatement = parse(statement);
+        try (PreparedStatement ps = connection.prepareStatement(parsedStatement.sqlStatement)) {
+            bindParams(ps, compileParamBinders(parsedStatement, null), null);
             return ps.executeUpdate();
         }
     }
 
     private void insertOrUpdate(T item, String statement) throws SQLException {
-        String parsedStatement = parse(statement);
-        try (PreparedStatement ps = connection.prepareStatement(parsedStatement)) {
-            setParams(ps, item);
+        ParsedStatement parsedStatement = parse(statement);
+        try (PreparedStatement ps = connection.prepareStatement(parsedStatement.sqlStatement)) {
+            bindParams(ps, compileParamBinders(parsedStatement, item), item);
             final int updated = ps.executeUpdate();
             if (updated != 1) {
                 throw concurrentDatabaseModificationException(item, updated);
@@ -149,7 +163,19 @@ public class Sql<T> {
     }
 
     public void insertAll(List<T> batchCollection, String statement) throws SQLException {
-        int[] result = insertOrUpdateAll(batchCollection, INSERT + statement);
+        ParsedStatement parsedStatement = parse(INSERT + statement);
+        if (batchCollection.size() > 1 && parsedStatement.insertsAllColumns() && dialect.supportsCopyIn() && PostgresCopyIn.isSupported(connection)) {
+            copyInAll(batchCollection, parsedStatement);
+            return;
+        }
+
+        final int maxRowsPerInsert = dialect.maxRowsPerInsert(parsedStatement.paramNames.size());
+        if (batchCollection.size() > 1 && maxRowsPerInsert > 1 && parsedStatement.hasValuesList()) {
+            insertAllUsingMultiRowInserts(batchCollection, parsedStatement, maxRowsPerInsert);
+            return;
+        }
+
+        int[] result = insertOrUpdateAll(batchCollection, parsedStatement);
         if (result.length != batchCollection.size()) {
             throw shouldNotHappenException("Could not insert or update all objects - different result size: originalCollectionSize=" + batchCollection.size() + "; " + Arrays.toString(result));
         } else if (stream(result).anyMatch(i -> i < Statement.SUCCESS_NO_INFO || i == 0)) {
@@ -158,7 +184,7 @@ public class Sql<T> {
     }
 
     public void updateAll(List<T> batchCollection, String statement) throws SQLException {
-        int[] result = insertOrUpdateAll(batchCollection, UPDATE + statement);
+        int[] result = insertOrUpdateAll(batchCollection, parse(UPDATE + statement));
         if (result.length != batchCollection.size()) {
             throw shouldNotHappenException("Could not insert or update all objects - different result size: originalCollectionSize=" + batchCollection.size() + "; " + Arrays.toString(result));
         } else if (stream(result).anyMatch(i -> i < 1)) {
@@ -166,39 +192,92 @@ public class Sql<T> {
         }
     }
 
-    private int[] insertOrUpdateAll(List<T> batchCollection, String statement) throws SQLException {
-        String parsedStatement = parse(statement);
-        try (PreparedStatement ps = connection.prepareStatement(parsedStatement)) {
+    private int[] insertOrUpdateAll(List<T> batchCollection, ParsedStatement parsedStatement) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(parsedStatement.sqlStatement)) {
+            final List<Function<T, ?>> paramBinders = compileParamBinders(parsedStatement, batchCollection.isEmpty() ? null : batchCollection.get(0));
             for (T object : batchCollection) {
-                setParams(ps, object);
+                bindParams(ps, paramBinders, object);
                 ps.addBatch();
             }
             return ps.executeBatch();
         }
     }
 
-    private void setParams(PreparedStatement ps) {
+    private void insertAllUsingMultiRowInserts(List<T> batchCollection, ParsedStatement parsedStatement, int maxRowsPerInsert) throws SQLException {
+        final List<Function<T, ?>> paramBinders = compileParamBinders(parsedStatement, batchCollection.get(0));
+        for (int fromIndex = 0; fromIndex < batchCollection.size(); fromIndex += maxRowsPerInsert) {
+            final List<T> rows = batchCollection.subList(fromIndex, Math.min(fromIndex + maxRowsPerInsert, batchCollection.size()));
+            try (PreparedStatement ps = connection.prepareStatement(parsedStatement.getMultiRowStatement(rows.size()))) {
+                int paramIndex = 1;
+                for (T row : rows) {
+                    for (Function<T, ?> paramBinder : paramBinders) {
+                        setParam(ps, paramIndex++, paramBinder.apply(row));
+                    }
+                }
+                final int inserted = ps.executeUpdate();
+                if (inserted != rows.size()) {
+                    throw shouldNotHappenException("Could not insert all objects - different insert count: rows=" + rows.size() + "; inserted=" + inserted);
+                }
+            }
+        }
+    }
+
+    private void copyInAll(List<T> batchCollection, ParsedStatement parsedStatement) throws SQLException {
+        final List<Function<T, ?>> paramBinders = compileParamBinders(parsedStatement, batchCollection.get(0));
+        final List<Object[]> rows = new ArrayList<>(batchCollection.size());
+        for (T item : batchCollection) {
+            final Object[] row = new Object[paramBinders.size()];
+            for (int i = 0; i < paramBinders.size(); i++) {
+                row[i] = paramBinders.get(i).apply(item);
+            }
+            rows.add(row);
+        }
+        final long copied = PostgresCopyIn.copyIn(connection, elementPrefixer(tablePrefix, tableName), rows);
+        if (copied != batchCollection.size()) {
+            throw shouldNotHappenException("Could not insert all objects - different copy count: rows=" + batchCollection.size() + "; copied=" + copied);
+        }
+    }
+
+    private void setParams(PreparedStatement ps, ParsedStatement parsedStatement) {
         try {
-            setParams(ps, null);
+            bindParams(ps, compileParamBinders(parsedStatement, null), null);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    private void setParams(PreparedStatement ps, T object) throws SQLException {
-        for (int i = 0; i < paramNames.size(); i++) {
-            String paramName = paramNames.get(i);
-            if (params.containsKey(paramName)) {
-                setParam(ps, i + 1, params.get(paramName));
-            } else if (paramSuppliers.containsKey(paramName)) {
-                setParam(ps, i + 1, paramSuppliers.get(paramName).apply(object));
-            } else if (objectContainsFieldOrProperty(object, paramName)) {
-                setParam(ps, i + 1, getValueFromFieldOrProperty(object, paramName));
-            } else if ("previousVersion" .equals(paramName)) {
-                setParam(ps, i + 1, ((int) paramSuppliers.get("version").apply(object)) - 1);
-            } else {
-                throw new IllegalArgumentException(String.format("Parameter %s is not known.", paramName));
-            }
+    private void bindParams(PreparedStatement ps, List<Function<T, ?>> paramBinders, T object) throws SQLException {
+        for (int i = 0; i < paramBinders.size(); i++) {
+            setParam(ps, i + 1, paramBinders.get(i).apply(object));
+        }
+    }
+
+    /**
+     * Resolves every parameter of the statement to the way its value is retrieved. The values given using {@link #with(String, Object)} are
+     * captured as is, the others are read from the item using the registered accessors. Only parameters for which no accessor was registered
+     * fall back to reflection.
+     */
+    private List<Function<T, ?>> compileParamBinders(ParsedStatement parsedStatement, T item) {
+        final List<Function<T, ?>> paramBinders = new ArrayList<>(parsedStatement.paramNames.size());
+        for (String paramName : parsedStatement.paramNames) {
+            paramBinders.add(compileParamBinder(paramName, item));
+        }
+        return paramBinders;
+    }
+
+    private Function<T, ?> compileParamBinder(String paramName, T item) {
+        if (params.containsKey(paramName)) {
+            final Object value = params.get(paramName);
+            return object -> value;
+        } else if (paramSuppliers.containsKey(paramName)) {
+            return paramSuppliers.get(paramName);
+        } else if (objectContainsFieldOrProperty(item, paramName)) {
+            return object -> getValueFromFieldOrProperty(object, paramName);
+        } else if ("previousVersion".equals(paramName) && paramSuppliers.containsKey("version")) {
+            final Function<T, ?> versionSupplier = paramSuppliers.get("version");
+            return object -> ((int) versionSupplier.apply(object)) - 1;
+        } else {
+            throw new IllegalArgumentException(String.format("Parameter %s is not known.", paramName));
         }
     }
 
@@ -227,20 +306,17 @@ public class Sql<T> {
         }
     }
 
-    final String parse(String query) {
-        final ParsedStatement parsedStatement = parsedStatementCache.computeIfAbsent(query.hashCode(), hash -> createParsedStatement(query));
-        paramNames.clear();
-        paramNames.addAll(parsedStatement.paramNames);
-        return parsedStatement.sqlStatement;
+    final ParsedStatement parse(String query) {
+        return parsedStatementCache.computeIfAbsent(new ParsedStatementKey(dialect, tablePrefix, tableName, query), key -> createParsedStatement(query));
     }
 
     final ParsedStatement createParsedStatement(String query) {
-        final String parsedStatement = parseStatement(dialect.escape(query));
-        return new ParsedStatement(parsedStatement, new ArrayList<>(paramNames));
+        final List<String> paramNames = new ArrayList<>();
+        final String parsedStatement = parseStatement(dialect.escape(query), paramNames);
+        return new ParsedStatement(parsedStatement, paramNames);
     }
 
-    final String parseStatement(String query) {
-        paramNames.clear();
+    final String parseStatement(String query, List<String> paramNames) {
         // I was originally using regular expressions, but they didn't work well for ignoring
         // parameter-like strings inside quotes.
         int length = query.length();
@@ -282,13 +358,97 @@ public class Sql<T> {
                 .replace(tableName, elementPrefixer(tablePrefix, tableName));
     }
 
-    private static class ParsedStatement {
+    static class ParsedStatement {
+        private static final String VALUES = "values";
+
         private final String sqlStatement;
         private final List<String> paramNames;
+        private final int valuesListIndex;
 
         public ParsedStatement(String sqlStatement, List<String> paramNames) {
             this.sqlStatement = sqlStatement;
             this.paramNames = paramNames;
+            this.valuesListIndex = findValuesListIndex(sqlStatement);
+        }
+
+        boolean hasValuesList() {
+            return valuesListIndex > -1;
+        }
+
+        boolean insertsAllColumns() {
+            return hasValuesList() && sqlStatement.indexOf('(') == valuesListIndex;
+        }
+
+        String getMultiRowStatement(int rows) {
+            final String valuesList = sqlStatement.substring(valuesListIndex);
+            final StringBuilder multiRowStatement = new StringBuilder(valuesListIndex + rows * (valuesList.length() + 2));
+            multiRowStatement.append(sqlStatement, 0, valuesListIndex).append(valuesList);
+            for (int i = 1; i < rows; i++) {
+                multiRowStatement.append(", ").append(valuesList);
+            }
+            return multiRowStatement.toString();
+        }
+
+        String getSqlStatement() {
+            return sqlStatement;
+        }
+
+        List<String> getParamNames() {
+            return paramNames;
+        }
+
+        private static int findValuesListIndex(String sqlStatement) {
+            final String lowerCaseStatement = sqlStatement.toLowerCase();
+            if (!lowerCaseStatement.startsWith(INSERT) || !lowerCaseStatement.endsWith(")")) return -1;
+
+            final int valuesIndex = lowerCaseStatement.lastIndexOf(VALUES);
+            if (valuesIndex < 0) return -1;
+            final int valuesListIndex = lowerCaseStatement.indexOf('(', valuesIndex + VALUES.length());
+            if (valuesListIndex < 0 || !lowerCaseStatement.substring(valuesIndex + VALUES.length(), valuesListIndex).trim().isEmpty()) return -1;
+            return findClosingParenthesis(lowerCaseStatement, valuesListIndex) == lowerCaseStatement.length() - 1 ? valuesListIndex : -1;
+        }
+
+        private static int findClosingParenthesis(String sqlStatement, int openingParenthesisIndex) {
+            int depth = 0;
+            for (int i = openingParenthesisIndex; i < sqlStatement.length(); i++) {
+                final char c = sqlStatement.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class ParsedStatementKey {
+        private final Class<? extends Dialect> dialect;
+        private final String tablePrefix;
+        private final String tableName;
+        private final String query;
+
+        public ParsedStatementKey(Dialect dialect, String tablePrefix, String tableName, String query) {
+            this.dialect = dialect.getClass();
+            this.tablePrefix = tablePrefix;
+            this.tableName = tableName;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ParsedStatementKey)) return false;
+            ParsedStatementKey that = (ParsedStatementKey) o;
+            return dialect.equals(that.dialect)
+                    && Objects.equals(tablePrefix, that.tablePrefix)
+                    && Objects.equals(tableName, that.tableName)
+                    && query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dialect, tablePrefix, tableName, query);
         }
     }
 }
@@ -0,0 +1,44 @@
+package org.jobrunr.storage.sql.common.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * Wraps the {@link Connection} of a unit of work so that it can be handed out to several storage calls: closing, committing or rolling back
+ * the wrapped connection does nothing and it reports auto-commit so that each {@link Transaction} of those calls leaves the connection alone.
+ * The unit of work itself commits or rolls back the actual connection.
+ */
+public class UnitOfWorkConnection implements InvocationHandler {
+
+    private final Connection connection;
+
+    private UnitOfWorkConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class}, new UnitOfWorkConnection(connection));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+            case "commit":
+            case "rollback":
+            case "setAutoCommit":
+                return null;
+            case "getAutoCommit":
+                return true;
+            default:
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+        }
+    }
+}
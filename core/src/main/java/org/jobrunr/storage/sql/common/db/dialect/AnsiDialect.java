@@ -11,4 +11,10 @@ public class AnsiDialect implements Dialect {
     public String escape(String toEscape) {
         return toEscape;
     }
-}
+
+    @Override
+    public int maxRowsPerInsert(int paramsPerRow) {
+        // 999 is the lowest bind parameter limit of the databases using this dialect (SQLite)
+        return Math.max(1, 999 / paramsPerRow);
+    }
+}
\ No newline at end of file
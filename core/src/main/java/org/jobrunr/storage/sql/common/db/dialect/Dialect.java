@@ -6,4 +6,32 @@ public interface Dialect {
 
     String escape(String toEscape);
 
-}
+    /**
+     * Returns the maximum amount of rows that are inserted using a single multi-row {@code INSERT ... VALUES (...), (...)} statement. When
+     * this is 1, the rows are inserted using JDBC batching.
+     *
+     * @param paramsPerRow the amount of bind parameters for each row
+     * @return the maximum amount of rows per insert statement
+     */
+    default int maxRowsPerInsert(int paramsPerRow) {
+        return 1;
+    }
+
+    /**
+     * Returns the expression used to bind a JSON document to a native JSON column.
+     *
+     * @param parameter the named parameter holding the JSON document as a String
+     * @return the expression to use in insert and update statements
+     */
+    default String nativeJson(String parameter) {
+        return parameter;
+    }
+
+    /**
+     * @return whether rows can be inserted using {@code COPY ... FROM STDIN}
+     */
+    default boolean supportsCopyIn() {
+        return false;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.jobrunr.storage.sql.common.db.dialect;
+
+public class PostgresDialect extends AnsiDialect {
+
+    @Override
+    public int maxRowsPerInsert(int paramsPerRow) {
+        return Math.max(1, Math.min(1000, 32767 / paramsPerRow));
+    }
+
+    @Override
+    public boolean supportsCopyIn() {
+        return true;
+    }
+
+    @Override
+    public String nativeJson(String parameter) {
+        return "cast(" + parameter + " as jsonb)";
+    }
+}
\ No newline at end of file
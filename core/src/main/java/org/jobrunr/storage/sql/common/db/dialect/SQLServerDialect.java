@@ -11,4 +11,10 @@ public class SQLServerDialect implements Dialect {
     public String escape(String toEscape) {
         return toEscape;
     }
-}
+
+    @Override
+    public int maxRowsPerInsert(int paramsPerRow) {
+        // SQL Server allows at most 1000 rows in a VALUES list and 2100 bind parameters per statement
+        return Math.max(1, Math.min(1000, 2000 / paramsPerRow));
+    }
+}
\ No newline at end of file
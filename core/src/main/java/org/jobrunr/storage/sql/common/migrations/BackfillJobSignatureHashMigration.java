@@ -0,0 +1,62 @@
+package org.jobrunr.storage.sql.common.migrations;
+
+import org.jobrunr.storage.sql.common.db.Transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.jobrunr.utils.JobUtils.getJobSignatureHash;
+
+/**
+ * Computes the jobSignatureHash of the jobs that were saved before that column existed. The hash is computed in Java, so this is done in
+ * batches that are each committed on their own. If it is interrupted, the migration is not marked as applied and resumes on the next startup.
+ */
+public class BackfillJobSignatureHashMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public String getSqlMigrationFileName() {
+        return "v018__backfill_jobsignaturehash.sql";
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        backfillJobSignatureHashes(context, context.getFQTableName("jobrunr_jobs"));
+        backfillJobSignatureHashes(context, context.getFQTableName("jobrunr_jobs_archive"));
+    }
+
+    private void backfillJobSignatureHashes(Context context, String tableName) throws SQLException {
+        int amountUpdated;
+        do {
+            try (final Connection conn = context.getConnection(); final Transaction tran = new Transaction(conn, false)) {
+                final Map<String, String> jobSignaturesById = new LinkedHashMap<>();
+                try (final Statement stmt = conn.createStatement()) {
+                    stmt.setMaxRows(BATCH_SIZE);
+                    try (final ResultSet rs = stmt.executeQuery("select id, jobSignature from " + tableName + " where jobSignatureHash is null")) {
+                        while (rs.next()) {
+                            jobSignaturesById.put(rs.getString(1), rs.getString(2));
+                        }
+                    }
+                }
+                if (!jobSignaturesById.isEmpty()) {
+                    try (final PreparedStatement pSt = conn.prepareStatement("update " + tableName + " set jobSignatureHash = ? where id = ?")) {
+                        for (Map.Entry<String, String> jobSignatureById : jobSignaturesById.entrySet()) {
+                            pSt.setLong(1, getJobSignatureHash(jobSignatureById.getValue()));
+                            pSt.setString(2, jobSignatureById.getKey());
+                            pSt.addBatch();
+                        }
+                        pSt.executeBatch();
+                    }
+                }
+                tran.commit();
+                amountUpdated = jobSignaturesById.size();
+            }
+        } while (amountUpdated == BATCH_SIZE);
+    }
+}
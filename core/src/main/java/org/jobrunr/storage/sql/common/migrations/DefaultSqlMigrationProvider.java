@@ -7,8 +7,8 @@ import static org.jobrunr.utils.ClassPathUtils.listAllChildrenOnClasspath;
 public class DefaultSqlMigrationProvider implements SqlMigrationProvider {
 
     @Override
-    public Stream<SqlMigration> getMigrations(Class<?> clazz) {
-        return listAllChildrenOnClasspath(clazz, "migrations")
+    public Stream<SqlMigration> getMigrations(Class<?> clazz, String folder) {
+        return listAllChildrenOnClasspath(clazz, folder)
                 .filter(path -> path.toString().endsWith(".sql"))
                 .map(SqlMigrationByPath::new);
     }
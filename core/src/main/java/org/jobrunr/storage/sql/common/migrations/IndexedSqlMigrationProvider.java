@@ -0,0 +1,44 @@
+package org.jobrunr.storage.sql.common.migrations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Finds the migrations using the index that is generated next to them at build time, so that the classpath or the jar does not
+ * need to be scanned. If a folder has no index (e.g. when running from an IDE that does not run the Gradle build), the given
+ * {@link SqlMigrationProvider} is used instead.
+ */
+public class IndexedSqlMigrationProvider implements SqlMigrationProvider {
+
+    public static final String MIGRATIONS_INDEX = "migrations.idx";
+
+    private final SqlMigrationProvider fallbackMigrationProvider;
+
+    public IndexedSqlMigrationProvider(SqlMigrationProvider fallbackMigrationProvider) {
+        this.fallbackMigrationProvider = fallbackMigrationProvider;
+    }
+
+    @Override
+    public Stream<SqlMigration> getMigrations(Class<?> clazz, String folder) {
+        try (InputStream index = clazz.getResourceAsStream(folder + "/" + MIGRATIONS_INDEX)) {
+            if (index == null) return fallbackMigrationProvider.getMigrations(clazz, folder);
+
+            final List<SqlMigration> migrations = new BufferedReader(new InputStreamReader(index, UTF_8)).lines()
+                    .map(String::trim)
+                    .filter(fileName -> fileName.endsWith(".sql"))
+                    .map(fileName -> new SqlMigrationByResource(clazz, folder, fileName))
+                    .collect(toList());
+            return migrations.stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.jobrunr.storage.sql.common.migrations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A migration step that can not be expressed in SQL (e.g. because its values are computed in Java). It runs right before the
+ * {@link SqlMigration} with the given file name and is only marked as applied together with it, so it must be safe to run again.
+ */
+public interface JavaMigration {
+
+    String getSqlMigrationFileName();
+
+    void migrate(Context context) throws SQLException;
+
+    interface Context {
+
+        Connection getConnection() throws SQLException;
+
+        String getFQTableName(String tableName);
+
+    }
+}
@@ -12,22 +12,22 @@ import java.util.zip.ZipInputStream;
 public class RunningOnJava11OrLowerWithinFatJarSqlMigrationProvider implements SqlMigrationProvider {
 
     @Override
-    public Stream<SqlMigration> getMigrations(Class<?> clazz) {
+    public Stream<SqlMigration> getMigrations(Class<?> clazz, String folder) {
         try {
             URL location = clazz.getProtectionDomain().getCodeSource().getLocation();
             URLConnection urlConnection = location.openConnection();
             ZipInputStream zipInputStream = new ZipInputStream(urlConnection.getInputStream());
-            return getMigrationsFromZipInputStream(zipInputStream, clazz);
+            return getMigrationsFromZipInputStream(zipInputStream, clazz, folder);
         } catch (IOException e) {
             throw new UnsupportedOperationException("Unable to find migrations.");
         }
     }
 
-    private Stream<SqlMigration> getMigrationsFromZipInputStream(ZipInputStream zipInputStream, Class<?> clazz) throws IOException {
+    private Stream<SqlMigration> getMigrationsFromZipInputStream(ZipInputStream zipInputStream, Class<?> clazz, String folder) throws IOException {
         List<SqlMigration> result = new ArrayList<>();
         ZipEntry zipEntry = zipInputStream.getNextEntry();
         while (zipEntry != null) {
-            if (isSqlMigration(clazz, zipEntry)) {
+            if (isSqlMigration(clazz, folder, zipEntry)) {
                 result.add(getSqlMigrationFromZipEntry(zipInputStream, zipEntry));
             }
             zipEntry = zipInputStream.getNextEntry();
@@ -45,7 +45,7 @@ public class RunningOnJava11OrLowerWithinFatJarSqlMigrationProvider implements S
         return new SqlMigrationByZipEntry(zipEntry.getName(), s.toString());
     }
 
-    private boolean isSqlMigration(Class<?> clazz, ZipEntry zipEntry) {
-        return zipEntry.getName().startsWith(clazz.getPackage().getName().replace(".", "/") + "/migrations") && zipEntry.getName().endsWith(".sql");
+    private boolean isSqlMigration(Class<?> clazz, String folder, ZipEntry zipEntry) {
+        return zipEntry.getName().startsWith(clazz.getPackage().getName().replace(".", "/") + "/" + folder + "/") && zipEntry.getName().endsWith(".sql");
     }
 }
@@ -0,0 +1,43 @@
+package org.jobrunr.storage.sql.common.migrations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+import static org.jobrunr.utils.io.IOUtils.copyStream;
+
+public class SqlMigrationByResource implements SqlMigration {
+
+    private final Class<?> clazz;
+    private final String folder;
+    private final String fileName;
+
+    public SqlMigrationByResource(Class<?> clazz, String folder, String fileName) {
+        this.clazz = clazz;
+        this.folder = folder;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public String getMigrationSql() throws IOException {
+        try (InputStream inputStream = clazz.getResourceAsStream(folder + "/" + fileName)) {
+            if (inputStream == null) throw new IOException("Migration " + folder + "/" + fileName + " not found next to " + clazz.getName());
+
+            final StringWriter migrationSql = new StringWriter();
+            copyStream(inputStream, migrationSql);
+            return migrationSql.toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SqlMigrationByResource{" +
+                "name=" + folder + "/" + fileName +
+                '}';
+    }
+}
@@ -3,5 +3,10 @@ package org.jobrunr.storage.sql.common.migrations;
 import java.util.stream.Stream;
 
 public interface SqlMigrationProvider {
-    Stream<SqlMigration> getMigrations(Class<?> clazz);
+
+    default Stream<SqlMigration> getMigrations(Class<?> clazz) {
+        return getMigrations(clazz, "migrations");
+    }
+
+    Stream<SqlMigration> getMigrations(Class<?> clazz, String folder);
 }
@@ -1,12 +1,12 @@
 package org.jobrunr.storage.sql.h2;
 
 import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
-import org.jobrunr.storage.sql.common.DefaultSqlStorageProvider;
+import org.jobrunr.storage.sql.common.SingleWriterSqlStorageProvider;
 import org.jobrunr.storage.sql.common.db.dialect.H2Dialect;
 
 import javax.sql.DataSource;
 
-public class H2StorageProvider extends DefaultSqlStorageProvider {
+public class H2StorageProvider extends SingleWriterSqlStorageProvider {
 
     public H2StorageProvider(DataSource dataSource) {
         this(dataSource, DatabaseOptions.CREATE);
@@ -0,0 +1,165 @@
+package org.jobrunr.storage.sql.postgres;
+
+import org.jobrunr.jobs.states.StateName;
+import org.jobrunr.storage.sql.common.db.Transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.jobrunr.jobs.states.StateName.DELETED;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
+import static org.jobrunr.storage.StorageProviderUtils.elementPrefixer;
+
+/**
+ * Manages the daily partitions of the SUCCEEDED and DELETED jobs in the partitioned jobs table (see {@link PostgresStorageProvider#usePartitionedJobTable()}).
+ * <p>
+ * The partitions are created a couple of days in advance and are bounded by the updatedAt column in the same time zone as JDBC stores
+ * the timestamps. The jobs that existed before the table was partitioned are kept in a history partition and are deleted row by row.
+ * <p>
+ * A daily partition is dropped in two steps: it is first detached concurrently, so that the jobs table is not locked exclusively, and then
+ * dropped together with the ids of its jobs. As the primary key of a partitioned table must contain the partition keys, the ids of the jobs
+ * are kept unique by a trigger that maintains them in an unpartitioned table.
+ */
+public class JobTablePartitions {
+
+    private static final int DAYS_IN_ADVANCE = 7;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern HISTORY_PARTITION_END = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final Connection connection;
+    private final String tablePrefix;
+
+    public JobTablePartitions(Connection connection, String tablePrefix) {
+        this.connection = connection;
+        this.tablePrefix = tablePrefix;
+    }
+
+    public static boolean isPartitioned(StateName state) {
+        return state == SUCCEEDED || state == DELETED;
+    }
+
+    public void createPartitions(Instant now) throws SQLException {
+        final LocalDate today = Timestamp.from(now).toLocalDateTime().toLocalDate();
+        try (final Statement statement = connection.createStatement()) {
+            for (StateName state : new StateName[]{SUCCEEDED, DELETED}) {
+                final LocalDate firstDay = getFirstDayAfterHistory(state).filter(today::isBefore).orElse(today);
+                for (LocalDate day = firstDay; !day.isAfter(today.plusDays(DAYS_IN_ADVANCE)); day = day.plusDays(1)) {
+                    statement.execute("create table if not exists " + partitionName(state, day) + " partition of " + parentName(state)
+                            + " for values from ('" + Timestamp.valueOf(day.atStartOfDay()) + "') to ('" + Timestamp.valueOf(day.plusDays(1).atStartOfDay()) + "')");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the daily partitions of the given state that only contain jobs updated before the given instant, including the ones of which
+     * dropping was interrupted after they were (partly) detached.
+     */
+    public List<DailyPartition> getPartitionsToDrop(StateName state, Instant updatedBefore) throws SQLException {
+        final LocalDateTime updatedBeforeAsStored = Timestamp.from(updatedBefore).toLocalDateTime();
+        final List<DailyPartition> partitions = new ArrayList<>();
+        try (final PreparedStatement ps = connection.prepareStatement("select p.relname, c.relname, i.inhrelid is not null, coalesce(i.inhdetachpending, false)"
+                + " from pg_class p"
+                + " join pg_class c on c.relnamespace = p.relnamespace and c.relkind = 'r' and c.relname like p.relname || '\\_p%'"
+                + " left join pg_inherits i on i.inhrelid = c.oid and i.inhparent = p.oid"
+                + " where p.oid = to_regclass(?)")) {
+            ps.setString(1, parentName(state));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    final String suffix = rs.getString(2).substring(rs.getString(1).length() + "_p".length());
+                    if (!suffix.matches("\\d{8}")) continue;
+
+                    final LocalDate day = LocalDate.parse(suffix, PARTITION_SUFFIX);
+                    if (day.plusDays(1).atStartOfDay().isAfter(updatedBeforeAsStored)) continue;
+                    partitions.add(new DailyPartition(state, day, rs.getBoolean(3), rs.getBoolean(4)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Detaches the given partition concurrently, which only takes a SHARE UPDATE EXCLUSIVE lock on the jobs table. This cannot run within
+     * a transaction, so it is committed on its own (and requires Postgres 14 or later).
+     */
+    public void detachPartition(DailyPartition partition) throws SQLException {
+        if (!partition.isAttached()) return;
+
+        try (final Transaction transaction = new Transaction(connection, true); final Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + parentName(partition.state) + " detach partition " + partitionName(partition.state, partition.day)
+                    + (partition.isDetachPending() ? " finalize" : " concurrently"));
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Drops the given detached partition and deletes the ids of its jobs.
+     *
+     * @return the amount of jobs in the dropped partition
+     */
+    public int dropPartition(DailyPartition partition) throws SQLException {
+        final String partitionName = partitionName(partition.state, partition.day);
+        try (final Statement statement = connection.createStatement()) {
+            final int amountDropped = statement.executeUpdate("delete from " + elementPrefixer(tablePrefix, "jobrunr_job_ids") + " where id in (select id from " + partitionName + ")");
+            statement.execute("drop table " + partitionName);
+            return amountDropped;
+        }
+    }
+
+    private Optional<LocalDate> getFirstDayAfterHistory(StateName state) throws SQLException {
+        try (final PreparedStatement ps = connection.prepareStatement("select pg_get_expr(c.relpartbound, c.oid) from pg_class c where c.oid = to_regclass(?)")) {
+            ps.setString(1, parentName(state) + "_history");
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+
+                final Matcher matcher = HISTORY_PARTITION_END.matcher(rs.getString(1));
+                if (!matcher.find()) return Optional.empty();
+                return Optional.of(Timestamp.valueOf(matcher.group(1)).toLocalDateTime().toLocalDate());
+            }
+        }
+    }
+
+    private String parentName(StateName state) {
+        return elementPrefixer(tablePrefix, "jobrunr_jobs_" + state.name().toLowerCase());
+    }
+
+    private String partitionName(StateName state, LocalDate day) {
+        return parentName(state) + "_p" + PARTITION_SUFFIX.format(day);
+    }
+
+    public static class DailyPartition {
+
+        private final StateName state;
+        private final LocalDate day;
+        private final boolean attached;
+        private final boolean detachPending;
+
+        private DailyPartition(StateName state, LocalDate day, boolean attached, boolean detachPending) {
+            this.state = state;
+            this.day = day;
+            this.attached = attached;
+            this.detachPending = detachPending;
+        }
+
+        public boolean isAttached() {
+            return attached;
+        }
+
+        public boolean isDetachPending() {
+            return detachPending;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package org.jobrunr.storage.sql.postgres;
 
+import org.jobrunr.jobs.states.StateName;
+import org.jobrunr.storage.StorageException;
 import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
 import org.jobrunr.storage.sql.common.DefaultSqlStorageProvider;
-import org.jobrunr.storage.sql.common.db.dialect.AnsiDialect;
+import org.jobrunr.storage.sql.common.db.Transaction;
+import org.jobrunr.storage.sql.common.db.dialect.PostgresDialect;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
 
 public class PostgresStorageProvider extends DefaultSqlStorageProvider {
 
+    private boolean partitionedJobTable;
+
     public PostgresStorageProvider(DataSource dataSource) {
         this(dataSource, DatabaseOptions.CREATE);
     }
@@ -17,11 +25,65 @@ public class PostgresStorageProvider extends DefaultSqlStorageProvider {
     }
 
     public PostgresStorageProvider(DataSource dataSource, DatabaseOptions databaseOptions) {
-        super(dataSource, new AnsiDialect(), databaseOptions);
+        super(dataSource, new PostgresDialect(), databaseOptions);
     }
 
     public PostgresStorageProvider(DataSource dataSource, String tablePrefix, DatabaseOptions databaseOptions) {
-        super(dataSource, new AnsiDialect(), tablePrefix, databaseOptions);
+        super(dataSource, new PostgresDialect(), tablePrefix, databaseOptions);
+    }
+
+    /**
+     * Partitions the jobs table by state: the SUCCEEDED and DELETED jobs each get a partition which is partitioned by day on updatedAt,
+     * all other jobs share a single partition. Deleting the SUCCEEDED and DELETED jobs permanently then drops whole daily partitions
+     * instead of deleting the jobs row by row, which avoids the bloat and vacuum pressure of mass deletes. Migrating rewrites the whole
+     * jobs table, so this is best done during a maintenance window.
+     * <p>
+     * Once migrated, this method must be called on every startup. Note that the {@link org.jobrunr.jobs.metadata.DisposableResource}s of
+     * jobs in dropped partitions are not disposed of. When also using native JSON columns, call this method first so that the metadata index
+     * is created on the partitioned table. Partitions are detached concurrently before they are dropped, which requires Postgres 14 or later.
+     */
+    public void usePartitionedJobTable() {
+        getDatabaseCreator().runOptionalMigrations("partitioned");
+        try (final Connection conn = getConnection(); final Transaction transaction = new Transaction(conn)) {
+            jobTablePartitions(conn).createPartitions(Instant.now());
+            transaction.commit();
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+        this.partitionedJobTable = true;
     }
 
+    @Override
+    public int deleteJobsPermanently(StateName state, Instant updatedBefore) {
+        if (!partitionedJobTable || !JobTablePartitions.isPartitioned(state)) {
+            return super.deleteJobsPermanently(state, updatedBefore);
+        }
+
+        int amountDropped = 0;
+        try (final Connection conn = getConnection()) {
+            final JobTablePartitions jobTablePartitions = jobTablePartitions(conn);
+            try (final Transaction transaction = new Transaction(conn, false)) {
+                jobTablePartitions.createPartitions(Instant.now());
+                transaction.commit();
+            }
+            for (JobTablePartitions.DailyPartition partition : jobTablePartitions.getPartitionsToDrop(state, updatedBefore)) {
+                jobTablePartitions.detachPartition(partition);
+                try (final Transaction transaction = new Transaction(conn, false)) {
+                    final int amountInPartition = jobTablePartitions.dropPartition(partition);
+                    jobCountersTable(conn).jobsDeleted(state, amountInPartition);
+                    transaction.commit();
+                    amountDropped += amountInPartition;
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+        notifyJobStatsOnChangeListenersIf(amountDropped > 0);
+        // jobs in the history partition and in the partition containing updatedBefore are still deleted row by row
+        return amountDropped + super.deleteJobsPermanently(state, updatedBefore);
+    }
+
+    protected JobTablePartitions jobTablePartitions(Connection connection) {
+        return new JobTablePartitions(connection, tablePrefix);
+    }
 }
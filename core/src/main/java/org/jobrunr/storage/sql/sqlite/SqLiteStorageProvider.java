@@ -1,34 +1,53 @@
 package org.jobrunr.storage.sql.sqlite;
 
+import org.jobrunr.storage.StorageException;
 import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
-import org.jobrunr.storage.sql.common.DefaultSqlStorageProvider;
+import org.jobrunr.storage.sql.common.SingleWriterSqlStorageProvider;
 import org.jobrunr.storage.sql.common.db.dialect.AnsiDialect;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 
 import static org.jobrunr.utils.StringUtils.isNotNullOrEmpty;
 
-public class SqLiteStorageProvider extends DefaultSqlStorageProvider {
+public class SqLiteStorageProvider extends SingleWriterSqlStorageProvider {
 
     public SqLiteStorageProvider(DataSource dataSource) {
         this(dataSource, DatabaseOptions.CREATE);
     }
 
     public SqLiteStorageProvider(DataSource dataSource, String tablePrefix) {
-        this(dataSource, DatabaseOptions.CREATE);
-        if (isNotNullOrEmpty(tablePrefix)) {
-            throw new IllegalArgumentException("SqLite does not support schema's.");
-        }
+        this(dataSource, tablePrefix, DatabaseOptions.CREATE);
     }
 
     public SqLiteStorageProvider(DataSource dataSource, DatabaseOptions databaseOptions) {
         super(dataSource, new AnsiDialect(), databaseOptions);
+        enableWriteAheadLog();
     }
 
     public SqLiteStorageProvider(DataSource dataSource, String tablePrefix, DatabaseOptions databaseOptions) {
-        super(dataSource, new AnsiDialect(), databaseOptions);
+        this(dataSource, validateNoTablePrefix(tablePrefix, databaseOptions));
+    }
+
+    // the table prefix is validated before the tables are created and the write-ahead log is enabled
+    private static DatabaseOptions validateNoTablePrefix(String tablePrefix, DatabaseOptions databaseOptions) {
         if (isNotNullOrEmpty(tablePrefix)) {
             throw new IllegalArgumentException("SqLite does not support schema's.");
         }
+        return databaseOptions;
+    }
+
+    /**
+     * With the write-ahead log, readers no longer block the (single) writer and the writer does not block the readers. The journal mode is stored
+     * in the database file so it only needs to be set once.
+     */
+    private void enableWriteAheadLog() {
+        try (final Connection conn = dataSource.getConnection(); final Statement statement = conn.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
     }
 }
@@ -10,6 +10,7 @@ import org.jobrunr.utils.reflection.ReflectionUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -83,6 +84,22 @@ public class JobUtils {
         return result;
     }
 
+    /**
+     * Returns the 64-bit FNV-1a hash of the UTF-8 bytes of the given job signature. It is stored next to the job signature so that lookups
+     * can use a narrow index; as hashes may collide, the job signature itself must still be compared.
+     *
+     * @param jobSignature the job signature to hash
+     * @return the hash of the job signature
+     */
+    public static long getJobSignatureHash(String jobSignature) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : jobSignature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
     private static Stream<Annotation> getJobAnnotations(JobDetails jobDetails) {
         if (jobDetails.getClassName().startsWith("java")) return Stream.empty();
 
@@ -0,0 +1,7 @@
+CREATE INDEX jobrunr_state_updated_idx ON jobrunr_jobs (state, updatedAt);
+CREATE INDEX jobrunr_state_scheduled_idx ON jobrunr_jobs (state, scheduledAt);
+CREATE INDEX jobrunr_rci_state_idx ON jobrunr_jobs (recurringJobId, state);
+DROP INDEX jobrunr_state_idx;
+DROP INDEX jobrunr_job_updated_at_idx;
+DROP INDEX jobrunr_job_scheduled_at_idx;
+DROP INDEX jobrunr_job_rci_idx
\ No newline at end of file
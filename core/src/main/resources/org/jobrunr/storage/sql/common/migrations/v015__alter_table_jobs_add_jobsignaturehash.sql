@@ -0,0 +1,4 @@
+ALTER TABLE jobrunr_jobs
+    ADD jobSignatureHash BIGINT;
+CREATE INDEX jobrunr_state_sighash_idx ON jobrunr_jobs (state, jobSignatureHash);
+DROP INDEX jobrunr_job_signature_idx
\ No newline at end of file
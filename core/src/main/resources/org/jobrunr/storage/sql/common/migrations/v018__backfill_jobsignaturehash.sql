@@ -0,0 +1 @@
+-- Empty migration: the jobSignatureHash of the jobs saved before v015 is computed in Java by the DatabaseCreator before this migration is marked as applied
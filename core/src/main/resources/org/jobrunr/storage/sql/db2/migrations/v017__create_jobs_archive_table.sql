@@ -0,0 +1,17 @@
+CREATE TABLE jobrunr_jobs_archive
+(
+    id               nchar(36)     NOT NULL,
+    version          bigint        NOT NULL,
+    jobAsJson        clob          NOT NULL,
+    jobSignature     NVARCHAR(255) NOT NULL,
+    state            NVARCHAR(36)  NOT NULL,
+    createdAt        TIMESTAMP(6)  NOT NULL,
+    updatedAt        TIMESTAMP(6)  NOT NULL,
+    scheduledAt      TIMESTAMP(6),
+    recurringJobId   nvarchar(128),
+    jobSignatureHash BIGINT,
+    PRIMARY KEY (id)
+);
+CREATE INDEX jobrunr_arch_state_upd_idx ON jobrunr_jobs_archive (state, updatedAt);
+CREATE INDEX jobrunr_arch_sighash_idx ON jobrunr_jobs_archive (state, jobSignatureHash);
+CREATE INDEX jobrunr_arch_rci_idx ON jobrunr_jobs_archive (recurringJobId, state);
\ No newline at end of file
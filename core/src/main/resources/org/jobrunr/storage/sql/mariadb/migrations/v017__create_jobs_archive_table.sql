@@ -0,0 +1,16 @@
+CREATE TABLE jobrunr_jobs_archive
+(
+    id               NCHAR(36) PRIMARY KEY,
+    version          int           NOT NULL,
+    jobAsJson        MEDIUMTEXT    NOT NULL,
+    jobSignature     VARCHAR(512)  NOT NULL,
+    state            VARCHAR(36)   NOT NULL,
+    createdAt        DATETIME(6)   NOT NULL,
+    updatedAt        DATETIME(6)   NOT NULL,
+    scheduledAt      DATETIME(6),
+    recurringJobId   VARCHAR(128),
+    jobSignatureHash BIGINT
+);
+CREATE INDEX jobrunr_arch_state_upd_idx ON jobrunr_jobs_archive (state, updatedAt);
+CREATE INDEX jobrunr_arch_sighash_idx ON jobrunr_jobs_archive (state, jobSignatureHash);
+CREATE INDEX jobrunr_arch_rci_idx ON jobrunr_jobs_archive (recurringJobId, state);
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE jobrunr_jobs
+    MODIFY jobAsJson JSON NOT NULL
\ No newline at end of file
@@ -0,0 +1,51 @@
+CREATE TABLE jobrunr_job_counters
+(
+    state  NVARCHAR2(36) NOT NULL,
+    stripe int           NOT NULL,
+    amount NUMBER(19)    NOT NULL,
+    PRIMARY KEY (state, stripe)
+);
+
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+VALUES ('SCHEDULED', 0, (select count(*) from jobrunr_jobs where state = 'SCHEDULED'));
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+VALUES ('ENQUEUED', 0, (select count(*) from jobrunr_jobs where state = 'ENQUEUED'));
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+VALUES ('PROCESSING', 0, (select count(*) from jobrunr_jobs where state = 'PROCESSING'));
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+VALUES ('FAILED', 0, (select count(*) from jobrunr_jobs where state = 'FAILED'));
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+VALUES ('SUCCEEDED', 0, (select count(*) from jobrunr_jobs where state = 'SUCCEEDED'));
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+VALUES ('DELETED', 0, (select count(*) from jobrunr_jobs where state = 'DELETED'));
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 1, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 2, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 3, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 4, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 5, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 6, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+INSERT INTO jobrunr_job_counters (state, stripe, amount)
+SELECT state, 7, 0 FROM jobrunr_job_counters WHERE stripe = 0;
+
+DROP VIEW jobrunr_jobs_stats;
+
+create view jobrunr_jobs_stats
+as
+select (select sum(amount) from jobrunr_job_counters)                                  as total,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'SCHEDULED')  as scheduled,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'ENQUEUED')   as enqueued,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'PROCESSING') as processing,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'FAILED')     as failed,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'SUCCEEDED')  as succeeded,
+       cast(cast(jm.value as char(10)) as decimal(10, 0))                              as allTimeSucceeded,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'DELETED')    as deleted,
+       (select count(*) from jobrunr_backgroundjobservers)                             as nbrOfBackgroundJobServers,
+       (select count(*) from jobrunr_recurring_jobs)                                   as nbrOfRecurringJobs
+from jobrunr_metadata jm
+where jm.id = 'succeeded-jobs-counter-cluster';
\ No newline at end of file
@@ -0,0 +1,41 @@
+CREATE TABLE jobrunr_counters
+(
+    name   NVARCHAR2(128) NOT NULL,
+    stripe int            NOT NULL,
+    amount NUMBER(19)     NOT NULL,
+    PRIMARY KEY (name, stripe)
+);
+
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 0, coalesce((select cast(cast(value as char(10)) as decimal(10, 0)) from jobrunr_metadata where id = 'succeeded-jobs-counter-cluster'), 0));
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 1, 0);
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 2, 0);
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 3, 0);
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 4, 0);
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 5, 0);
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 6, 0);
+INSERT INTO jobrunr_counters (name, stripe, amount)
+VALUES ('succeeded-jobs-counter-cluster', 7, 0);
+
+DROP VIEW jobrunr_jobs_stats;
+
+create view jobrunr_jobs_stats
+as
+select (select sum(amount) from jobrunr_job_counters)                                                as total,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'SCHEDULED')                as scheduled,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'ENQUEUED')                 as enqueued,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'PROCESSING')               as processing,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'FAILED')                   as failed,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'SUCCEEDED')                as succeeded,
+       (select sum(amount) from jobrunr_counters c where c.name = 'succeeded-jobs-counter-cluster') as allTimeSucceeded,
+       (select sum(amount) from jobrunr_job_counters jc where jc.state = 'DELETED')                  as deleted,
+       (select count(*) from jobrunr_backgroundjobservers)                                           as nbrOfBackgroundJobServers,
+       (select count(*) from jobrunr_recurring_jobs)                                                 as nbrOfRecurringJobs
+from jobrunr_metadata jm
+where jm.id = 'succeeded-jobs-counter-cluster';
\ No newline at end of file
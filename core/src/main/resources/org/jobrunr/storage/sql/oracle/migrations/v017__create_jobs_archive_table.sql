@@ -0,0 +1,17 @@
+CREATE TABLE jobrunr_jobs_archive
+(
+    id               nchar(36)      NOT NULL,
+    version          number(10)     NOT NULL,
+    jobAsJson        clob           NOT NULL,
+    jobSignature     NVARCHAR2(512) NOT NULL,
+    state            NVARCHAR2(36)  NOT NULL,
+    createdAt        TIMESTAMP(6)   NOT NULL,
+    updatedAt        TIMESTAMP(6)   NOT NULL,
+    scheduledAt      TIMESTAMP(6),
+    recurringJobId   nvarchar2(128),
+    jobSignatureHash NUMBER(19),
+    PRIMARY KEY (id)
+);
+CREATE INDEX jobrunr_arch_state_upd_idx ON jobrunr_jobs_archive (state, updatedAt);
+CREATE INDEX jobrunr_arch_sighash_idx ON jobrunr_jobs_archive (state, jobSignatureHash);
+CREATE INDEX jobrunr_arch_rci_idx ON jobrunr_jobs_archive (recurringJobId, state);
\ No newline at end of file
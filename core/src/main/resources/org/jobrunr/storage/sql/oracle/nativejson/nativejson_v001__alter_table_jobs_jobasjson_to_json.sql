@@ -0,0 +1,26 @@
+ALTER TABLE jobrunr_jobs
+    ADD jobAsJsonNative JSON;
+UPDATE jobrunr_jobs
+SET jobAsJsonNative = JSON(jobAsJson);
+ALTER TABLE jobrunr_jobs
+    DROP COLUMN jobAsJson;
+ALTER TABLE jobrunr_jobs
+    RENAME COLUMN jobAsJsonNative TO jobAsJson;
+ALTER TABLE jobrunr_jobs
+    MODIFY (jobAsJson NOT NULL);
+ALTER TABLE jobrunr_jobs
+    MODIFY (jobSignature INVISIBLE, state INVISIBLE, createdAt INVISIBLE, updatedAt INVISIBLE, scheduledAt INVISIBLE, recurringJobId INVISIBLE, jobSignatureHash INVISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (jobSignature VISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (state VISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (createdAt VISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (updatedAt VISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (scheduledAt VISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (recurringJobId VISIBLE);
+ALTER TABLE jobrunr_jobs
+    MODIFY (jobSignatureHash VISIBLE)
\ No newline at end of file
@@ -0,0 +1,10 @@
+ALTER TABLE jobrunr_jobs_archive
+    ADD jobAsJsonNative JSON;
+UPDATE jobrunr_jobs_archive
+SET jobAsJsonNative = JSON(jobAsJson);
+ALTER TABLE jobrunr_jobs_archive
+    DROP COLUMN jobAsJson;
+ALTER TABLE jobrunr_jobs_archive
+    RENAME COLUMN jobAsJsonNative TO jobAsJson;
+ALTER TABLE jobrunr_jobs_archive
+    MODIFY (jobAsJson NOT NULL)
\ No newline at end of file
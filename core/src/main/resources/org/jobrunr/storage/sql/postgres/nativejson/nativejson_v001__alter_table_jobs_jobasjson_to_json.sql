@@ -0,0 +1,3 @@
+ALTER TABLE jobrunr_jobs
+    ALTER COLUMN jobAsJson TYPE jsonb USING jobAsJson::jsonb;
+CREATE INDEX jobrunr_job_metadata_idx ON jobrunr_jobs USING GIN ((jobAsJson -> 'metadata') jsonb_path_ops)
\ No newline at end of file
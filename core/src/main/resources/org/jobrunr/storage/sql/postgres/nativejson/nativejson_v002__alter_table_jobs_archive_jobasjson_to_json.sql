@@ -0,0 +1,2 @@
+ALTER TABLE jobrunr_jobs_archive
+    ALTER COLUMN jobAsJson TYPE jsonb USING jobAsJson::jsonb
\ No newline at end of file
@@ -0,0 +1,46 @@
+ALTER TABLE jobrunr_jobs
+    RENAME TO jobrunr_jobs_unpartitioned;
+CREATE TABLE jobrunr_jobs
+(
+    LIKE jobrunr_jobs_unpartitioned INCLUDING DEFAULTS
+) PARTITION BY LIST (state);
+CREATE TABLE jobrunr_jobs_succeeded PARTITION OF jobrunr_jobs FOR VALUES IN ('SUCCEEDED') PARTITION BY RANGE (updatedAt);
+CREATE TABLE jobrunr_jobs_deleted PARTITION OF jobrunr_jobs FOR VALUES IN ('DELETED') PARTITION BY RANGE (updatedAt);
+CREATE TABLE jobrunr_jobs_active PARTITION OF jobrunr_jobs DEFAULT;
+DO $$
+DECLARE
+    historyEnd TIMESTAMP := date_trunc('day', greatest(localtimestamp, (SELECT max(updatedAt) FROM jobrunr_jobs_unpartitioned))) + INTERVAL '1 day';
+BEGIN
+    EXECUTE format('CREATE TABLE jobrunr_jobs_succeeded_history PARTITION OF jobrunr_jobs_succeeded FOR VALUES FROM (MINVALUE) TO (%L)', historyEnd);
+    EXECUTE format('CREATE TABLE jobrunr_jobs_deleted_history PARTITION OF jobrunr_jobs_deleted FOR VALUES FROM (MINVALUE) TO (%L)', historyEnd);
+END
+$$;
+INSERT INTO jobrunr_jobs
+SELECT *
+FROM jobrunr_jobs_unpartitioned;
+DROP TABLE jobrunr_jobs_unpartitioned;
+ALTER TABLE jobrunr_jobs
+    ADD PRIMARY KEY (id, state, updatedAt);
+CREATE TABLE jobrunr_job_ids
+(
+    id NCHAR(36) PRIMARY KEY
+);
+INSERT INTO jobrunr_job_ids
+SELECT id
+FROM jobrunr_jobs;
+CREATE OR REPLACE FUNCTION jobrunr_job_ids_sync() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO jobrunr_job_ids VALUES (NEW.id);
+    ELSE
+        DELETE FROM jobrunr_job_ids WHERE id = OLD.id;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+CREATE TRIGGER sync_job_ids AFTER INSERT OR DELETE ON jobrunr_jobs FOR EACH ROW EXECUTE FUNCTION jobrunr_job_ids_sync();
+CREATE INDEX jobrunr_job_created_at_idx ON jobrunr_jobs (createdAt);
+CREATE INDEX jobrunr_state_updated_idx ON jobrunr_jobs (state, updatedAt);
+CREATE INDEX jobrunr_state_scheduled_idx ON jobrunr_jobs (state, scheduledAt);
+CREATE INDEX jobrunr_rci_state_idx ON jobrunr_jobs (recurringJobId, state);
+CREATE INDEX jobrunr_state_sighash_idx ON jobrunr_jobs (state, jobSignatureHash)
@@ -4,6 +4,7 @@ import org.jobrunr.jobs.states.StateName;
 import org.jobrunr.storage.PageRequest;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -76,4 +77,14 @@ class RequestUrlTest {
         assertThat(pageRequest.getOrder()).isEqualTo("updatedAt:DESC");
     }
 
+    @Test
+    void testToRequestUrlWithCursorQueryParam() {
+        RequestUrl requestUrl = new MatchUrl("/api/jobs/enqueued?cursor=1600000000.123456000_4a3ba2b0-5bd4-4e11-a8b2-7a6e1e0e2f3a&limit=2&order=updatedAt:DESC").toRequestUrl("/api/jobs/:state");
+        PageRequest pageRequest = requestUrl.fromQueryParams(PageRequest.class);
+        assertThat(pageRequest.hasCursor()).isTrue();
+        assertThat(pageRequest.getCursorUpdatedAt()).isEqualTo(Instant.ofEpochSecond(1600000000, 123456000));
+        assertThat(pageRequest.getCursorId()).isEqualTo(UUID.fromString("4a3ba2b0-5bd4-4e11-a8b2-7a6e1e0e2f3a"));
+        assertThat(pageRequest.getCursorOrder()).isEqualTo(PageRequest.Order.DESC);
+    }
+
 }
\ No newline at end of file
@@ -22,6 +22,8 @@ import static org.jobrunr.jobs.JobTestBuilder.aJob;
 import static org.jobrunr.jobs.JobTestBuilder.aScheduledJob;
 import static org.jobrunr.jobs.JobTestBuilder.aSucceededJob;
 import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
 
 @ExtendWith(MockitoExtension.class)
 class JobTest {
@@ -45,6 +47,22 @@ class JobTest {
         assertThat(job.getJobSignature()).isEqualTo("java.lang.System.out.println(java.lang.String)");
     }
 
+    @Test
+    void lastSavedStateIsTrackedUntilTheJobIsSaved() {
+        Job job = anEnqueuedJob().build();
+        assertThat(job.getLastSavedState()).isEqualTo(ENQUEUED);
+        assertThat(job.getAmountOfSavedStates()).isEqualTo(1);
+
+        job.startProcessingOn(backgroundJobServer);
+        job.succeeded();
+        assertThat(job.getLastSavedState()).isEqualTo(ENQUEUED);
+        assertThat(job.getAmountOfSavedStates()).isEqualTo(1);
+
+        job.stateSaved();
+        assertThat(job.getLastSavedState()).isEqualTo(SUCCEEDED);
+        assertThat(job.getAmountOfSavedStates()).isEqualTo(3);
+    }
+
     @Test
     void jobCannotGoToProcessingTwice() {
         Job job = anEnqueuedJob().build();
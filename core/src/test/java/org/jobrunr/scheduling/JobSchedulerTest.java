@@ -11,6 +11,7 @@ import org.jobrunr.jobs.states.JobState;
 import org.jobrunr.scheduling.cron.Cron;
 import org.jobrunr.storage.JobNotFoundException;
 import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.sql.SqlStorageProvider;
 import org.jobrunr.stubs.TestService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,14 +19,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.sql.Connection;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -81,6 +87,27 @@ class JobSchedulerTest {
         assertThat(jobClientLogFilter.onCreated).isTrue();
     }
 
+    @Test
+    void enqueueUsingConnectionSavesJobUsingThatConnection() {
+        final SqlStorageProvider sqlStorageProvider = mock(SqlStorageProvider.class);
+        final Connection connection = mock(Connection.class);
+        when(sqlStorageProvider.inTransaction(eq(connection), any())).thenAnswer(invocation -> invocation.<Function<StorageProvider, ?>>getArgument(1).apply(storageProvider));
+        when(storageProvider.save(any(Job.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        jobScheduler = new JobScheduler(sqlStorageProvider, List.of(jobClientLogFilter));
+
+        jobScheduler.enqueueInTransaction(connection, () -> testService.doWork());
+
+        verify(storageProvider).save(any(Job.class));
+        assertThat(jobClientLogFilter.onCreating).isTrue();
+        assertThat(jobClientLogFilter.onCreated).isTrue();
+    }
+
+    @Test
+    void enqueueUsingConnectionIsOnlySupportedBySqlStorageProviders() {
+        assertThatThrownBy(() -> jobScheduler.enqueueInTransaction(mock(Connection.class), () -> testService.doWork()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     void onRecurringJobCreatingAndCreatedAreCalled() {
         when(storageProvider.saveRecurringJob(any(RecurringJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -88,6 +89,7 @@ class JobZooKeeperTest {
     @BeforeEach
     void setUpBackgroundJobZooKeeper() {
         when(backgroundJobServer.getConfiguration()).thenReturn(usingStandardBackgroundJobServerConfiguration());
+        lenient().when(storageProvider.inTransaction(any())).thenAnswer(invocation -> invocation.<Function<StorageProvider, ?>>getArgument(0).apply(storageProvider));
         logAllStateChangesFilter = new BackgroundJobTestFilter();
         backgroundJobServerStatus = aDefaultBackgroundJobServerStatus().withIsStarted().build();
         jobZooKeeper = initializeJobZooKeeper();
@@ -238,6 +240,26 @@ class JobZooKeeperTest {
         verify(backgroundJobServer).processJob(enqueuedJob);
     }
 
+    @Test
+    void newEnqueuedJobsNotifiedByTheStorageProviderAreSubmittedToTheBackgroundJobServer() {
+        final Job enqueuedJob = anEnqueuedJob().build();
+        when(backgroundJobServer.isRunning()).thenReturn(true);
+        when(storageProvider.getJobs(eq(ENQUEUED), any())).thenReturn(List.of(enqueuedJob));
+
+        jobZooKeeper.onNewEnqueuedJobs();
+
+        verify(backgroundJobServer).processJob(enqueuedJob);
+    }
+
+    @Test
+    void newEnqueuedJobsNotifiedByTheStorageProviderAreIgnoredIfProcessingIsPaused() {
+        when(backgroundJobServer.isRunning()).thenReturn(false);
+
+        jobZooKeeper.onNewEnqueuedJobs();
+
+        verifyNoInteractions(storageProvider);
+    }
+
     @Test
     void checkForEnqueuedJobsIsNotDoneConcurrently() throws InterruptedException {
         when(storageProvider.getJobs(eq(ENQUEUED), any())).thenAnswer((invocationOnMock) -> {
@@ -327,6 +349,21 @@ class JobZooKeeperTest {
         verify(storageProvider).deleteJobsPermanently(eq(DELETED), any());
     }
 
+    @Test
+    void checkForJobsToArchive() {
+        jobZooKeeper.run();
+
+        verify(storageProvider).archiveJobs();
+    }
+
+    @Test
+    void checkForJobStatsToReconcileIsOnlyDoneOncePerInterval() {
+        jobZooKeeper.run();
+        jobZooKeeper.run();
+
+        verify(storageProvider, times(1)).reconcileJobStats();
+    }
+
     @Test
     void allStateChangesArePassingViaTheApplyStateFilterOnSuccess() {
         Job job = aScheduledJob().build();
@@ -10,6 +10,7 @@ import org.jobrunr.jobs.states.StateName;
 import org.jobrunr.scheduling.BackgroundJob;
 import org.jobrunr.server.BackgroundJobServer;
 import org.jobrunr.storage.listeners.BackgroundJobServerStatusChangeListener;
+import org.jobrunr.storage.listeners.EnqueuedJobsChangeListener;
 import org.jobrunr.storage.listeners.JobChangeListener;
 import org.jobrunr.storage.listeners.JobStatsChangeListener;
 import org.jobrunr.storage.listeners.MetadataChangeListener;
@@ -135,6 +136,15 @@ class AbstractStorageProviderTest {
         assertThat(timerAfterRemovingChangeListener).isNull();
     }
 
+    @Test
+    void updateTimerIsNotStartedForEnqueuedJobsChangeListeners() {
+        final EnqueuedJobsChangeListener changeListener = () -> {};
+
+        storageProvider.addJobStorageOnChangeListener(changeListener);
+        final Timer timerAfterAddingChangeListener = getInternalState(storageProvider, "timer");
+        assertThat(timerAfterAddingChangeListener).isNull();
+    }
+
     @Test
     void updateTimerIsStoppedWhenStorageProviderIsStopped() {
         final JobStatsChangeListenerForTest changeListener = new JobStatsChangeListenerForTest();
@@ -1,9 +1,13 @@
 package org.jobrunr.storage;
 
+import org.jobrunr.jobs.Job;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
 import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAtAfter;
 
 class PageRequestTest {
 
@@ -15,4 +19,24 @@ class PageRequestTest {
         assertThat(pageRequest.getOffset()).isEqualTo(20);
         assertThat(pageRequest.getLimit()).isEqualTo(20);
     }
+
+    @Test
+    void testPageRequestWithCursor() {
+        final Job job = anEnqueuedJob().build();
+        PageRequest pageRequest = ascOnUpdatedAtAfter(job, 20);
+
+        assertThat(pageRequest.hasCursor()).isTrue();
+        assertThat(pageRequest.getCursorUpdatedAt()).isEqualTo(job.getUpdatedAt());
+        assertThat(pageRequest.getCursorId()).isEqualTo(job.getId());
+        assertThat(pageRequest.getCursorOrder()).isEqualTo(PageRequest.Order.ASC);
+        assertThat(pageRequest.getOffset()).isZero();
+        assertThat(pageRequest.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void testPageRequestWithCursorOnlySupportsOrderOnUpdatedAt() {
+        PageRequest pageRequest = new PageRequest("createdAt:ASC", PageRequest.cursorOf(anEnqueuedJob().build()), 20);
+
+        assertThatThrownBy(pageRequest::getCursorOrder).isInstanceOf(IllegalArgumentException.class);
+    }
 }
\ No newline at end of file
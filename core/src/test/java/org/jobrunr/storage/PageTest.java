@@ -1,10 +1,15 @@
 package org.jobrunr.storage;
 
+import org.jobrunr.jobs.Job;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAtAfter;
 
 class PageTest {
 
@@ -68,4 +73,26 @@ class PageTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    void testFirstPageOfKeysetPagingHasNoPrevious() {
+        final Job job1 = anEnqueuedJob().build();
+        final Job job2 = anEnqueuedJob().build();
+        Page<Job> page = new Page<>(5, asList(job1, job2), ascOnUpdatedAt(2));
+        assertThat(page.getOffset()).isZero();
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(PageRequest.cursorOf(job2));
+    }
+
+    @Test
+    void testKeysetPaging() {
+        final Job job1 = anEnqueuedJob().build();
+        final Job job2 = anEnqueuedJob().build();
+        Page<Job> page = new Page<>(5, asList(job1, job2), ascOnUpdatedAtAfter(job1, 2));
+        assertThat(page.getOffset()).isZero();
+        assertThat(page.hasPrevious()).isTrue();
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(PageRequest.cursorOf(job2));
+    }
+
 }
\ No newline at end of file
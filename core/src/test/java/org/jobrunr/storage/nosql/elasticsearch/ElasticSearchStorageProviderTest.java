@@ -3,21 +3,31 @@ package org.jobrunr.storage.nosql.elasticsearch;
 import org.apache.http.HttpHost;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.jobrunr.jobs.Job;
 import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.storage.ConcurrentJobModificationException;
 import org.jobrunr.storage.StorageProvider;
 import org.jobrunr.storage.StorageProviderTest;
 import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
 import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.elasticsearch.ElasticsearchContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.io.IOException;
+import java.time.Duration;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
 import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -48,6 +58,31 @@ class ElasticSearchStorageProviderTest extends StorageProviderTest {
         return elasticSearchStorageProvider;
     }
 
+    @Test
+    void withNearRealTimeRefreshSavedJobsCanBeReadByIdBeforeTheyAreVisibleToSearches() {
+        final ElasticSearchStorageProvider nearRealTimeStorageProvider = (ElasticSearchStorageProvider) getStorageProvider();
+        nearRealTimeStorageProvider.useNearRealTimeRefresh(RefreshPolicy.NONE, Duration.ofSeconds(30));
+
+        final Job job = nearRealTimeStorageProvider.save(anEnqueuedJob().build());
+        assertThat(nearRealTimeStorageProvider.getJobById(job.getId())).isEqualTo(job);
+        assertThat(nearRealTimeStorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+
+        final Job staleJob = nearRealTimeStorageProvider.getJobById(job.getId());
+        job.startProcessingOn(backgroundJobServer);
+        nearRealTimeStorageProvider.save(job);
+        staleJob.startProcessingOn(backgroundJobServer);
+        assertThatThrownBy(() -> nearRealTimeStorageProvider.save(staleJob)).isInstanceOf(ConcurrentJobModificationException.class);
+    }
+
+    @Test
+    void withNearRealTimeRefreshAndWaitUntilSavedJobsAreVisibleToSearchesWhenSaveReturns() {
+        final ElasticSearchStorageProvider nearRealTimeStorageProvider = (ElasticSearchStorageProvider) getStorageProvider();
+        nearRealTimeStorageProvider.useNearRealTimeRefresh(RefreshPolicy.WAIT_UNTIL, Duration.ofMillis(100));
+
+        final Job job = nearRealTimeStorageProvider.save(anEnqueuedJob().build());
+        assertThat(nearRealTimeStorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+    }
+
     @Override
     protected ThrowingStorageProvider makeThrowingStorageProvider(StorageProvider storageProvider) {
         return new ThrowingElasticSearchStorageProvider(storageProvider);
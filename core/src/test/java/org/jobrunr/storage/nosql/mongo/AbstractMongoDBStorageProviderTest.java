@@ -13,17 +13,30 @@ import org.bson.codecs.UuidCodec;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
+import org.jobrunr.jobs.Job;
 import org.jobrunr.jobs.mappers.JobMapper;
 import org.jobrunr.storage.StorageProvider;
 import org.jobrunr.storage.StorageProviderTest;
 import org.jobrunr.storage.StorageProviderUtils;
+import org.jobrunr.storage.StorageProviderUtils.Jobs;
 import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.GenericContainer;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
-
+import java.util.Date;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.eq;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
+import static org.jobrunr.storage.nosql.mongo.MongoDBStorageProvider.toMongoId;
 import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -59,13 +72,81 @@ public abstract class AbstractMongoDBStorageProviderTest extends StorageProvider
         return new ThrowingMongoDBStorageProvider(storageProvider);
     }
 
+    @Test
+    void claimedEnqueuedJobsAreOnlyReturnedToOneServer() {
+        final MongoDBStorageProvider server1StorageProvider = (MongoDBStorageProvider) getStorageProvider();
+        server1StorageProvider.useClaimingOfEnqueuedJobs(Duration.ofMinutes(5));
+        final MongoDBStorageProvider server2StorageProvider = (MongoDBStorageProvider) getStorageProvider();
+        server2StorageProvider.useClaimingOfEnqueuedJobs(Duration.ofMinutes(5));
+        final Job job1 = storageProvider.save(anEnqueuedJob().build());
+        final Job job2 = storageProvider.save(anEnqueuedJob().build());
+
+        final List<Job> jobsOfServer1 = server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(1));
+        final List<Job> jobsOfServer2 = server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10));
+
+        assertThat(jobsOfServer1).containsExactly(job1);
+        assertThat(jobsOfServer2).containsExactly(job2);
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+        assertThat(storageProvider.getJobPage(ENQUEUED, ascOnUpdatedAt(10)).getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void claimedEnqueuedJobsCanBeClaimedAgainOnceTheClaimExpiredOrTheJobWasSaved() {
+        final MongoDBStorageProvider server1StorageProvider = (MongoDBStorageProvider) getStorageProvider();
+        server1StorageProvider.useClaimingOfEnqueuedJobs(Duration.ofMinutes(5));
+        final MongoDBStorageProvider server2StorageProvider = (MongoDBStorageProvider) getStorageProvider();
+        server2StorageProvider.useClaimingOfEnqueuedJobs(Duration.ZERO);
+        final Job job = storageProvider.save(anEnqueuedJob().build());
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+
+        storageProvider.save(job);
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+    }
+
+    @Test
+    void deletedJobsGetAnExpiryIfExpiryIsUsedForRetention() {
+        final MongoDBStorageProvider expiringStorageProvider = (MongoDBStorageProvider) getStorageProvider();
+        expiringStorageProvider.useExpiryForRetention(Duration.ofDays(1));
+        final Job job = expiringStorageProvider.save(anEnqueuedJob().build());
+        assertThat(jobDocument(job)).doesNotContainKey(Jobs.FIELD_EXPIRE_AT);
+
+        job.delete("no longer needed");
+        expiringStorageProvider.save(job);
+        assertThat(jobDocument(job).getDate(Jobs.FIELD_EXPIRE_AT)).isEqualTo(Date.from(job.getUpdatedAt().plus(Duration.ofDays(1))));
+
+        job.enqueue();
+        expiringStorageProvider.save(job);
+        assertThat(jobDocument(job)).doesNotContainKey(Jobs.FIELD_EXPIRE_AT);
+    }
+
+    @Test
+    void theExpireAtIndexOnlyExistsWhileExpiryIsUsedForRetention() {
+        final MongoDBStorageProvider expiringStorageProvider = (MongoDBStorageProvider) getStorageProvider();
+        expiringStorageProvider.useExpiryForRetention(Duration.ofDays(1));
+        assertThat(jobIndexNames()).contains(Jobs.FIELD_EXPIRE_AT + "_1");
+
+        expiringStorageProvider.useExpiryForRetention(null);
+        assertThat(jobIndexNames()).doesNotContain(Jobs.FIELD_EXPIRE_AT + "_1");
+        assertThatCode(() -> expiringStorageProvider.useExpiryForRetention(null)).doesNotThrowAnyException();
+    }
+
     @AfterAll
     public static void closeMongoClient() {
         mongoClient.close();
         mongoClient = null;
     }
 
-    private MongoClient mongoClient() {
+    private List<String> jobIndexNames() {
+        return mongoClient().getDatabase(MongoDBStorageProvider.DEFAULT_DB_NAME).getCollection(Jobs.NAME).listIndexes().map(index -> index.getString("name")).into(new ArrayList<>());
+    }
+
+    private Document jobDocument(Job job) {
+        return mongoClient().getDatabase(MongoDBStorageProvider.DEFAULT_DB_NAME).getCollection(Jobs.NAME).find(eq(toMongoId(Jobs.FIELD_ID), job.getId())).first();
+    }
+
+    protected MongoClient mongoClient() {
         GenericContainer mongoContainer = getMongoContainer();
         if (mongoClient == null) {
             CodecRegistry codecRegistry = CodecRegistries.fromRegistries(
@@ -0,0 +1,80 @@
+package org.jobrunr.storage.nosql.mongo;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.jobrunr.jobs.Job;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.StorageProviderUtils.Jobs;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.mongodb.client.model.Filters.eq;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.storage.nosql.mongo.MongoDBStorageProvider.toMongoId;
+
+@Testcontainers
+public class MongoDBNativeJobDocumentsStorageProviderTest extends AbstractMongoDBStorageProviderTest {
+
+    @Container
+    private static final GenericContainer mongoContainer = new GenericContainer("mongo:latest").withExposedPorts(27017);
+
+    @Override
+    protected GenericContainer getMongoContainer() {
+        return mongoContainer;
+    }
+
+    @Override
+    protected StorageProvider getStorageProvider() {
+        final MongoDBStorageProvider storageProvider = (MongoDBStorageProvider) super.getStorageProvider();
+        storageProvider.useNativeJobDocuments();
+        return storageProvider;
+    }
+
+    @Test
+    void jobsAreStoredAsDocumentsWithTheirHistoryAsAnArray() {
+        final Job job = storageProvider.save(anEnqueuedJob().build());
+        job.startProcessingOn(backgroundJobServer);
+        storageProvider.save(job);
+        job.updateProcessing();
+        storageProvider.save(job);
+
+        final Document document = jobCollection().find(eq(toMongoId(Jobs.FIELD_ID), job.getId())).first();
+        assertThat(document).doesNotContainKey(Jobs.FIELD_JOB_AS_JSON);
+        assertThat(document.get(Jobs.FIELD_JOB_AS_DOCUMENT, Document.class).getList("jobHistory", Document.class)).hasSize(2);
+        assertThat(storageProvider.getJobById(job.getId())).isEqualTo(job);
+    }
+
+    @Test
+    void jobsStoredAsJsonAreConvertedToDocumentsWhenTheyAreSavedAgain() {
+        final StorageProvider jsonStorageProvider = super.getStorageProvider();
+        final Job job = jsonStorageProvider.save(anEnqueuedJob().build());
+        assertThat(storageProvider.getJobById(job.getId())).isEqualTo(job);
+
+        job.startProcessingOn(backgroundJobServer);
+        storageProvider.save(job);
+
+        final Document document = jobCollection().find(eq(toMongoId(Jobs.FIELD_ID), job.getId())).first();
+        assertThat(document).doesNotContainKey(Jobs.FIELD_JOB_AS_JSON);
+        assertThat(document).containsKey(Jobs.FIELD_JOB_AS_DOCUMENT);
+        assertThat(jsonStorageProvider.getJobById(job.getId())).isEqualTo(job);
+    }
+
+    @Test
+    void jobsWithMetadataKeysThatAreNoValidFieldNamesCanBeSavedAndLoaded() {
+        final Job job = storageProvider.save(anEnqueuedJob()
+                .withMetadata("some.key", "some value")
+                .withMetadata("$other", "other value")
+                .build());
+
+        final Job jobFromStorage = storageProvider.getJobById(job.getId());
+        assertThat(jobFromStorage).isEqualTo(job);
+        assertThat(jobFromStorage.getMetadata()).containsEntry("some.key", "some value").containsEntry("$other", "other value");
+    }
+
+    private MongoCollection<Document> jobCollection() {
+        return mongoClient().getDatabase(MongoDBStorageProvider.DEFAULT_DB_NAME).getCollection(Jobs.NAME);
+    }
+}
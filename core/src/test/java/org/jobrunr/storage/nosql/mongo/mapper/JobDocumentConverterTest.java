@@ -0,0 +1,47 @@
+package org.jobrunr.storage.nosql.mongo.mapper;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobDocumentConverterTest {
+
+    @Test
+    void numbersAreStoredWithoutLosingPrecision() {
+        final String json = "{\"int\":5,\"long\":12345678901,\"double\":0.1,\"bigDecimal\":12345678901234567890.123456789,\"scale\":1.50,"
+                + "\"tooLargeForDecimal128\":1234567890123456789012345678901234567890.5}";
+
+        final Document document = JobDocumentConverter.toDocument(json);
+
+        assertThat(document.get("int")).isEqualTo(5);
+        assertThat(document.get("long")).isEqualTo(12345678901L);
+        assertThat(document.get("double")).isEqualTo(0.1);
+        assertThat(document.get("bigDecimal")).isEqualTo(new Decimal128(new BigDecimal("12345678901234567890.123456789")));
+        assertThat(document.get("scale")).isEqualTo(new Decimal128(new BigDecimal("1.50")));
+        assertThat(JobDocumentConverter.toJson(document)).isEqualTo(json);
+    }
+
+    @Test
+    void fieldNamesThatMongoDBDoesNotAcceptAreEncoded() {
+        final String json = "{\"metadata\":{\"some.key\":\"value\",\"$other\":true,\"50%\":null,\"%2E\":[1,{},[]]}}";
+
+        final Document document = JobDocumentConverter.toDocument(json);
+
+        assertThat(document.get("metadata", Document.class)).containsOnlyKeys("some%2Ekey", "%24other", "50%25", "%252E");
+        assertThat(JobDocumentConverter.toJson(document)).isEqualTo(json);
+    }
+
+    @Test
+    void stringsAreEscaped() {
+        final String json = "{\"value\":\"a \\\"quoted\\\" \\\\ string\\nwith a control character \\u0001\"}";
+
+        final Document document = JobDocumentConverter.toDocument(json);
+
+        assertThat(document.getString("value")).isEqualTo("a \"quoted\" \\ string\nwith a control character \u0001");
+        assertThat(JobDocumentConverter.toJson(document)).isEqualTo(json);
+    }
+}
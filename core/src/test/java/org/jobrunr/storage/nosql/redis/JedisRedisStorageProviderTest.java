@@ -1,20 +1,36 @@
 package org.jobrunr.storage.nosql.redis;
 
+import org.jobrunr.jobs.Job;
 import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.storage.JobNotFoundException;
 import org.jobrunr.storage.StorageProvider;
 import org.jobrunr.storage.StorageProviderTest;
 import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.Transaction;
 import redis.clients.jedis.exceptions.JedisException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.jobrunr.jobs.JobTestBuilder.aSucceededJob;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.DELETED;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
 import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
-import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.util.reflection.Whitebox.setInternalState;
@@ -46,6 +62,92 @@ public class JedisRedisStorageProviderTest extends StorageProviderTest {
         return new ThrowingJedisStorageProvider(storageProvider);
     }
 
+    @Test
+    void streamOfEnqueuedJobsDeliversEachEnqueuedJobToOneServer() {
+        final Job jobEnqueuedBeforeStreamWasUsed = storageProvider.save(anEnqueuedJob().build());
+        final JedisRedisStorageProvider server1StorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+        server1StorageProvider.useStreamForEnqueuedJobs(Duration.ofMinutes(5));
+        final JedisRedisStorageProvider server2StorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+        server2StorageProvider.useStreamForEnqueuedJobs(Duration.ofMinutes(5));
+        final Job jobEnqueuedAfterStreamWasUsed = server1StorageProvider.save(anEnqueuedJob().build());
+
+        final List<Job> jobsOfServer1 = server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(1));
+        final List<Job> jobsOfServer2 = server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10));
+
+        final List<Job> deliveredJobs = new ArrayList<>(jobsOfServer1);
+        deliveredJobs.addAll(jobsOfServer2);
+        assertThat(jobsOfServer1).hasSize(1);
+        assertThat(deliveredJobs).containsExactlyInAnyOrder(jobEnqueuedBeforeStreamWasUsed, jobEnqueuedAfterStreamWasUsed);
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+    }
+
+    @Test
+    void streamOfEnqueuedJobsDeliversJobsThatAreStillEnqueuedAgainOnceTheyWereIdleForTooLong() {
+        final JedisRedisStorageProvider server1StorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+        server1StorageProvider.useStreamForEnqueuedJobs(Duration.ofMinutes(5));
+        final JedisRedisStorageProvider server2StorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+        server2StorageProvider.useStreamForEnqueuedJobs(Duration.ZERO);
+        final Job job = server1StorageProvider.save(anEnqueuedJob().build());
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+
+        job.startProcessingOn(backgroundJobServer);
+        server2StorageProvider.save(job);
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+    }
+
+    @Test
+    void deletedJobsExpireAndTheirIdsAreRemovedByThePermanentDeletion() {
+        final JedisRedisStorageProvider expiringStorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+        expiringStorageProvider.useExpiryForRetention(Duration.ofMillis(500));
+        final Job job = expiringStorageProvider.save(anEnqueuedJob().build());
+        job.delete("no longer needed");
+        expiringStorageProvider.save(job);
+
+        await().atMost(FIVE_SECONDS).untilAsserted(() -> assertThat(expiringStorageProvider.getJobs(DELETED, ascOnUpdatedAt(10))).isEmpty());
+        assertThatThrownBy(() -> expiringStorageProvider.getJobById(job.getId())).isInstanceOf(JobNotFoundException.class);
+        assertThat(expiringStorageProvider.getJobStats().getDeleted()).isEqualTo(1);
+
+        expiringStorageProvider.deleteJobsPermanently(DELETED, Instant.now());
+        assertThat(expiringStorageProvider.getJobStats().getDeleted()).isZero();
+    }
+
+    @Test
+    void succeededJobsExpireAndTheirIdsAreRemovedByThePermanentDeletion() {
+        final JedisRedisStorageProvider expiringStorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+        expiringStorageProvider.useExpiryForRetention(null, Duration.ofMillis(500));
+        final Job job = expiringStorageProvider.save(aSucceededJob().build());
+
+        await().atMost(FIVE_SECONDS).untilAsserted(() -> assertThat(expiringStorageProvider.getJobs(SUCCEEDED, ascOnUpdatedAt(10))).isEmpty());
+        assertThatThrownBy(() -> expiringStorageProvider.getJobById(job.getId())).isInstanceOf(JobNotFoundException.class);
+        assertThat(expiringStorageProvider.getJobStats().getSucceeded()).isEqualTo(1);
+
+        expiringStorageProvider.deleteJobsPermanently(DELETED, Instant.now());
+        assertThat(expiringStorageProvider.getJobStats().getSucceeded()).isZero();
+        assertThat(expiringStorageProvider.getJobStats().getAllTimeSucceeded()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreOnlyHashTaggedOnceEnabled() {
+        final Job job = storageProvider.save(anEnqueuedJob().build());
+        try (Jedis jedis = getJedisPool().getResource()) {
+            jedis.set("other-application:key", "some-value");
+            assertThat(jedis.exists("job:" + job.getId())).isTrue();
+
+            final JedisRedisStorageProvider hashTaggedStorageProvider = (JedisRedisStorageProvider) getStorageProvider();
+            hashTaggedStorageProvider.useHashTaggedKeys();
+
+            assertThat(jedis.exists("job:" + job.getId())).isFalse();
+            assertThat(jedis.exists("{jobrunr}:job:" + job.getId())).isTrue();
+            assertThat(jedis.get("other-application:key")).isEqualTo("some-value");
+            assertThat(hashTaggedStorageProvider.getJobById(job.getId())).isEqualTo(job);
+            assertThat(hashTaggedStorageProvider.getJobStats().getEnqueued()).isEqualTo(1);
+        }
+    }
+
     @AfterAll
     public static void shutdownJedisPool() {
         getJedisPool().close();
@@ -67,13 +169,10 @@ public class JedisRedisStorageProviderTest extends StorageProviderTest {
         @Override
         protected void makeStorageProviderThrowException(StorageProvider storageProvider) {
             JedisPool jedisPoolMock = mock(JedisPool.class);
-            Jedis jedisMock = mock(Jedis.class);
-            Transaction transactionMock = mock(Transaction.class);
+            Jedis jedisMock = mock(Jedis.class, invocation -> {
+                throw new JedisException("some exception");
+            });
             when(jedisPoolMock.getResource()).thenReturn(jedisMock);
-            String versionMatcher = endsWith("version");
-            when(jedisMock.get(versionMatcher)).thenReturn("1");
-            when(jedisMock.multi()).thenReturn(transactionMock);
-            when(jedisMock.unwatch()).thenThrow(new JedisException("some exception"));
             setInternalState(storageProvider, "jedisPool", jedisPoolMock);
         }
     }
@@ -0,0 +1,46 @@
+package org.jobrunr.storage.nosql.redis;
+
+import io.lettuce.core.RedisException;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
+
+import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.internal.util.reflection.Whitebox.setInternalState;
+
+public class LettuceRedisSharedConnectionStorageProviderTest extends LettuceRedisStorageProviderTest {
+
+    @Override
+    protected ThrowingStorageProvider makeThrowingStorageProvider(StorageProvider storageProvider) {
+        return new LettuceRedisSharedConnectionThrowingStorageProvider(storageProvider);
+    }
+
+    @Override
+    protected StorageProvider getStorageProvider() {
+        final LettuceRedisStorageProvider lettuceRedisStorageProvider = new LettuceRedisStorageProvider(getRedisClient(), rateLimit().withoutLimits());
+        lettuceRedisStorageProvider.useSharedConnection(getRedisClient().connect());
+        lettuceRedisStorageProvider.setJobMapper(new JobMapper(new JacksonJsonMapper()));
+        return lettuceRedisStorageProvider;
+    }
+
+    public static class LettuceRedisSharedConnectionThrowingStorageProvider extends ThrowingStorageProvider {
+
+        public LettuceRedisSharedConnectionThrowingStorageProvider(StorageProvider storageProvider) {
+            super(storageProvider, "sharedConnection");
+        }
+
+        @Override
+        protected void makeStorageProviderThrowException(StorageProvider storageProvider) {
+            StatefulRedisConnection<String, String> connection = mock(StatefulRedisConnection.class);
+            RedisCommands<String, String> commands = mock(RedisCommands.class, invocation -> {
+                throw new RedisException("some exception");
+            });
+            when(connection.sync()).thenReturn(commands);
+            setInternalState(storageProvider, "sharedConnection", connection);
+        }
+    }
+}
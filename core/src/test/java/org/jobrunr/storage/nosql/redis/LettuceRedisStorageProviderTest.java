@@ -6,17 +6,37 @@ import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.sync.RedisCommands;
 import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.RecurringJob;
 import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.scheduling.cron.Cron;
+import org.jobrunr.storage.JobNotFoundException;
 import org.jobrunr.storage.StorageProvider;
 import org.jobrunr.storage.StorageProviderTest;
 import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.jobrunr.jobs.RecurringJobTestBuilder.aDefaultRecurringJob;
+import static org.jobrunr.jobs.JobTestBuilder.aSucceededJob;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.DELETED;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
 import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
-import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.util.reflection.Whitebox.setInternalState;
@@ -50,12 +70,114 @@ public class LettuceRedisStorageProviderTest extends StorageProviderTest {
         return lettuceRedisStorageProvider;
     }
 
+    @Test
+    void streamOfEnqueuedJobsDeliversEachEnqueuedJobToOneServer() {
+        final Job jobEnqueuedBeforeStreamWasUsed = storageProvider.save(anEnqueuedJob().build());
+        final LettuceRedisStorageProvider server1StorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        server1StorageProvider.useStreamForEnqueuedJobs(Duration.ofMinutes(5));
+        final LettuceRedisStorageProvider server2StorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        server2StorageProvider.useStreamForEnqueuedJobs(Duration.ofMinutes(5));
+        final Job jobEnqueuedAfterStreamWasUsed = server1StorageProvider.save(anEnqueuedJob().build());
+
+        final List<Job> jobsOfServer1 = server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(1));
+        final List<Job> jobsOfServer2 = server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10));
+
+        final List<Job> deliveredJobs = new ArrayList<>(jobsOfServer1);
+        deliveredJobs.addAll(jobsOfServer2);
+        assertThat(jobsOfServer1).hasSize(1);
+        assertThat(deliveredJobs).containsExactlyInAnyOrder(jobEnqueuedBeforeStreamWasUsed, jobEnqueuedAfterStreamWasUsed);
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+    }
+
+    @Test
+    void streamOfEnqueuedJobsDeliversJobsThatAreStillEnqueuedAgainOnceTheyWereIdleForTooLong() {
+        final LettuceRedisStorageProvider server1StorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        server1StorageProvider.useStreamForEnqueuedJobs(Duration.ofMinutes(5));
+        final LettuceRedisStorageProvider server2StorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        server2StorageProvider.useStreamForEnqueuedJobs(Duration.ZERO);
+        final Job job = server1StorageProvider.save(anEnqueuedJob().build());
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(job);
+
+        job.startProcessingOn(backgroundJobServer);
+        server2StorageProvider.save(job);
+        assertThat(server2StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+        assertThat(server1StorageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).isEmpty();
+    }
+
+    @Test
+    void clientSideCachingServesRecurringJobsUntilTheyAreChanged() {
+        final LettuceRedisStorageProvider lettuceRedisStorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        lettuceRedisStorageProvider.useClientSideCaching(getRedisClient());
+        lettuceRedisStorageProvider.saveRecurringJob(aDefaultRecurringJob().withId("my-job").withCronExpression("*/5 * * * *").build());
+        assertThat(lettuceRedisStorageProvider.getRecurringJobs()).extracting(RecurringJob::getCronExpression).containsExactly("*/5 * * * *");
+
+        lettuceRedisStorageProvider.saveRecurringJob(aDefaultRecurringJob().withId("my-job").withCronExpression("*/15 * * * *").build());
+        lettuceRedisStorageProvider.saveRecurringJob(aDefaultRecurringJob().withId("my-other-job").build());
+
+        await().atMost(FIVE_SECONDS).untilAsserted(() -> assertThat(lettuceRedisStorageProvider.getRecurringJobs())
+                .extracting(RecurringJob::getCronExpression)
+                .containsExactlyInAnyOrder("*/15 * * * *", Cron.daily()));
+    }
+
+    @Test
+    void deletedJobsExpireAndTheirIdsAreRemovedByThePermanentDeletion() {
+        final LettuceRedisStorageProvider expiringStorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        expiringStorageProvider.useExpiryForRetention(Duration.ofMillis(500));
+        final Job job = expiringStorageProvider.save(anEnqueuedJob().build());
+        job.delete("no longer needed");
+        expiringStorageProvider.save(job);
+
+        await().atMost(FIVE_SECONDS).untilAsserted(() -> assertThat(expiringStorageProvider.getJobs(DELETED, ascOnUpdatedAt(10))).isEmpty());
+        assertThatThrownBy(() -> expiringStorageProvider.getJobById(job.getId())).isInstanceOf(JobNotFoundException.class);
+        assertThat(expiringStorageProvider.getJobStats().getDeleted()).isEqualTo(1);
+
+        expiringStorageProvider.deleteJobsPermanently(DELETED, Instant.now());
+        assertThat(expiringStorageProvider.getJobStats().getDeleted()).isZero();
+    }
+
+    @Test
+    void succeededJobsExpireAndTheirIdsAreRemovedByThePermanentDeletion() {
+        final LettuceRedisStorageProvider expiringStorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+        expiringStorageProvider.useExpiryForRetention(null, Duration.ofMillis(500));
+        final Job job = expiringStorageProvider.save(aSucceededJob().build());
+
+        await().atMost(FIVE_SECONDS).untilAsserted(() -> assertThat(expiringStorageProvider.getJobs(SUCCEEDED, ascOnUpdatedAt(10))).isEmpty());
+        assertThatThrownBy(() -> expiringStorageProvider.getJobById(job.getId())).isInstanceOf(JobNotFoundException.class);
+        assertThat(expiringStorageProvider.getJobStats().getSucceeded()).isEqualTo(1);
+
+        expiringStorageProvider.deleteJobsPermanently(DELETED, Instant.now());
+        assertThat(expiringStorageProvider.getJobStats().getSucceeded()).isZero();
+        assertThat(expiringStorageProvider.getJobStats().getAllTimeSucceeded()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreOnlyHashTaggedOnceEnabled() {
+        final Job job = storageProvider.save(anEnqueuedJob().build());
+        try (StatefulRedisConnection<String, String> connection = getRedisClient().connect()) {
+            RedisCommands<String, String> commands = connection.sync();
+            commands.set("other-application:key", "some-value");
+            assertThat(commands.exists("job:" + job.getId())).isEqualTo(1);
+
+            final LettuceRedisStorageProvider hashTaggedStorageProvider = (LettuceRedisStorageProvider) getStorageProvider();
+            hashTaggedStorageProvider.useHashTaggedKeys();
+
+            assertThat(commands.exists("job:" + job.getId())).isZero();
+            assertThat(commands.exists("{jobrunr}:job:" + job.getId())).isEqualTo(1);
+            assertThat(commands.get("other-application:key")).isEqualTo("some-value");
+            assertThat(hashTaggedStorageProvider.getJobById(job.getId())).isEqualTo(job);
+            assertThat(hashTaggedStorageProvider.getJobStats().getEnqueued()).isEqualTo(1);
+        }
+    }
+
     @AfterAll
     public static void shutdownRedisClient() {
         getRedisClient().shutdown();
     }
 
-    private static RedisClient getRedisClient() {
+    protected static RedisClient getRedisClient() {
         if (redisClient == null) {
             redisClient = RedisClient.create(RedisURI.create(redisContainer.getContainerIpAddress(), redisContainer.getMappedPort(6379)));
         }
@@ -72,13 +194,11 @@ public class LettuceRedisStorageProviderTest extends StorageProviderTest {
         protected void makeStorageProviderThrowException(StorageProvider storageProvider) throws Exception {
             GenericObjectPool genericObjectPoolMock = mock(GenericObjectPool.class);
             StatefulRedisConnection<String, String> connection = mock(StatefulRedisConnection.class);
-            RedisCommands<String, String> commands = mock(RedisCommands.class);
+            RedisCommands<String, String> commands = mock(RedisCommands.class, invocation -> {
+                throw new RedisException("some exception");
+            });
             when(genericObjectPoolMock.borrowObject()).thenReturn(connection);
             when(connection.sync()).thenReturn(commands);
-
-            String versionMatcher = endsWith("version");
-            when(commands.get(versionMatcher)).thenReturn("1");
-            when(commands.unwatch()).thenThrow(new RedisException("some exception"));
             setInternalState(storageProvider, "pool", genericObjectPoolMock);
         }
     }
@@ -0,0 +1,48 @@
+package org.jobrunr.storage.nosql.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.firstRankAfterCursor;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.hashTaggedKeyPrefix;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.toHashTaggedKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.unTaggedKeyPatterns;
+
+class RedisUtilitiesTest {
+
+    @Test
+    void keyPrefixIsWrappedInAHashTag() {
+        assertThat(hashTaggedKeyPrefix(null)).isEqualTo("{jobrunr}");
+        assertThat(hashTaggedKeyPrefix("")).isEqualTo("{jobrunr}");
+        assertThat(hashTaggedKeyPrefix("my-app")).isEqualTo("{my-app}");
+        assertThat(hashTaggedKeyPrefix("{my-app}:jobs")).isEqualTo("{my-app}:jobs");
+    }
+
+    @Test
+    void unTaggedKeysAreMovedToTheHashTaggedKeyPrefix() {
+        assertThat(toHashTaggedKey(null, "job:some-id")).isEqualTo("{jobrunr}:job:some-id");
+        assertThat(toHashTaggedKey("my-app", "my-app:job:some-id")).isEqualTo("{my-app}:job:some-id");
+    }
+
+    @Test
+    void unTaggedKeyPatternsAreOnlyNeededIfTheKeyPrefixWasNotHashTagged() {
+        assertThat(unTaggedKeyPatterns("my-app")).contains("my-app:job:*", "my-app:queue:*");
+        assertThat(unTaggedKeyPatterns("my*app")).contains("my\\*app:job:*");
+        assertThat(unTaggedKeyPatterns("{my-app}")).isEmpty();
+    }
+
+    @Test
+    void firstRankAfterCursorIsFoundWithinTheMembersWithTheScoreOfTheCursor() {
+        // ranks 2 to 5 have the score of the cursor and are sorted on their id
+        final List<String> members = asList("a", "b", "c", "e", "g", "i", "a");
+
+        assertThat(firstRankAfterCursor(2, 6, rank -> members.get((int) rank), id -> id.compareTo("f") > 0)).isEqualTo(4);
+        assertThat(firstRankAfterCursor(2, 6, rank -> members.get((int) rank), id -> id.compareTo("e") > 0)).isEqualTo(4);
+        assertThat(firstRankAfterCursor(2, 6, rank -> members.get((int) rank), id -> id.compareTo("a") > 0)).isEqualTo(2);
+        assertThat(firstRankAfterCursor(2, 6, rank -> members.get((int) rank), id -> id.compareTo("z") > 0)).isEqualTo(6);
+        assertThat(firstRankAfterCursor(3, 3, rank -> members.get((int) rank), id -> true)).isEqualTo(3);
+    }
+}
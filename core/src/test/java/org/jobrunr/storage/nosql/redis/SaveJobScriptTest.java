@@ -0,0 +1,101 @@
+package org.jobrunr.storage.nosql.redis;
+
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.states.StateName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jobrunr.jobs.JobTestBuilder.aDeletedJob;
+import static org.jobrunr.jobs.JobTestBuilder.aScheduledJob;
+import static org.jobrunr.jobs.JobTestBuilder.aSucceededJob;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.DELETED;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.jobs.states.StateName.SCHEDULED;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.enqueuedJobsStreamKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobDetailsKey;
+import static org.jobrunr.storage.nosql.redis.RedisUtilities.jobQueueForStateKey;
+
+class SaveJobScriptTest {
+
+    @Test
+    void keysOfANewJobContainTheIndexesOfItsState() {
+        final Job job = anEnqueuedJob().withVersion(0).build();
+
+        final List<String> keys = SaveJobScript.keys("prefix", job, true);
+
+        assertThat(keys).hasSize(10);
+        assertThat(keys.get(3)).isEqualTo(enqueuedJobsStreamKey("prefix"));
+        assertThat(keys.get(4)).isEqualTo(jobQueueForStateKey("prefix", ENQUEUED));
+        assertThat(keys.get(7)).isEqualTo(jobQueueForStateKey("prefix", ENQUEUED));
+    }
+
+    @Test
+    void keysOfAnExistingJobContainTheIndexesOfTheStateItWasLastSavedInAndOfItsNewState() {
+        final Job job = aScheduledJob().withVersion(1).build();
+        job.enqueue();
+
+        final List<String> keys = SaveJobScript.keys("prefix", job, false);
+
+        assertThat(keys).hasSize(10);
+        assertThat(keys.get(4)).isEqualTo(jobQueueForStateKey("prefix", SCHEDULED));
+        assertThat(keys.get(5)).isEqualTo(jobDetailsKey("prefix", SCHEDULED));
+        assertThat(keys.get(7)).isEqualTo(jobQueueForStateKey("prefix", ENQUEUED));
+        assertThat(keys.get(8)).isEqualTo(jobDetailsKey("prefix", ENQUEUED));
+    }
+
+    @Test
+    void argsOfANewJobDoNotContainAnExpectedVersion() {
+        final Job job = aScheduledJob().withVersion(0).build();
+
+        final List<String> args = SaveJobScript.args(job, "{}", true, false, emptyMap());
+
+        assertThat(args.get(0)).isEmpty();
+        assertThat(args.get(6)).isNotEmpty();
+    }
+
+    @Test
+    void argsOfAnExistingJobContainThePreviousVersion() {
+        final Job job = anEnqueuedJob().withVersion(3).build();
+
+        final List<String> args = SaveJobScript.args(job, "{}", false, false, emptyMap());
+
+        assertThat(args.get(0)).isEqualTo("2");
+        assertThat(args.get(1)).isEqualTo("3");
+        assertThat(args.get(6)).isEmpty();
+        assertThat(args.get(9)).isEqualTo("0");
+        assertThat(args.get(10)).isEmpty();
+    }
+
+    @Test
+    void argsOfAnEnqueuedJobAddItToTheStreamOfEnqueuedJobsIfTheStreamIsUsed() {
+        assertThat(SaveJobScript.args(anEnqueuedJob().build(), "{}", true, true, emptyMap()).get(9)).isEqualTo("1");
+        assertThat(SaveJobScript.args(aScheduledJob().build(), "{}", true, true, emptyMap()).get(9)).isEqualTo("0");
+    }
+
+    @Test
+    void argsOfAJobContainTheTimeAtWhichItExpiresIfTheJobsInItsStateExpire() {
+        final Job deletedJob = aDeletedJob().build();
+        final Job succeededJob = aSucceededJob().build();
+        final Map<StateName, Duration> expireJobsAfter = new EnumMap<>(StateName.class);
+        expireJobsAfter.put(DELETED, Duration.ofHours(1));
+        expireJobsAfter.put(SUCCEEDED, Duration.ofDays(1));
+
+        assertThat(SaveJobScript.args(deletedJob, "{}", false, false, expireJobsAfter).get(10)).isEqualTo(String.valueOf(deletedJob.getUpdatedAt().plus(Duration.ofHours(1)).toEpochMilli()));
+        assertThat(SaveJobScript.args(succeededJob, "{}", false, false, expireJobsAfter).get(10)).isEqualTo(String.valueOf(succeededJob.getUpdatedAt().plus(Duration.ofDays(1)).toEpochMilli()));
+        assertThat(SaveJobScript.args(deletedJob, "{}", false, false, emptyMap()).get(10)).isEmpty();
+        assertThat(SaveJobScript.args(anEnqueuedJob().build(), "{}", false, false, expireJobsAfter).get(10)).isEmpty();
+    }
+
+    @Test
+    void sha1IsTheDigestRedisUsesForTheScript() {
+        assertThat(SaveJobScript.SHA1).hasSize(40).matches("[0-9a-f]+");
+    }
+}
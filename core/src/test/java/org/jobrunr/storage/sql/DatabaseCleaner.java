@@ -38,7 +38,10 @@ public class DatabaseCleaner {
         drop("view " + tableNamePrefix + "jobrunr_jobs_stats");
         drop("table " + tableNamePrefix + "jobrunr_recurring_jobs");
         drop("table " + tableNamePrefix + "jobrunr_job_counters");
+        drop("table " + tableNamePrefix + "jobrunr_counters");
+        drop("table " + tableNamePrefix + "jobrunr_jobs_archive");
         drop("table " + tableNamePrefix + "jobrunr_jobs");
+        drop("table if exists " + tableNamePrefix + "jobrunr_job_ids");
         drop("table " + tableNamePrefix + "jobrunr_backgroundjobservers");
         drop("table " + tableNamePrefix + "jobrunr_metadata");
         drop("table " + tableNamePrefix + "jobrunr_migrations");
@@ -46,7 +49,9 @@ public class DatabaseCleaner {
 
     public void deleteAllDataInTables() {
         delete("from " + tableNamePrefix + "jobrunr_recurring_jobs");
-        delete("from " + tableNamePrefix + "jobrunr_job_counters");
+        update(tableNamePrefix + "jobrunr_job_counters set amount = 0");
+        update(tableNamePrefix + "jobrunr_counters set amount = 0");
+        delete("from " + tableNamePrefix + "jobrunr_jobs_archive");
         delete("from " + tableNamePrefix + "jobrunr_jobs");
         delete("from " + tableNamePrefix + "jobrunr_backgroundjobservers");
         delete("from " + tableNamePrefix + "jobrunr_metadata");
@@ -57,6 +62,10 @@ public class DatabaseCleaner {
         doInTransaction(statement -> statement.executeUpdate("delete " + name), "Error deleting from " + name);
     }
 
+    private void update(String name) {
+        doInTransaction(statement -> statement.executeUpdate("update " + name), "Error updating " + name);
+    }
+
     private void drop(String name) {
         doInTransaction(statement -> statement.executeUpdate("drop " + name), "Error dropping " + name);
     }
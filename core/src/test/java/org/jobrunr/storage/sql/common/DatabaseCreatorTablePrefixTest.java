@@ -3,6 +3,7 @@ package org.jobrunr.storage.sql.common;
 import org.assertj.core.api.Condition;
 import org.jobrunr.storage.sql.db2.DB2StorageProvider;
 import org.jobrunr.storage.sql.oracle.OracleStorageProvider;
+import org.jobrunr.storage.sql.postgres.PostgresStorageProvider;
 import org.jobrunr.storage.sql.sqlserver.SQLServerStorageProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -90,7 +91,21 @@ class DatabaseCreatorTablePrefixTest {
 
         assertThat(getAllExecutedStatements())
                 .areAtLeastOne(stringContaining("CREATE TABLE SOME_SCHEMA.SOME_PREFIX_jobrunr_jobs"))
-                .areAtLeastOne(stringContaining("CREATE INDEX SOME_PREFIX_jobrunr_state_idx ON SOME_SCHEMA.SOME_PREFIX_jobrunr_jobs (state)"));
+                .areAtLeastOne(stringContaining("CREATE INDEX SOME_PREFIX_jobrunr_state_idx ON SOME_SCHEMA.SOME_PREFIX_jobrunr_jobs (state)"))
+                .areAtLeastOne(stringContaining("DROP INDEX SOME_PREFIX_jobrunr_state_idx ON SOME_SCHEMA.SOME_PREFIX_jobrunr_jobs"));
+    }
+
+    @Test
+    void testIndexesAreDroppedInSchemaForAnsiDatabaseWithoutDropIndexOnTableSupport() throws SQLException {
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        when(databaseMetaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        final DatabaseCreator databaseCreator = new DatabaseCreator(dataSource, "SOME_SCHEMA.SOME_PREFIX_", PostgresStorageProvider.class);
+        databaseCreator.runMigrations();
+
+        assertThat(getAllExecutedStatements())
+                .areAtLeastOne(stringContaining("CREATE INDEX SOME_PREFIX_jobrunr_state_updated_idx ON SOME_SCHEMA.SOME_PREFIX_jobrunr_jobs (state, updatedAt)"))
+                .areAtLeastOne(stringContaining("DROP INDEX SOME_SCHEMA.SOME_PREFIX_jobrunr_state_idx"));
     }
 
     private Condition<String> stringContaining(String string) {
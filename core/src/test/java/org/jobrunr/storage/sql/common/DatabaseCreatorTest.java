@@ -4,19 +4,28 @@ import org.h2.jdbcx.JdbcDataSource;
 import org.jobrunr.JobRunrException;
 import org.jobrunr.configuration.JobRunr;
 import org.jobrunr.storage.sql.common.migrations.DefaultSqlMigrationProvider;
+import org.jobrunr.storage.sql.common.migrations.JavaMigration;
 import org.jobrunr.storage.sql.common.migrations.SqlMigration;
 import org.jobrunr.storage.sql.h2.H2StorageProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sqlite.SQLiteDataSource;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.*;
+import static org.jobrunr.utils.JobUtils.getJobSignatureHash;
 
 class DatabaseCreatorTest {
 
@@ -54,6 +63,60 @@ class DatabaseCreatorTest {
                 .isTrue());
     }
 
+    @Test
+    void testSqlLiteMigrationsComputeTheJobSignatureHashOfExistingJobs() throws SQLException {
+        final SQLiteDataSource dataSource = createDataSource("jdbc:sqlite:" + SQLITE_DB1);
+        final DatabaseCreator databaseCreatorBeforeJobSignatureHash = new DatabaseCreator(dataSource) {
+            @Override
+            protected Stream<SqlMigration> getMigrations() {
+                return super.getMigrations().filter(migration -> migration.getFileName().compareTo("v015") < 0);
+            }
+        };
+        databaseCreatorBeforeJobSignatureHash.runMigrations();
+        execute(dataSource, "insert into jobrunr_jobs (id, version, jobAsJson, jobSignature, state, createdAt, updatedAt) "
+                + "values ('c1d7e2c4-9c3a-4b8e-9b1f-2f6a0d6b8e01', 1, '{}', 'org.jobrunr.stubs.TestService.doWork()', 'ENQUEUED', '2021-01-01 00:00:00', '2021-01-01 00:00:00')");
+
+        new DatabaseCreator(dataSource).runMigrations();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select jobSignatureHash from jobrunr_jobs")) {
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getLong(1)).isEqualTo(getJobSignatureHash("org.jobrunr.stubs.TestService.doWork()"));
+        }
+    }
+
+    @Test
+    void testJavaMigrationsRunBeforeTheirSqlMigration() {
+        final List<String> migrationsRun = new ArrayList<>();
+        final DatabaseCreator databaseCreator = new DatabaseCreator(createDataSource("jdbc:sqlite:" + SQLITE_DB1)) {
+            @Override
+            protected Stream<JavaMigration> getJavaMigrations() {
+                return Stream.of(new JavaMigration() {
+                    @Override
+                    public String getSqlMigrationFileName() {
+                        return "v001__create_job_table.sql";
+                    }
+
+                    @Override
+                    public void migrate(Context context) {
+                        migrationsRun.add("java");
+                    }
+                });
+            }
+
+            @Override
+            protected void runMigrationStatement(Connection connection, SqlMigration migration) throws IOException, SQLException {
+                migrationsRun.add(migration.getFileName());
+                super.runMigrationStatement(connection, migration);
+            }
+        };
+        databaseCreator.runMigrations();
+
+        assertThat(migrationsRun).containsOnlyOnce("java");
+        assertThat(migrationsRun.indexOf("java") + 1).isEqualTo(migrationsRun.indexOf("v001__create_job_table.sql"));
+    }
+
     @Test
     void testValidateWithoutTables() {
         final DatabaseCreator databaseCreator = new DatabaseCreator(createDataSource("jdbc:sqlite:" + SQLITE_DB2));
@@ -77,6 +140,25 @@ class DatabaseCreatorTest {
         assertThatThrownBy(databaseCreatorForSchema2::validateTables).isInstanceOf(JobRunrException.class);
     }
 
+    @Test
+    void testSplitStatementsDoesNotSplitDollarQuotedStrings() {
+        final List<String> statements = DatabaseCreator.splitStatements("CREATE TABLE a (id INT);\n"
+                + "CREATE FUNCTION f() RETURNS TRIGGER AS $$\nBEGIN\n    RETURN NULL;\nEND\n$$ LANGUAGE plpgsql;\n"
+                + "CREATE INDEX a_idx ON a (id)\n");
+
+        assertThat(statements).containsExactly(
+                "CREATE TABLE a (id INT)",
+                "\nCREATE FUNCTION f() RETURNS TRIGGER AS $$\nBEGIN\n    RETURN NULL;\nEND\n$$ LANGUAGE plpgsql",
+                "\nCREATE INDEX a_idx ON a (id)\n");
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
     private JdbcDataSource createH2DataSource(String url) {
         JdbcDataSource dataSource = new JdbcDataSource();
         dataSource.setURL(url);
@@ -26,6 +26,16 @@ class DatabaseMigrationsProviderTest {
         assertThat(databaseSpecificMigrations).anyMatch(migration -> contains(migration, "DATETIME(6)"));
     }
 
+    @Test
+    void testNativeJsonMigrations() {
+        assertThat(new DatabaseMigrationsProvider(null).getOptionalMigrations("nativejson")).isEmpty();
+
+        final DatabaseMigrationsProvider databaseCreator = new DatabaseMigrationsProvider(MariaDbStorageProviderStub.class);
+        final Stream<SqlMigration> nativeJsonMigrations = databaseCreator.getOptionalMigrations("nativejson");
+
+        assertThat(nativeJsonMigrations).anyMatch(migration -> contains(migration, "MODIFY jobAsJson JSON"));
+    }
+
     private boolean contains(SqlMigration migration, String toContain) {
         try {
             return migration.getMigrationSql().contains(toContain);
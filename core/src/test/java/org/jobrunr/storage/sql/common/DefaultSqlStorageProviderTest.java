@@ -6,11 +6,13 @@ import org.jobrunr.storage.ConcurrentJobModificationException;
 import org.jobrunr.storage.JobNotFoundException;
 import org.jobrunr.storage.StorageException;
 import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
+import org.jobrunr.storage.listeners.JobStatsChangeListener;
 import org.jobrunr.storage.sql.common.db.dialect.AnsiDialect;
 import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -22,10 +24,19 @@ import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,6 +81,19 @@ class DefaultSqlStorageProviderTest {
         assertThatThrownBy(() -> jobStorageProvider.getJobById(randomUUID())).isInstanceOf(StorageException.class);
     }
 
+    @Test
+    void testGetJobById_TheArchiveTableIsOnlyQueriedIfItIsUsed() throws SQLException {
+        when(resultSet.next()).thenReturn(false);
+
+        assertThatThrownBy(() -> jobStorageProvider.getJobById(randomUUID())).isInstanceOf(JobNotFoundException.class);
+        verify(connection, never()).prepareStatement(contains("jobrunr_jobs_archive"), anyInt(), anyInt());
+
+        jobStorageProvider.useArchiveTable();
+
+        assertThatThrownBy(() -> jobStorageProvider.getJobById(randomUUID())).isInstanceOf(JobNotFoundException.class);
+        verify(connection).prepareStatement(contains("jobrunr_jobs_archive"), anyInt(), anyInt());
+    }
+
     @Test
     void saveJob_WhenSqlExceptionOccursAJobStorageExceptionIsThrown() throws SQLException {
         doThrow(new SQLException("Boem")).when(preparedStatement).executeUpdate();
@@ -84,6 +108,20 @@ class DefaultSqlStorageProviderTest {
         assertThatCode(() -> jobStorageProvider.save(anEnqueuedJob().build())).doesNotThrowAnyException();
     }
 
+    @Test
+    void saveJobUpdatesTheJobAndTheJobCountersInOneTransactionEvenIfTheConnectionIsInAutoCommitMode() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        jobStorageProvider.save(anEnqueuedJob().build());
+
+        final InOrder inOrder = inOrder(connection, preparedStatement);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(preparedStatement, atLeast(2)).executeUpdate();
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+    }
+
     @Test
     void saveJob_WhenJobIsNotSavedDueToOtherConcurrentModificationThenThrowConcurrentSqlModificationException() throws SQLException {
         when(preparedStatement.executeUpdate()).thenReturn(0);
@@ -119,4 +157,45 @@ class DefaultSqlStorageProviderTest {
         assertThatThrownBy(() -> jobStorageProvider.deletePermanently(randomUUID())).isInstanceOf(StorageException.class);
     }
 
-}
\ No newline at end of file
+    @Test
+    void saveJobUsingConnectionOfCallerNeitherCommitsNorClosesIt() throws SQLException {
+        final Connection connectionOfCaller = mock(Connection.class);
+        when(connectionOfCaller.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        clearInvocations(datasource);
+
+        jobStorageProvider.inTransaction(connectionOfCaller, storageProvider -> storageProvider.save(anEnqueuedJob().build()));
+
+        verify(connectionOfCaller, never()).commit();
+        verify(connectionOfCaller, never()).close();
+        verify(datasource, never()).getConnection();
+    }
+
+    @Test
+    void saveJobUsingConnectionOfCallerDoesNotNotifyTheChangeListenersBeforeTheCallerCommits() throws SQLException {
+        final Connection connectionOfCaller = mock(Connection.class);
+        when(connectionOfCaller.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        final JobStatsChangeListener jobStatsChangeListener = mock(JobStatsChangeListener.class);
+        jobStorageProvider.addJobStorageOnChangeListener(jobStatsChangeListener);
+
+        jobStorageProvider.inTransaction(connectionOfCaller, storageProvider -> storageProvider.save(anEnqueuedJob().build()));
+
+        verify(jobStatsChangeListener, never()).onChange(any());
+    }
+
+    @Test
+    void getBackgroundJobServersUsesReadOnlyDataSourceIfConfigured() throws SQLException {
+        final DataSource readOnlyDataSource = mock(DataSource.class);
+        when(readOnlyDataSource.getConnection()).thenReturn(connection);
+        when(resultSet.next()).thenReturn(false);
+
+        jobStorageProvider.setReadOnlyDataSource(readOnlyDataSource);
+        clearInvocations(datasource);
+        jobStorageProvider.getBackgroundJobServers();
+
+        verify(readOnlyDataSource).getConnection();
+        verify(datasource, never()).getConnection();
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.jobrunr.storage.sql.common.db;
+
+import org.jobrunr.storage.sql.common.db.dialect.AnsiDialect;
+import org.jobrunr.storage.sql.common.db.dialect.OracleDialect;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SqlTest {
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Test
+    void testParsedStatementsAreCachedPerTablePrefix() {
+        final Sql<Item> sqlWithoutPrefix = Sql.forType(Item.class).using(connection, new AnsiDialect(), null, "jobrunr_items");
+        final Sql<Item> sqlWithPrefix = Sql.forType(Item.class).using(connection, new AnsiDialect(), "some_prefix_", "jobrunr_items");
+
+        final Sql.ParsedStatement parsedStatementWithoutPrefix = sqlWithoutPrefix.parse("select * from jobrunr_items where id = :id");
+        final Sql.ParsedStatement parsedStatementWithPrefix = sqlWithPrefix.parse("select * from jobrunr_items where id = :id");
+
+        assertThat(parsedStatementWithoutPrefix.getSqlStatement()).isEqualTo("select * from jobrunr_items where id = ?");
+        assertThat(parsedStatementWithPrefix.getSqlStatement()).isEqualTo("select * from some_prefix_jobrunr_items where id = ?");
+        assertThat(parsedStatementWithPrefix.getParamNames()).containsExactly("id");
+        assertThat(sqlWithPrefix.parse("select * from jobrunr_items where id = :id")).isSameAs(parsedStatementWithPrefix);
+    }
+
+    @Test
+    void testInsertAllBindsParamsUsingRegisteredAccessors() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1, 1});
+
+        Sql.forType(Item.class)
+                .using(connection, new OracleDialect(), null, "jobrunr_items")
+                .with("id", Item::getId)
+                .with("owner", "owner")
+                .insertAll(asList(new Item("a", 1), new Item("b", 2)), "into jobrunr_items values (:id, :owner, :amount)");
+
+        verify(preparedStatement).setString(1, "a");
+        verify(preparedStatement).setString(1, "b");
+        verify(preparedStatement, times(2)).setString(2, "owner");
+        verify(preparedStatement).setInt(3, 1);
+        verify(preparedStatement).setInt(3, 2);
+        verify(preparedStatement, times(2)).addBatch();
+    }
+
+    @Test
+    void testInsertAllUsesMultiRowInsertsIfDialectSupportsIt() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(2, 1);
+
+        Sql.forType(Item.class)
+                .using(connection, new MultiRowDialect(2), null, "jobrunr_items")
+                .with("id", Item::getId)
+                .insertAll(asList(new Item("a", 1), new Item("b", 2), new Item("c", 3)), "into jobrunr_items values (:id, :amount)");
+
+        verify(connection).prepareStatement("insert into jobrunr_items values (?, ?), (?, ?)");
+        verify(connection).prepareStatement("insert into jobrunr_items values (?, ?)");
+        verify(preparedStatement).setString(1, "a");
+        verify(preparedStatement).setInt(2, 1);
+        verify(preparedStatement).setString(3, "b");
+        verify(preparedStatement).setInt(4, 2);
+        verify(preparedStatement).setString(1, "c");
+        verify(preparedStatement).setInt(2, 3);
+        verify(preparedStatement, never()).addBatch();
+    }
+
+    @Test
+    void testMultiRowStatementKeepsColumnList() {
+        final Sql<Item> sql = Sql.forType(Item.class).using(connection, new AnsiDialect(), null, "jobrunr_items");
+
+        final Sql.ParsedStatement parsedStatement = sql.parse("insert into jobrunr_items (id, amount) values (:id, :amount)");
+
+        assertThat(parsedStatement.hasValuesList()).isTrue();
+        assertThat(parsedStatement.insertsAllColumns()).isFalse();
+        assertThat(parsedStatement.getMultiRowStatement(2)).isEqualTo("insert into jobrunr_items (id, amount) values (?, ?), (?, ?)");
+    }
+
+    @Test
+    void testMultiRowStatementSupportsExpressionsInValuesList() {
+        final Sql<Item> sql = Sql.forType(Item.class).using(connection, new AnsiDialect(), null, "jobrunr_items");
+
+        final Sql.ParsedStatement parsedStatement = sql.parse("insert into jobrunr_items values (:id, cast(:amount as bigint))");
+
+        assertThat(parsedStatement.hasValuesList()).isTrue();
+        assertThat(parsedStatement.insertsAllColumns()).isTrue();
+        assertThat(parsedStatement.getMultiRowStatement(2)).isEqualTo("insert into jobrunr_items values (?, cast(? as bigint)), (?, cast(? as bigint))");
+    }
+
+    @Test
+    void testUnknownParamIsReportedBeforeBinding() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+        final Sql<Item> sql = Sql.forType(Item.class).using(connection, new AnsiDialect(), null, "jobrunr_items");
+
+        assertThatThrownBy(() -> sql.delete("from jobrunr_items where id = :unknown"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Parameter unknown is not known.");
+        verify(preparedStatement, never()).setString(anyInt(), anyString());
+    }
+
+    private static class MultiRowDialect extends AnsiDialect {
+
+        private final int maxRowsPerInsert;
+
+        private MultiRowDialect(int maxRowsPerInsert) {
+            this.maxRowsPerInsert = maxRowsPerInsert;
+        }
+
+        @Override
+        public int maxRowsPerInsert(int paramsPerRow) {
+            return maxRowsPerInsert;
+        }
+    }
+
+    public static class Item {
+        private final String id;
+        private final int amount;
+
+        public Item(String id, int amount) {
+            this.id = id;
+            this.amount = amount;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.jobrunr.storage.sql.common.migrations;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IndexedSqlMigrationProviderTest {
+
+    @Test
+    void migrationsAreReadFromTheIndex() throws IOException {
+        final SqlMigrationProvider fallbackMigrationProvider = mock(SqlMigrationProvider.class);
+
+        final List<SqlMigration> migrations = new IndexedSqlMigrationProvider(fallbackMigrationProvider)
+                .getMigrations(IndexedSqlMigrationProviderTest.class, "indexed")
+                .collect(toList());
+
+        assertThat(migrations).extracting(SqlMigration::getFileName).containsExactly("v001__create_table.sql", "v002__alter_table.sql");
+        assertThat(migrations.get(0).getMigrationSql()).isEqualTo("CREATE TABLE some_table (id int)");
+        verifyNoInteractions(fallbackMigrationProvider);
+    }
+
+    @Test
+    void classpathIsScannedIfThereIsNoIndex() {
+        final SqlMigrationProvider fallbackMigrationProvider = mock(SqlMigrationProvider.class);
+        when(fallbackMigrationProvider.getMigrations(IndexedSqlMigrationProviderTest.class, "not-indexed")).thenReturn(Stream.empty());
+
+        assertThat(new IndexedSqlMigrationProvider(fallbackMigrationProvider).getMigrations(IndexedSqlMigrationProviderTest.class, "not-indexed")).isEmpty();
+
+        verify(fallbackMigrationProvider).getMigrations(IndexedSqlMigrationProviderTest.class, "not-indexed");
+    }
+}
@@ -0,0 +1,83 @@
+package org.jobrunr.storage.sql.h2;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.sql.SqlStorageProviderTest;
+import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jobrunr.jobs.JobTestBuilder.aSucceededJob;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.ENQUEUED;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
+import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
+import static org.mockito.internal.util.reflection.Whitebox.setInternalState;
+
+class H2ArchiveTableStorageProviderTest extends SqlStorageProviderTest {
+
+    private static JdbcDataSource dataSource;
+
+    @Override
+    protected StorageProvider getStorageProvider() {
+        final H2StorageProvider storageProvider = new H2StorageProvider(getDataSource());
+        storageProvider.setJobMapper(new JobMapper(new JacksonJsonMapper()));
+        storageProvider.useArchiveTable();
+        setInternalState(storageProvider, "changeListenerNotificationRateLimit", rateLimit().withoutLimits());
+        return storageProvider;
+    }
+
+    @Override
+    protected DataSource getDataSource() {
+        if (dataSource == null) {
+            dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:/tmp/test-archive");
+            dataSource.setUser("sa");
+            dataSource.setPassword("sa");
+        }
+        return dataSource;
+    }
+
+    @Test
+    void archivedJobsCanStillBeQueried() {
+        final Job succeededJob = storageProvider.save(aSucceededJob().build());
+        storageProvider.save(aSucceededJob().build());
+        storageProvider.save(anEnqueuedJob().build());
+
+        assertThat(storageProvider.archiveJobs()).isEqualTo(2);
+
+        assertThat(storageProvider.getJobById(succeededJob.getId())).isEqualTo(succeededJob);
+        assertThat(storageProvider.getJobs(SUCCEEDED, ascOnUpdatedAt(10))).hasSize(2);
+        assertThat(storageProvider.getJobPage(SUCCEEDED, ascOnUpdatedAt(10)).getTotal()).isEqualTo(2);
+        assertThat(storageProvider.exists(succeededJob.getJobDetails(), SUCCEEDED)).isTrue();
+        assertThat(storageProvider.getJobStats().getSucceeded()).isEqualTo(2);
+        assertThat(storageProvider.archiveJobs()).isZero();
+    }
+
+    @Test
+    void archivedJobThatIsRequeuedMovesBackToTheJobsTable() {
+        final Job succeededJob = storageProvider.save(aSucceededJob().build());
+        storageProvider.archiveJobs();
+
+        succeededJob.enqueue();
+        storageProvider.save(succeededJob);
+
+        assertThat(storageProvider.getJobs(ENQUEUED, ascOnUpdatedAt(10))).containsExactly(succeededJob);
+        assertThat(storageProvider.getJobPage(SUCCEEDED, ascOnUpdatedAt(10)).getTotal()).isZero();
+        assertThat(storageProvider.archiveJobs()).isZero();
+    }
+
+    @Test
+    void archivedJobsCanBeDeletedPermanently() {
+        final Job succeededJob = storageProvider.save(aSucceededJob().build());
+        storageProvider.archiveJobs();
+
+        assertThat(storageProvider.deletePermanently(succeededJob.getId())).isEqualTo(1);
+        assertThat(storageProvider.getJobStats().getSucceeded()).isZero();
+    }
+}
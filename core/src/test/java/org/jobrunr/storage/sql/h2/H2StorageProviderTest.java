@@ -1,9 +1,31 @@
 package org.jobrunr.storage.sql.h2;
 
 import org.h2.jdbcx.JdbcDataSource;
+import org.jobrunr.jobs.Job;
+import org.jobrunr.storage.ConcurrentJobModificationException;
 import org.jobrunr.storage.sql.SqlStorageProviderTest;
+import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.jobrunr.JobRunrAssertions.assertThat;
+import static org.jobrunr.JobRunrAssertions.assertThatCode;
+import static org.jobrunr.JobRunrAssertions.assertThatThrownBy;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.PROCESSING;
+import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
 
 class H2StorageProviderTest extends SqlStorageProviderTest {
 
@@ -19,4 +41,67 @@ class H2StorageProviderTest extends SqlStorageProviderTest {
         }
         return dataSource;
     }
+
+    @Test
+    void jobQueriesUseCompositeIndexes() throws SQLException {
+        assertThat(queryPlan("select jobAsJson from jobrunr_jobs where state = 'SUCCEEDED' AND updatedAt <= CURRENT_TIMESTAMP"))
+                .containsIgnoringCase("jobrunr_state_updated_idx");
+        assertThat(queryPlan("select jobAsJson from jobrunr_jobs where state = 'SCHEDULED' and scheduledAt <= CURRENT_TIMESTAMP"))
+                .containsIgnoringCase("jobrunr_state_scheduled_idx");
+        assertThat(queryPlan("select count(*) from jobrunr_jobs where state in ('SCHEDULED','ENQUEUED','PROCESSING') AND recurringJobId = 'some-id'"))
+                .containsIgnoringCase("jobrunr_rci_state_idx");
+    }
+
+    @Test
+    void concurrentWritesAreQueuedForTheSingleWriter() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<Job>> saves = IntStream.range(0, 200)
+                    .mapToObj(i -> (Callable<Job>) () -> storageProvider.save(anEnqueuedJob().build()))
+                    .collect(toList());
+            for (Future<Job> savedJob : executorService.invokeAll(saves)) {
+                assertThat(savedJob.get()).isNotNull();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertThat(storageProvider.getJobStats().getEnqueued()).isEqualTo(200L);
+    }
+
+    @Test
+    void jobsThatWereNotModifiedConcurrentlyAreSavedByTheSingleWriterAndCanBeSavedAgain() {
+        final Job job1 = storageProvider.save(anEnqueuedJob().build());
+        final Job job2 = storageProvider.save(anEnqueuedJob().build());
+        final Job job3 = storageProvider.save(anEnqueuedJob().build());
+
+        final Job job2Copy = storageProvider.getJobById(job2.getId());
+        job2Copy.startProcessingOn(backgroundJobServer);
+        storageProvider.save(job2Copy);
+
+        job1.startProcessingOn(backgroundJobServer);
+        job2.startProcessingOn(backgroundJobServer);
+        job3.startProcessingOn(backgroundJobServer);
+        assertThatThrownBy(() -> storageProvider.save(asList(job1, job2, job3)))
+                .isInstanceOf(ConcurrentJobModificationException.class);
+
+        assertThat(storageProvider.getJobById(job1.getId())).hasState(PROCESSING);
+        assertThat(storageProvider.getJobById(job3.getId())).hasState(PROCESSING);
+
+        job1.succeeded();
+        job3.succeeded();
+        assertThatCode(() -> storageProvider.save(asList(job1, job3))).doesNotThrowAnyException();
+
+        assertThat(storageProvider.getJobById(job1.getId())).hasState(SUCCEEDED);
+        assertThat(storageProvider.getJobById(job3.getId())).hasState(SUCCEEDED);
+    }
+
+    private String queryPlan(String query) throws SQLException {
+        try (Connection connection = getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package org.jobrunr.storage.sql.postgres;
+
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.jobrunr.JobRunrAssertions.assertThat;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.PROCESSING;
+import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
+import static org.mockito.internal.util.reflection.Whitebox.setInternalState;
+
+class PostgresNativeJsonStorageProviderTest extends AbstractPostgresStorageProviderTest {
+
+    private static PGSimpleDataSource dataSource;
+
+    @Override
+    protected StorageProvider getStorageProvider() {
+        final PostgresStorageProvider storageProvider = new PostgresStorageProvider(getDataSource());
+        storageProvider.setJobMapper(new JobMapper(new JacksonJsonMapper()));
+        storageProvider.useNativeJsonColumns();
+        setInternalState(storageProvider, "changeListenerNotificationRateLimit", rateLimit().withoutLimits());
+        return storageProvider;
+    }
+
+    @Override
+    protected DataSource getDataSource() {
+        if (dataSource == null) {
+            dataSource = new PGSimpleDataSource();
+            dataSource.setURL(sqlContainer.getJdbcUrl());
+            dataSource.setUser(sqlContainer.getUsername());
+            dataSource.setPassword(sqlContainer.getPassword());
+        }
+        return dataSource;
+    }
+
+    @Test
+    void unitOfWorkSavesJobsAsNativeJson() throws SQLException {
+        final Job job = storageProvider.save(anEnqueuedJob().build());
+
+        final Job savedJob = storageProvider.inTransaction(unitOfWork -> {
+            final Job fetchedJob = unitOfWork.getJobById(job.getId());
+            fetchedJob.startProcessingOn(backgroundJobServer);
+            return unitOfWork.save(fetchedJob);
+        });
+
+        assertThat(storageProvider.getJobById(job.getId())).hasState(PROCESSING);
+        assertThat(jsonTypeOfJob(savedJob)).isEqualTo("object");
+    }
+
+    private String jsonTypeOfJob(Job job) throws SQLException {
+        try (Connection connection = getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("select jsonb_typeof(jobAsJson) from jobrunr_jobs where id = ?")) {
+            statement.setString(1, job.getId().toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.jobrunr.storage.sql.postgres;
+
+import org.jobrunr.jobs.Job;
+import org.jobrunr.jobs.mappers.JobMapper;
+import org.jobrunr.jobs.states.DeletedState;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.utils.mapper.jackson.JacksonJsonMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static java.time.Instant.now;
+import static java.time.temporal.ChronoUnit.DAYS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jobrunr.jobs.JobTestBuilder.aDeletedJob;
+import static org.jobrunr.jobs.JobTestBuilder.aJob;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.jobs.states.StateName.DELETED;
+import static org.jobrunr.utils.resilience.RateLimiter.Builder.rateLimit;
+import static org.mockito.internal.util.reflection.Whitebox.setInternalState;
+
+class PostgresPartitionedStorageProviderTest extends AbstractPostgresStorageProviderTest {
+
+    // detaching partitions concurrently requires Postgres 14
+    private static final PostgreSQLContainer<?> partitionedSqlContainer = new PostgreSQLContainer<>("postgres:14");
+    private static PGSimpleDataSource dataSource;
+
+    @Override
+    protected StorageProvider getStorageProvider() {
+        final PostgresStorageProvider storageProvider = new PostgresStorageProvider(getDataSource());
+        storageProvider.setJobMapper(new JobMapper(new JacksonJsonMapper()));
+        storageProvider.usePartitionedJobTable();
+        setInternalState(storageProvider, "changeListenerNotificationRateLimit", rateLimit().withoutLimits());
+        return storageProvider;
+    }
+
+    @Override
+    protected DataSource getDataSource() {
+        if (dataSource == null) {
+            partitionedSqlContainer.start();
+            dataSource = new PGSimpleDataSource();
+            dataSource.setURL(partitionedSqlContainer.getJdbcUrl());
+            dataSource.setUser(partitionedSqlContainer.getUsername());
+            dataSource.setPassword(partitionedSqlContainer.getPassword());
+        }
+        return dataSource;
+    }
+
+    @AfterAll
+    static void stopPartitionedSqlContainer() {
+        partitionedSqlContainer.stop();
+    }
+
+    @Test
+    void deleteJobsPermanentlyDropsDailyPartitionsOfDeletedJobs() {
+        storageProvider.save(aDeletedJob().build());
+        storageProvider.save(aJob().withState(new DeletedState("For test"), now().plus(3, DAYS)).build());
+        storageProvider.save(aJob().withState(new DeletedState("For test"), now().plus(3, DAYS)).build());
+
+        final int amountDeleted = storageProvider.deleteJobsPermanently(DELETED, now().plus(5, DAYS));
+
+        assertThat(amountDeleted).isEqualTo(3);
+        assertThat(storageProvider.getJobStats().getDeleted()).isZero();
+    }
+
+    @Test
+    void idsOfJobsAreUniqueAcrossPartitions() throws SQLException {
+        final Job job = storageProvider.save(anEnqueuedJob().build());
+
+        try (Connection connection = getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            assertThatThrownBy(() -> statement.executeUpdate("insert into jobrunr_jobs (id, version, jobAsJson, jobSignature, state, createdAt, updatedAt) "
+                    + "select id, version, jobAsJson, jobSignature, 'SUCCEEDED', createdAt, updatedAt from jobrunr_jobs where id = '" + job.getId() + "'"))
+                    .isInstanceOf(SQLException.class);
+        }
+    }
+}
@@ -1,8 +1,32 @@
 package org.jobrunr.storage.sql.postgres;
 
+import org.jobrunr.jobs.Job;
+import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
+import org.jobrunr.storage.sql.common.DefaultSqlStorageProvider;
+import org.jobrunr.storage.sql.common.db.dialect.PostgresDialect;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
 import org.postgresql.ds.PGSimpleDataSource;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.stream.IntStream;
+
+import static java.time.Instant.now;
+import static java.time.temporal.ChronoUnit.MICROS;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jobrunr.jobs.JobDetailsTestBuilder.systemOutPrintLnJobDetails;
+import static org.jobrunr.jobs.JobTestBuilder.anEnqueuedJob;
+import static org.jobrunr.utils.streams.StreamUtils.batchCollector;
 
 class PostgresStorageProviderTest extends AbstractPostgresStorageProviderTest {
 
@@ -18,4 +42,58 @@ class PostgresStorageProviderTest extends AbstractPostgresStorageProviderTest {
         }
         return dataSource;
     }
-}
\ No newline at end of file
+
+    @Test
+    void jobsSavedUsingCopyKeepTheirTimestampsInAnyTimeZone() throws SQLException {
+        final TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+            final List<Job> jobs = storageProvider.save(asList(anEnqueuedJob().build(), anEnqueuedJob().build()));
+
+            for (Job job : jobs) {
+                assertThat(updatedAtColumnOf(job)).isEqualTo(job.getUpdatedAt().truncatedTo(MICROS));
+            }
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    @Disabled
+    void testPerformanceOfCopyComparedToBatchedInserts() {
+        final DefaultSqlStorageProvider batchedInsertsStorageProvider = new DefaultSqlStorageProvider(getDataSource(), new PostgresDialect() {
+            @Override
+            public boolean supportsCopyIn() {
+                return false;
+            }
+        }, DatabaseOptions.SKIP_CREATE);
+        batchedInsertsStorageProvider.setJobMapper(jobMapper);
+
+        final int amount = 100000;
+        final Duration batchedInsertsDuration = timeToSave(batchedInsertsStorageProvider, amount);
+        cleanup();
+        final Duration copyDuration = timeToSave(storageProvider, amount);
+        System.out.println("Saved " + amount + " jobs using batched inserts in " + batchedInsertsDuration.toMillis() + " ms and using COPY in " + copyDuration.toMillis() + " ms");
+
+        assertThat(copyDuration).isLessThan(batchedInsertsDuration);
+    }
+
+    private Instant updatedAtColumnOf(Job job) throws SQLException {
+        try (Connection connection = getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("select updatedAt from jobrunr_jobs where id = ?")) {
+            statement.setString(1, job.getId().toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertThat(resultSet.next()).isTrue();
+                return resultSet.getTimestamp(1).toInstant();
+            }
+        }
+    }
+
+    private static Duration timeToSave(StorageProvider storageProvider, int amount) {
+        final Instant start = now();
+        IntStream.range(0, amount)
+                .mapToObj(i -> anEnqueuedJob().withJobDetails(systemOutPrintLnJobDetails("this is test " + i)).build())
+                .collect(batchCollector(1000, storageProvider::save));
+        return Duration.between(start, now());
+    }
+}
@@ -1,9 +1,27 @@
 package org.jobrunr.storage.sql.sqlite;
 
+import org.jobrunr.storage.JobRunrMetadata;
+import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
+import org.jobrunr.storage.listeners.MetadataChangeListener;
 import org.jobrunr.storage.sql.SqlStorageProviderTest;
+import org.junit.jupiter.api.Test;
 import org.sqlite.SQLiteDataSource;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 class SqLiteStorageProviderTest extends SqlStorageProviderTest {
 
@@ -17,4 +35,48 @@ class SqLiteStorageProviderTest extends SqlStorageProviderTest {
         }
         return dataSource;
     }
+
+    @Test
+    void jobQueriesUseCompositeIndexes() throws SQLException {
+        assertThat(queryPlan("select jobAsJson from jobrunr_jobs where state = 'SUCCEEDED' AND updatedAt <= '2020-01-01 00:00:00'"))
+                .containsIgnoringCase("jobrunr_state_updated_idx");
+        assertThat(queryPlan("select jobAsJson from jobrunr_jobs where state = 'SCHEDULED' and scheduledAt <= '2020-01-01 00:00:00'"))
+                .containsIgnoringCase("jobrunr_state_scheduled_idx");
+        assertThat(queryPlan("select count(*) from jobrunr_jobs where state in ('SCHEDULED','ENQUEUED','PROCESSING') AND recurringJobId = 'some-id'"))
+                .containsIgnoringCase("jobrunr_rci_state_idx");
+    }
+
+    @Test
+    void aTablePrefixIsRejectedBeforeTheDatabaseIsUsed() {
+        final DataSource dataSource = mock(DataSource.class);
+
+        assertThatThrownBy(() -> new SqLiteStorageProvider(dataSource, "some_prefix_", DatabaseOptions.CREATE)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void metadataChangeListenersAreOnlyNotifiedIfMetadataWasDeleted() {
+        final MetadataChangeListener changeListener = mock(MetadataChangeListener.class);
+        when(changeListener.listenForChangesOfMetadataName()).thenReturn("some-metadata");
+        storageProvider.addJobStorageOnChangeListener(changeListener);
+
+        storageProvider.deleteMetadata("some-metadata");
+        verify(changeListener, never()).onChange(any());
+
+        storageProvider.saveMetadata(new JobRunrMetadata("some-metadata", "some-owner", "some-value"));
+        storageProvider.deleteMetadata("some-metadata");
+        verify(changeListener, times(2)).onChange(any());
+    }
+
+    private String queryPlan(String query) throws SQLException {
+        try (Connection connection = getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN QUERY PLAN " + query)) {
+            final StringBuilder queryPlan = new StringBuilder();
+            while (resultSet.next()) {
+                queryPlan.append(resultSet.getString("detail")).append('\n');
+            }
+            return queryPlan.toString();
+        }
+    }
 }
\ No newline at end of file
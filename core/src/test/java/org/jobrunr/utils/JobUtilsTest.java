@@ -21,4 +21,13 @@ class JobUtilsTest {
         assertThat(JobUtils.jobExists("org.jobrunr.stubs.TestService.doWork(java.lang.Integer,java.lang.Integer,java.lang.Integer,java.lang.Integer)")).isFalse(); // too many parameters
     }
 
+    @Test
+    void getJobSignatureHash() {
+        assertThat(JobUtils.getJobSignatureHash("")).isEqualTo(0xcbf29ce484222325L);
+        assertThat(JobUtils.getJobSignatureHash("a")).isEqualTo(0xaf63dc4c8601ec8cL);
+        assertThat(JobUtils.getJobSignatureHash("org.jobrunr.stubs.TestService.doWork(java.util.UUID)"))
+                .isEqualTo(JobUtils.getJobSignatureHash("org.jobrunr.stubs.TestService.doWork(java.util.UUID)"))
+                .isNotEqualTo(JobUtils.getJobSignatureHash("org.jobrunr.stubs.TestService.doWork(java.lang.Integer)"));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE TABLE some_table (id int)
\ No newline at end of file
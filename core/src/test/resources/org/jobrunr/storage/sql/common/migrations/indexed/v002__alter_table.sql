@@ -0,0 +1 @@
+ALTER TABLE some_table ADD name varchar(64)
\ No newline at end of file
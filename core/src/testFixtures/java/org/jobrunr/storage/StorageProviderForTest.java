@@ -12,6 +12,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
 
@@ -189,6 +190,21 @@ public class StorageProviderForTest implements StorageProvider {
         return storageProvider.getJobStats();
     }
 
+    @Override
+    public void reconcileJobStats() {
+        storageProvider.reconcileJobStats();
+    }
+
+    @Override
+    public int archiveJobs() {
+        return storageProvider.archiveJobs();
+    }
+
+    @Override
+    public <T> T inTransaction(Function<StorageProvider, T> unitOfWork) {
+        return storageProvider.inTransaction(unitOfWork);
+    }
+
     @Override
     public void publishTotalAmountOfSucceededJobs(int amount) {
         storageProvider.publishTotalAmountOfSucceededJobs(amount);
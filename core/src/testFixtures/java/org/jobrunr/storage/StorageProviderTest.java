@@ -71,7 +71,10 @@ import static org.jobrunr.jobs.states.StateName.SUCCEEDED;
 import static org.jobrunr.storage.BackgroundJobServerStatusTestBuilder.aBackgroundJobServerStatusBasedOn;
 import static org.jobrunr.storage.BackgroundJobServerStatusTestBuilder.aDefaultBackgroundJobServerStatus;
 import static org.jobrunr.storage.PageRequest.ascOnUpdatedAt;
+import static org.jobrunr.storage.PageRequest.ascOnUpdatedAtAfter;
+import static org.jobrunr.storage.PageRequest.cursorOf;
 import static org.jobrunr.storage.PageRequest.descOnUpdatedAt;
+import static org.jobrunr.storage.PageRequest.descOnUpdatedAtAfter;
 import static org.jobrunr.utils.SleepUtils.sleep;
 import static org.jobrunr.utils.streams.StreamUtils.batchCollector;
 import static org.mockito.internal.util.reflection.Whitebox.getInternalState;
@@ -372,6 +375,20 @@ public abstract class StorageProviderTest {
         assertThat(asList(createdJob2, createdJob3)).allMatch(dbJob -> dbJob.getVersion() == 1);
     }
 
+    @Test
+    void testInTransaction() {
+        Job job = storageProvider.save(anEnqueuedJob().build());
+
+        final List<Job> savedJobs = storageProvider.inTransaction(unitOfWork -> {
+            Job fetchedJob = unitOfWork.getJobById(job.getId());
+            fetchedJob.startProcessingOn(backgroundJobServer);
+            return unitOfWork.save(asList(fetchedJob, anEnqueuedJob().build()));
+        });
+
+        assertThat(storageProvider.getJobById(job.getId())).hasState(PROCESSING);
+        assertThat(storageProvider.getJobById(savedJobs.get(1).getId())).hasState(ENQUEUED);
+    }
+
 
 
     @Test
@@ -564,6 +581,63 @@ public abstract class StorageProviderTest {
                 .containsExactly(jobs.get(2), jobs.get(1));
     }
 
+    @Test
+    void testJobPageCanUseCursor() {
+        final List<Job> jobs = asList(
+                aJob().withEnqueuedState(now().minusSeconds(10)).build(),
+                aJob().withEnqueuedState(now().minusSeconds(8)).build(),
+                aJob().withEnqueuedState(now().minusSeconds(6)).build(),
+                aJob().withEnqueuedState(now().minusSeconds(4)).build(),
+                aJob().withEnqueuedState(now().minusSeconds(2)).build()
+        );
+
+        storageProvider.save(jobs);
+
+        Page<Job> firstPageAsc = storageProvider.getJobPage(ENQUEUED, ascOnUpdatedAt(2));
+        Page<Job> secondPageAsc = storageProvider.getJobPage(ENQUEUED, ascOnUpdatedAtAfter(firstPageAsc.getNextCursor(), 2));
+        assertThatJobs(secondPageAsc.getItems())
+                .hasSize(2)
+                .containsExactly(jobs.get(2), jobs.get(3));
+        Page<Job> lastPageAsc = storageProvider.getJobPage(ENQUEUED, ascOnUpdatedAtAfter(secondPageAsc.getNextCursor(), 2));
+        assertThatJobs(lastPageAsc.getItems())
+                .hasSize(1)
+                .containsExactly(jobs.get(4));
+        assertThat(lastPageAsc.hasNext()).isFalse();
+
+        Page<Job> firstPageDesc = storageProvider.getJobPage(ENQUEUED, descOnUpdatedAt(2));
+        Page<Job> secondPageDesc = storageProvider.getJobPage(ENQUEUED, descOnUpdatedAtAfter(firstPageDesc.getNextCursor(), 2));
+        assertThatJobs(secondPageDesc.getItems())
+                .hasSize(2)
+                .containsExactly(jobs.get(2), jobs.get(1));
+
+        List<Job> jobsUpdatedBefore = storageProvider.getJobs(ENQUEUED, now(), ascOnUpdatedAtAfter(jobs.get(3), 10));
+        assertThatJobs(jobsUpdatedBefore)
+                .hasSize(1)
+                .containsExactly(jobs.get(4));
+
+        List<Job> jobsUpdatedBeforeDesc = storageProvider.getJobs(ENQUEUED, now().minusSeconds(5), descOnUpdatedAtAfter(cursorOf(jobs.get(4)), 10));
+        assertThatJobs(jobsUpdatedBeforeDesc)
+                .hasSize(3)
+                .containsExactly(jobs.get(2), jobs.get(1), jobs.get(0));
+    }
+
+    @Test
+    void testCursorDoesNotSkipJobsUpdatedAtTheSameTime() {
+        final Instant updatedAt = now().minusSeconds(10).truncatedTo(ChronoUnit.MILLIS);
+        final List<Job> jobs = IntStream.range(0, 5)
+                .mapToObj(i -> aJob().withEnqueuedState(updatedAt).build())
+                .collect(Collectors.toList());
+        storageProvider.save(jobs);
+
+        final List<Job> pagedJobs = new ArrayList<>();
+        List<Job> page = storageProvider.getJobs(ENQUEUED, ascOnUpdatedAtAfter(aJob().withEnqueuedState(updatedAt.minusSeconds(1)).build(), 2));
+        while (!page.isEmpty()) {
+            pagedJobs.addAll(page);
+            page = storageProvider.getJobs(ENQUEUED, ascOnUpdatedAtAfter(page.get(page.size() - 1), 2));
+        }
+        assertThatJobs(pagedJobs).hasSize(5).containsExactlyInAnyOrderElementsOf(jobs);
+    }
+
     @Test
     void testGetListOfJobsUpdatedBefore() {
         final List<Job> jobs = asList(
@@ -740,6 +814,41 @@ public abstract class StorageProviderTest {
         assertThat(jobStats.getBackgroundJobServers()).isEqualTo(1);
     }
 
+    @Test
+    void testAllTimeSucceededSumsAllPublishedAmounts() {
+        for (int i = 0; i < 20; i++) {
+            storageProvider.publishTotalAmountOfSucceededJobs(3);
+        }
+
+        assertThat(storageProvider.getJobStats().getAllTimeSucceeded()).isEqualTo(60);
+    }
+
+    @Test
+    void testJobStatsFollowStateChangesAndDeletes() {
+        final Job job1 = storageProvider.save(anEnqueuedJob().build());
+        final Job job2 = storageProvider.save(anEnqueuedJob().build());
+        final Job job3 = storageProvider.save(anEnqueuedJob().build());
+
+        job1.startProcessingOn(backgroundJobServer);
+        job1.succeeded();
+        job2.startProcessingOn(backgroundJobServer);
+        storageProvider.save(asList(job1, job2));
+        storageProvider.deletePermanently(job3.getId());
+
+        JobStats jobStats = storageProvider.getJobStats();
+        assertThat(jobStats.getEnqueued()).isZero();
+        assertThat(jobStats.getProcessing()).isEqualTo(1);
+        assertThat(jobStats.getSucceeded()).isEqualTo(1);
+        assertThat(jobStats.getTotal()).isEqualTo(2);
+
+        storageProvider.reconcileJobStats();
+
+        jobStats = storageProvider.getJobStats();
+        assertThat(jobStats.getProcessing()).isEqualTo(1);
+        assertThat(jobStats.getSucceeded()).isEqualTo(1);
+        assertThat(jobStats.getTotal()).isEqualTo(2);
+    }
+
     @Test
     @Disabled
     void testPerformance() {